@@ -0,0 +1,39 @@
+package de.wuespace.telestion.benchmarks;
+
+import de.wuespace.telestion.bridge.LoopbackBridge;
+import de.wuespace.telestion.client.EventBusClient;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A connected {@link EventBusClient} talking to a {@link LoopbackBridge} on the local machine.
+ */
+@State(Scope.Benchmark)
+public class BridgeState {
+    public LoopbackBridge bridge;
+    public EventBusClient client;
+
+    @Setup(Level.Trial)
+    public void connect() throws Exception {
+        bridge = LoopbackBridge.start();
+        client = EventBusClient.connectWithTcpBridge("localhost", bridge.getPort());
+
+        var connected = new CompletableFuture<Void>();
+        client.connectedHandler(() -> connected.complete(null));
+        client.connect();
+        connected.get(10, TimeUnit.SECONDS);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws IOException {
+        client.close();
+        bridge.close();
+    }
+}
@@ -0,0 +1,72 @@
+package de.wuespace.telestion.benchmarks;
+
+import de.wuespace.telestion.client.json.JacksonCodec;
+import de.wuespace.telestion.client.json.PayloadFormat;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JacksonCodecBenchmark {
+
+    private TelemetryMessage message;
+    private String json;
+    private Map<String, Object> body;
+    private byte[] cbor;
+    private byte[] smile;
+
+    @Setup
+    public void setup() {
+        message = TelemetryMessage.sample();
+        json = message.toJsonString();
+        // decoded bridge bodies are untyped maps
+        body = JacksonCodec.from(json, Map.class);
+        cbor = JacksonCodec.toBytes(message, PayloadFormat.CBOR);
+        smile = JacksonCodec.toBytes(message, PayloadFormat.SMILE);
+    }
+
+    @Benchmark
+    public TelemetryMessage fromString() {
+        return JacksonCodec.from(json, TelemetryMessage.class);
+    }
+
+    @Benchmark
+    public TelemetryMessage fromObject() {
+        return JacksonCodec.from((Object) body, TelemetryMessage.class);
+    }
+
+    @Benchmark
+    public String toStringCompact() {
+        return JacksonCodec.toString(message);
+    }
+
+    @Benchmark
+    public String toStringPretty() {
+        return JacksonCodec.toString(message, true);
+    }
+
+    @Benchmark
+    public byte[] toBytesCbor() {
+        return JacksonCodec.toBytes(message, PayloadFormat.CBOR);
+    }
+
+    @Benchmark
+    public TelemetryMessage fromBytesCbor() {
+        return JacksonCodec.from(cbor, TelemetryMessage.class, PayloadFormat.CBOR);
+    }
+
+    @Benchmark
+    public byte[] toBytesSmile() {
+        return JacksonCodec.toBytes(message, PayloadFormat.SMILE);
+    }
+
+    @Benchmark
+    public TelemetryMessage fromBytesSmile() {
+        return JacksonCodec.from(smile, TelemetryMessage.class, PayloadFormat.SMILE);
+    }
+}
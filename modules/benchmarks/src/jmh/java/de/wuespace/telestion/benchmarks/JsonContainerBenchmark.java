@@ -0,0 +1,80 @@
+package de.wuespace.telestion.benchmarks;
+
+import de.wuespace.telestion.client.json.JsonArray;
+import de.wuespace.telestion.client.json.JsonObject;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JsonContainerBenchmark {
+
+    @Param({"1", "4", "16"})
+    public int depth;
+
+    private static final String[] NUMERIC_KEYS = {"time", "temperature", "voltage", "mode"};
+
+    private JsonObject object;
+    private JsonArray array;
+    private final double[] values = new double[NUMERIC_KEYS.length];
+
+    @Setup
+    public void setup() {
+        object = new JsonObject(TelemetryMessage.sample().toJsonString());
+
+        // nest the telemetry object depth times: {"child": {"child": ... }}
+        var root = object;
+        for (int i = 0; i < depth; i++) {
+            root = new JsonObject().put("child", root.getContents()).put("index", i);
+        }
+        object = root;
+
+        array = new JsonArray();
+        for (int i = 0; i < 16; i++) {
+            array.add(object.getContents());
+        }
+    }
+
+    @Benchmark
+    public void objectAccessors(Blackhole blackhole) {
+        var leaf = nestedLeaf();
+        blackhole.consume(leaf.getString("source"));
+        blackhole.consume(leaf.getLong("time"));
+        blackhole.consume(leaf.getDouble("temperature"));
+        blackhole.consume(leaf.getInteger("mode"));
+    }
+
+    @Benchmark
+    public double[] primitiveBulkAccessors() {
+        return nestedLeaf().getDoubleValues(NUMERIC_KEYS, values, Double.NaN);
+    }
+
+    @Benchmark
+    public JsonObject nestedGetJsonObject() {
+        return nestedLeaf().getJsonObject("attitude").getJsonObject("rate");
+    }
+
+    @Benchmark
+    public void arrayAccessors(Blackhole blackhole) {
+        for (int i = 0; i < array.size(); i++) {
+            blackhole.consume(array.getJsonObject(i).getInteger("index"));
+        }
+        var flags = nestedLeaf().getJsonArray("flags");
+        for (int i = 0; i < flags.size(); i++) {
+            blackhole.consume(flags.getInteger(i));
+        }
+    }
+
+    private JsonObject nestedLeaf() {
+        var current = object;
+        for (int i = 0; i < depth; i++) {
+            current = current.getJsonObject("child");
+        }
+        return current;
+    }
+}
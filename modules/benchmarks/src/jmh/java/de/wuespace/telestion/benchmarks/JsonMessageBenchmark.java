@@ -0,0 +1,51 @@
+package de.wuespace.telestion.benchmarks;
+
+import de.wuespace.telestion.client.JsonMessage;
+import de.wuespace.telestion.client.json.JacksonCodec;
+import io.vertx.eventbusclient.Message;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JsonMessageBenchmark {
+
+    private String json;
+    private Object body;
+    private Message<?> message;
+
+    @Setup
+    public void setup(BridgeState state) throws Exception {
+        json = TelemetryMessage.sample().toJsonString();
+        body = JacksonCodec.from(json, Map.class);
+
+        // capture a real message as delivered by the bridge client
+        var received = new CompletableFuture<Message<?>>();
+        var registration = state.client.register("benchmark.capture", received::complete);
+        state.client.publish("benchmark.capture", TelemetryMessage.sample());
+        message = received.get(10, TimeUnit.SECONDS);
+        registration.unregister();
+    }
+
+    @Benchmark
+    public boolean onString(Blackhole blackhole) {
+        return JsonMessage.on(TelemetryMessage.class, json, blackhole::consume);
+    }
+
+    @Benchmark
+    public boolean onObject(Blackhole blackhole) {
+        return JsonMessage.on(TelemetryMessage.class, body, blackhole::consume);
+    }
+
+    @Benchmark
+    public boolean onMessage(Blackhole blackhole) {
+        return JsonMessage.on(TelemetryMessage.class, message, blackhole::consume);
+    }
+}
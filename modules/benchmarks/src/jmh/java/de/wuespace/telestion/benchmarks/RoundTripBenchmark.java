@@ -0,0 +1,46 @@
+package de.wuespace.telestion.benchmarks;
+
+import de.wuespace.telestion.client.Registration;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end latency of a message published by the client, routed by the loopback bridge
+ * and decoded by a handler registered on the same client.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.SampleTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RoundTripBenchmark {
+    private static final String ADDRESS = "benchmark.round-trip";
+
+    private BridgeState state;
+    private Registration registration;
+    private TelemetryMessage message;
+
+    private volatile CompletableFuture<TelemetryMessage> pending;
+
+    @Setup
+    public void setup(BridgeState state) {
+        this.state = state;
+        this.message = TelemetryMessage.sample();
+        this.registration = state.client.register(ADDRESS, body -> pending.complete(body), TelemetryMessage.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        registration.unregister();
+    }
+
+    @Benchmark
+    public TelemetryMessage publishAndReceive() throws Exception {
+        var future = new CompletableFuture<TelemetryMessage>();
+        pending = future;
+        state.client.publish(ADDRESS, message);
+        return future.get(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,35 @@
+package de.wuespace.telestion.benchmarks;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import de.wuespace.telestion.client.JsonMessage;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A typical telemetry record as it is received from the ground station.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record TelemetryMessage(
+        @JsonProperty String source,
+        @JsonProperty long time,
+        @JsonProperty double temperature,
+        @JsonProperty double voltage,
+        @JsonProperty int mode,
+        @JsonProperty List<Integer> flags,
+        @JsonProperty Map<String, Object> attitude
+) implements JsonMessage {
+
+    public static TelemetryMessage sample() {
+        return new TelemetryMessage(
+                "eps",
+                1676000000000L,
+                21.5,
+                3.31,
+                2,
+                List.of(1, 0, 0, 1, 1, 0, 1, 0),
+                Map.of("quaternion", List.of(0.0, 0.7071, 0.0, 0.7071), "rate", Map.of("x", 0.01, "y", -0.02, "z", 0.0))
+        );
+    }
+}
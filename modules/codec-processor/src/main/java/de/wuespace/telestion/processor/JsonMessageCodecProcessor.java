@@ -0,0 +1,419 @@
+package de.wuespace.telestion.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates a reflection-free {@code GeneratedCodec} for every {@code record} that implements
+ * {@code de.wuespace.telestion.client.JsonMessage}.
+ * <p>
+ * The generated codec writes and reads the record straight through Jackson's streaming {@code JsonGenerator} and
+ * {@code JsonParser} and produces the same JSON as Jackson's reflective record support. Components of other types
+ * than strings and primitives are handed to the (de)serializers Jackson would use for them.
+ * Records with other Jackson annotations than {@code @JsonProperty} and {@code @JsonIgnoreProperties(ignoreUnknown = ...)},
+ * with additional getters, with type parameters or that are private are skipped with a note, since only Jackson knows how to handle them.
+ * <p>
+ * Enable the processor with {@code annotationProcessor project(':modules:codec-processor')}.
+ * The {@code JacksonCodec} picks up the generated codecs automatically.
+ */
+@SupportedAnnotationTypes("*")
+public class JsonMessageCodecProcessor extends AbstractProcessor {
+    static final String JSON_MESSAGE = "de.wuespace.telestion.client.JsonMessage";
+    static final String SUFFIX = "JsonCodec";
+
+    private static final String JACKSON = "com.fasterxml.jackson.";
+    private static final String JSON_PROPERTY = "com.fasterxml.jackson.annotation.JsonProperty";
+    private static final String JSON_IGNORE_PROPERTIES = "com.fasterxml.jackson.annotation.JsonIgnoreProperties";
+    private static final String RUNTIME = "de.wuespace.telestion.client.json.GeneratedCodecs";
+
+    /**
+     * A component of the record with its name in JSON.
+     */
+    private record Component(String accessor, String name, TypeMirror type) {
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        var jsonMessage = processingEnv.getElementUtils().getTypeElement(JSON_MESSAGE);
+        if (jsonMessage == null) {
+            // the event bus client is not on the classpath, so there is nothing to generate
+            return false;
+        }
+        for (var element : roundEnv.getRootElements()) {
+            visit(element, processingEnv.getTypeUtils().erasure(jsonMessage.asType()));
+        }
+        // other processors may process the same elements
+        return false;
+    }
+
+    private void visit(Element element, TypeMirror jsonMessage) {
+        if (element.getKind() == ElementKind.RECORD
+                && processingEnv.getTypeUtils().isAssignable(element.asType(), jsonMessage)) {
+            var record = (TypeElement) element;
+            var components = new ArrayList<Component>();
+            var reason = check(record, components);
+            if (reason == null) {
+                generate(record, components);
+            } else {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                        "No codec generated for " + record.getQualifiedName() + ": " + reason, record);
+            }
+        }
+        for (var enclosed : element.getEnclosedElements()) {
+            if (enclosed.getKind().isClass() || enclosed.getKind().isInterface()) {
+                visit(enclosed, jsonMessage);
+            }
+        }
+    }
+
+    ///
+    /// CHECK SECTION
+    ///
+
+    /**
+     * Collects the components of the record.
+     *
+     * @return the reason why no codec can be generated or {@code null}
+     */
+    private String check(TypeElement record, List<Component> components) {
+        if (!record.getTypeParameters().isEmpty()) {
+            return "generic records are not supported";
+        }
+        for (Element enclosing = record; enclosing instanceof TypeElement; enclosing = enclosing.getEnclosingElement()) {
+            if (enclosing.getModifiers().contains(Modifier.PRIVATE)) {
+                return "private types are not accessible";
+            }
+        }
+        var annotation = foreignJacksonAnnotation(record.getAnnotationMirrors().stream()
+                .filter(mirror -> !isIgnoreUnknown(mirror))
+                .toList());
+        if (annotation != null) {
+            return "the record is annotated with " + annotation;
+        }
+
+        var names = new HashSet<String>();
+        var accessors = new HashSet<String>();
+        for (var component : record.getRecordComponents()) {
+            var mirrors = new ArrayList<AnnotationMirror>(component.getAnnotationMirrors());
+            mirrors.addAll(component.getAccessor().getAnnotationMirrors());
+            for (var field : record.getEnclosedElements()) {
+                if (field.getKind() == ElementKind.FIELD && field.getSimpleName().equals(component.getSimpleName())) {
+                    mirrors.addAll(field.getAnnotationMirrors());
+                }
+            }
+            annotation = foreignJacksonAnnotation(mirrors);
+            if (annotation != null) {
+                return "component " + component.getSimpleName() + " is annotated with " + annotation;
+            }
+            if (component.asType().getKind() == TypeKind.TYPEVAR || component.asType().getKind() == TypeKind.ERROR) {
+                return "component " + component.getSimpleName() + " has no concrete type";
+            }
+
+            var name = jsonName(component, mirrors);
+            if (!names.add(name)) {
+                return "two components are named " + name;
+            }
+            accessors.add(component.getAccessor().getSimpleName().toString());
+            components.add(new Component(component.getAccessor().getSimpleName().toString(), name, component.asType()));
+        }
+
+        for (var method : record.getEnclosedElements()) {
+            if (method.getKind() != ElementKind.METHOD || accessors.contains(method.getSimpleName().toString())) {
+                continue;
+            }
+            annotation = foreignJacksonAnnotation(method.getAnnotationMirrors());
+            if (annotation != null || hasJsonProperty(method.getAnnotationMirrors())) {
+                return "method " + method.getSimpleName() + " is annotated for Jackson";
+            }
+            if (isGetter((ExecutableElement) method)) {
+                return "Jackson would serialize the getter " + method.getSimpleName();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the first Jackson annotation that the generated codec does not understand or {@code null}
+     */
+    private static String foreignJacksonAnnotation(List<? extends AnnotationMirror> mirrors) {
+        for (var mirror : mirrors) {
+            var name = annotationName(mirror);
+            if (!name.startsWith(JACKSON)) {
+                continue;
+            }
+            if (!name.equals(JSON_PROPERTY)) {
+                return "@" + name;
+            }
+            for (var value : mirror.getElementValues().keySet()) {
+                if (!value.getSimpleName().contentEquals("value")) {
+                    return "@JsonProperty(" + value.getSimpleName() + ")";
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return {@code true} for {@code @JsonIgnoreProperties(ignoreUnknown = ...)} without ignored property names
+     */
+    private static boolean isIgnoreUnknown(AnnotationMirror mirror) {
+        return annotationName(mirror).equals(JSON_IGNORE_PROPERTIES) && mirror.getElementValues().keySet().stream()
+                .allMatch(value -> value.getSimpleName().contentEquals("ignoreUnknown"));
+    }
+
+    private static boolean ignoresUnknown(TypeElement record) {
+        return record.getAnnotationMirrors().stream()
+                .filter(JsonMessageCodecProcessor::isIgnoreUnknown)
+                .flatMap(mirror -> mirror.getElementValues().values().stream())
+                .anyMatch(value -> Boolean.TRUE.equals(value.getValue()));
+    }
+
+    private static boolean hasJsonProperty(List<? extends AnnotationMirror> mirrors) {
+        return mirrors.stream().anyMatch(mirror -> annotationName(mirror).equals(JSON_PROPERTY));
+    }
+
+    private static String annotationName(AnnotationMirror mirror) {
+        return ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString();
+    }
+
+    private static String jsonName(RecordComponentElement component, List<AnnotationMirror> mirrors) {
+        for (var mirror : mirrors) {
+            if (!annotationName(mirror).equals(JSON_PROPERTY)) {
+                continue;
+            }
+            for (var value : mirror.getElementValues().entrySet()) {
+                if (value.getKey().getSimpleName().contentEquals("value") && !value.getValue().getValue().toString().isEmpty()) {
+                    return value.getValue().getValue().toString();
+                }
+            }
+        }
+        return component.getSimpleName().toString();
+    }
+
+    private static boolean isGetter(ExecutableElement method) {
+        if (method.getModifiers().contains(Modifier.STATIC) || !method.getModifiers().contains(Modifier.PUBLIC)
+                || !method.getParameters().isEmpty() || method.getReturnType().getKind() == TypeKind.VOID) {
+            return false;
+        }
+        var name = method.getSimpleName().toString();
+        return (name.startsWith("get") && name.length() > 3)
+                || (name.startsWith("is") && name.length() > 2 && method.getReturnType().getKind() == TypeKind.BOOLEAN);
+    }
+
+    ///
+    /// GENERATION SECTION
+    ///
+
+    private void generate(TypeElement record, List<Component> components) {
+        var elements = processingEnv.getElementUtils();
+        var packageName = elements.getPackageOf(record).getQualifiedName().toString();
+        var binaryName = elements.getBinaryName(record).toString();
+        var simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+                .replace('$', '_') + SUFFIX;
+        var type = record.getQualifiedName().toString();
+
+        var source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n")
+                .append("public final class ").append(simpleName)
+                .append(" implements de.wuespace.telestion.client.json.GeneratedCodec<").append(type).append("> {\n");
+
+        for (int i = 0; i < components.size(); i++) {
+            var component = components.get(i);
+            if (kind(component.type()) == Kind.GENERIC) {
+                source.append("    private static final com.fasterxml.jackson.databind.JavaType TYPE_").append(i)
+                        .append(" = com.fasterxml.jackson.databind.type.TypeFactory.defaultInstance().constructType(")
+                        .append("new com.fasterxml.jackson.core.type.TypeReference<").append(component.type())
+                        .append(">() {\n    });\n");
+            }
+        }
+
+        source.append("\n    @Override\n    public Class<").append(type).append("> getType() {\n")
+                .append("        return ").append(type).append(".class;\n    }\n");
+
+        writeMethod(source, type, components);
+        readMethod(source, type, components, ignoresUnknown(record));
+        source.append("}\n");
+
+        try (var writer = processingEnv.getFiler()
+                .createSourceFile(packageName.isEmpty() ? simpleName : packageName + "." + simpleName, record)
+                .openWriter()) {
+            writer.write(source.toString());
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Cannot write codec of " + type + ": " + e.getMessage(), record);
+        }
+    }
+
+    private void writeMethod(StringBuilder source, String type, List<Component> components) {
+        source.append("\n    @Override\n    public void write(com.fasterxml.jackson.core.JsonGenerator generator, ")
+                .append(type).append(" value, com.fasterxml.jackson.databind.SerializerProvider provider)")
+                .append(" throws java.io.IOException {\n")
+                .append("        generator.writeStartObject(value);\n");
+        for (int i = 0; i < components.size(); i++) {
+            var component = components.get(i);
+            var name = literal(component.name());
+            var value = "value." + component.accessor() + "()";
+            switch (kind(component.type())) {
+                case STRING -> line(source, "generator.writeStringField(" + name + ", " + value + ");");
+                case PRIMITIVE -> line(source, writePrimitive(component.type().getKind(), name, value));
+                case BOXED -> {
+                    line(source, "var c" + i + " = " + value + ";");
+                    line(source, "if (c" + i + " == null) {");
+                    line(source, "    generator.writeNullField(" + name + ");");
+                    line(source, "} else {");
+                    var primitive = processingEnv.getTypeUtils().unboxedType(component.type()).getKind();
+                    line(source, "    " + writePrimitive(primitive, name, "c" + i));
+                    line(source, "}");
+                }
+                default -> line(source, "provider.defaultSerializeField(" + name + ", " + value + ", generator);");
+            }
+        }
+        source.append("        generator.writeEndObject();\n    }\n");
+    }
+
+    private void readMethod(StringBuilder source, String type, List<Component> components, boolean ignoreUnknown) {
+        source.append("\n    @Override\n    public ").append(type)
+                .append(" read(com.fasterxml.jackson.core.JsonParser parser, com.fasterxml.jackson.databind.DeserializationContext context)")
+                .append(" throws java.io.IOException {\n");
+        for (int i = 0; i < components.size(); i++) {
+            var component = components.get(i);
+            line(source, component.type() + " c" + i + " = " + defaultValue(component.type()) + ";");
+        }
+        line(source, "var token = parser.currentToken();");
+        line(source, "if (token == com.fasterxml.jackson.core.JsonToken.START_OBJECT) {");
+        line(source, "    token = parser.nextToken();");
+        line(source, "} else if (token != com.fasterxml.jackson.core.JsonToken.FIELD_NAME && token != com.fasterxml.jackson.core.JsonToken.END_OBJECT) {");
+        line(source, "    return (" + type + ") context.handleUnexpectedToken(" + type + ".class, parser);");
+        line(source, "}");
+        line(source, "for (; token == com.fasterxml.jackson.core.JsonToken.FIELD_NAME; token = parser.nextToken()) {");
+        line(source, "    var field = parser.currentName();");
+        line(source, "    parser.nextToken();");
+        line(source, "    switch (field) {");
+        for (int i = 0; i < components.size(); i++) {
+            var component = components.get(i);
+            line(source, "        case " + literal(component.name()) + " -> c" + i + " = " + read(component.type(), i) + ";");
+        }
+        if (ignoreUnknown) {
+            line(source, "        default -> parser.skipChildren();");
+        } else {
+            line(source, "        default -> context.handleUnknownProperty(parser, null, " + type + ".class, field);");
+        }
+        line(source, "    }");
+        line(source, "}");
+        var arguments = new StringBuilder();
+        for (int i = 0; i < components.size(); i++) {
+            arguments.append(i == 0 ? "" : ", ").append("c").append(i);
+        }
+        line(source, "return new " + type + "(" + arguments + ");");
+        source.append("    }\n");
+    }
+
+    private String read(TypeMirror type, int index) {
+        return switch (kind(type)) {
+            case STRING -> RUNTIME + ".readString(parser, context)";
+            case PRIMITIVE -> RUNTIME + ".read" + capitalize(type.getKind().name().toLowerCase()) + "(parser, context)";
+            case GENERIC -> RUNTIME + ".readValue(parser, context, TYPE_" + index + ")";
+            default -> RUNTIME + ".readValue(parser, context, " + processingEnv.getTypeUtils().erasure(type) + ".class)";
+        };
+    }
+
+    private static String writePrimitive(TypeKind kind, String name, String value) {
+        return switch (kind) {
+            case BOOLEAN -> "generator.writeBooleanField(" + name + ", " + value + ");";
+            // like Jackson, chars are strings and bytes and shorts are ints
+            case CHAR -> "generator.writeStringField(" + name + ", String.valueOf(" + value + "));";
+            case BYTE, SHORT -> "generator.writeNumberField(" + name + ", (int) " + value + ");";
+            default -> "generator.writeNumberField(" + name + ", " + value + ");";
+        };
+    }
+
+    private static String defaultValue(TypeMirror type) {
+        return switch (type.getKind()) {
+            case BOOLEAN -> "false";
+            case CHAR -> "'\\0'";
+            case BYTE, SHORT, INT, LONG, FLOAT, DOUBLE -> "0";
+            default -> "null";
+        };
+    }
+
+    private enum Kind {
+        STRING, PRIMITIVE, BOXED, GENERIC, OTHER
+    }
+
+    private Kind kind(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return Kind.PRIMITIVE;
+        }
+        if (type.getKind() == TypeKind.DECLARED) {
+            var element = (TypeElement) ((DeclaredType) type).asElement();
+            if (element.getQualifiedName().contentEquals("java.lang.String")) {
+                return Kind.STRING;
+            }
+            try {
+                processingEnv.getTypeUtils().unboxedType(type);
+                return Kind.BOXED;
+            } catch (IllegalArgumentException e) {
+                // not a boxed primitive
+            }
+            if (!((DeclaredType) type).getTypeArguments().isEmpty()) {
+                return Kind.GENERIC;
+            }
+        }
+        if (type.getKind() == TypeKind.ARRAY && type.toString().contains("<")) {
+            return Kind.GENERIC;
+        }
+        return Kind.OTHER;
+    }
+
+    private static void line(StringBuilder source, String line) {
+        source.append("        ").append(line).append('\n');
+    }
+
+    private static String literal(String value) {
+        var literal = new StringBuilder("\"");
+        for (var c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> literal.append("\\\"");
+                case '\\' -> literal.append("\\\\");
+                default -> {
+                    if (c < 0x20 || c > 0x7e) {
+                        literal.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        literal.append(c);
+                    }
+                }
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+    private static String capitalize(String value) {
+        return Character.toUpperCase(value.charAt(0)) + value.substring(1);
+    }
+}
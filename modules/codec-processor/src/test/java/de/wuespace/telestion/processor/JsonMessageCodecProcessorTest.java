@@ -0,0 +1,106 @@
+package de.wuespace.telestion.processor;
+
+import de.wuespace.telestion.client.JsonMessage;
+import de.wuespace.telestion.client.json.GeneratedCodecs;
+import de.wuespace.telestion.client.json.JacksonCodec;
+import de.wuespace.telestion.client.json.PayloadFormat;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+public class JsonMessageCodecProcessorTest {
+    private static final String SOURCE = """
+            package demo;
+
+            import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+            import com.fasterxml.jackson.annotation.JsonProperty;
+            import de.wuespace.telestion.client.JsonMessage;
+            import java.util.List;
+
+            @JsonIgnoreProperties(ignoreUnknown = true)
+            public record Telemetry(@JsonProperty("id") String name, int count, Long total, boolean ok, char mode,
+                                    double[] values, List<String> tags, Position position) implements JsonMessage {
+                public record Position(float x, Double y) implements JsonMessage {
+                }
+
+                public record Renamed(@JsonProperty(value = "a", required = true) String name) implements JsonMessage {
+                }
+
+                public record Getter(String name) implements JsonMessage {
+                    public String getLabel() {
+                        return name;
+                    }
+                }
+            }
+            """;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void generatesCodecsForEligibleRecords() throws Exception {
+        var diagnostics = compile();
+        Assertions.assertTrue(Files.exists(directory.resolve("classes/demo/TelemetryJsonCodec.class")));
+        Assertions.assertTrue(Files.exists(directory.resolve("classes/demo/Telemetry_PositionJsonCodec.class")));
+        Assertions.assertFalse(Files.exists(directory.resolve("classes/demo/Telemetry_RenamedJsonCodec.class")));
+        Assertions.assertFalse(Files.exists(directory.resolve("classes/demo/Telemetry_GetterJsonCodec.class")));
+        Assertions.assertTrue(diagnostics.getDiagnostics().stream()
+                .anyMatch(diagnostic -> diagnostic.getMessage(null).contains("getter getLabel")));
+    }
+
+    @Test
+    public void generatedCodecsMatchJackson() throws Exception {
+        compile();
+        try (var loader = new URLClassLoader(new URL[]{directory.resolve("classes").toUri().toURL()},
+                getClass().getClassLoader())) {
+            var type = loader.loadClass("demo.Telemetry").asSubclass(JsonMessage.class);
+            Assertions.assertNotNull(GeneratedCodecs.find(type));
+
+            var json = "{\"id\":\"sat-1\",\"count\":3,\"total\":null,\"ok\":true,\"mode\":\"A\",\"values\":[1.5,2.0],"
+                    + "\"tags\":[\"x\"],\"position\":{\"x\":1.25,\"y\":null}}";
+            var message = JacksonCodec.from(json, type);
+            Assertions.assertEquals(json, message.toJsonString());
+            Assertions.assertEquals(json, JacksonCodec.from(
+                    message.toBytes(PayloadFormat.CBOR), type, PayloadFormat.CBOR).toJsonString());
+
+            // unknown fields are skipped like @JsonIgnoreProperties(ignoreUnknown = true) tells Jackson
+            var sparse = JacksonCodec.from(Map.of("id", "sat-2", "unknown", List.of(1, 2)), type);
+            Assertions.assertEquals("{\"id\":\"sat-2\",\"count\":0,\"total\":null,\"ok\":false,\"mode\":\"\\u0000\","
+                    + "\"values\":null,\"tags\":null,\"position\":null}", sparse.toJsonString());
+        }
+    }
+
+    private DiagnosticCollector<JavaFileObject> compile() throws IOException {
+        var source = directory.resolve("src/demo/Telemetry.java");
+        Files.createDirectories(source.getParent());
+        Files.writeString(source, SOURCE);
+        var classes = Files.createDirectories(directory.resolve("classes"));
+
+        var compiler = ToolProvider.getSystemJavaCompiler();
+        var diagnostics = new DiagnosticCollector<JavaFileObject>();
+        try (var files = compiler.getStandardFileManager(diagnostics, null, null)) {
+            var task = compiler.getTask(null, files, diagnostics,
+                    List.of("-d", classes.toString(), "-classpath", System.getProperty("java.class.path")),
+                    null, files.getJavaFileObjects(source));
+            task.setProcessors(List.of(new JsonMessageCodecProcessor()));
+            Assertions.assertTrue(task.call(), () -> diagnostics.getDiagnostics().stream()
+                    .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                    .map(diagnostic -> diagnostic.getMessage(null))
+                    .toList()
+                    .toString());
+        }
+        return diagnostics;
+    }
+}
@@ -0,0 +1,17 @@
+package de.wuespace.telestion.bridge;
+
+/**
+ * Describes how the {@link LoopbackBridge} routes {@code send} and {@code publish} frames.
+ */
+public enum BridgeMode {
+    /**
+     * Every message is delivered back to the connection it came from on the same address.
+     * Requests are answered with their own body.
+     */
+    ECHO,
+    /**
+     * Like the real bridge: published messages are delivered to every connection registered on the address,
+     * sent messages to one of them in a round-robin fashion.
+     */
+    FANOUT
+}
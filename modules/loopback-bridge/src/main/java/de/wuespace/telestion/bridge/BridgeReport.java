@@ -0,0 +1,60 @@
+package de.wuespace.telestion.bridge;
+
+import de.wuespace.telestion.client.metrics.LatencyHistogram;
+
+/**
+ * Statistics of a {@link LoopbackBridge} over one reporting interval.
+ *
+ * @param intervalNanos   the length of the interval
+ * @param framesIn        frames received from clients
+ * @param framesOut       frames written to clients
+ * @param bytesIn         bytes received from clients including the length prefix
+ * @param bytesOut        bytes written to clients including the length prefix
+ * @param produced        messages published by the producer
+ * @param responses       messages received on the response address
+ * @param latency         round-trip latencies of the producer messages
+ */
+public record BridgeReport(
+        long intervalNanos,
+        long framesIn,
+        long framesOut,
+        long bytesIn,
+        long bytesOut,
+        long produced,
+        long responses,
+        LatencyHistogram.Snapshot latency
+) {
+    public double framesInPerSecond() {
+        return perSecond(framesIn);
+    }
+
+    public double framesOutPerSecond() {
+        return perSecond(framesOut);
+    }
+
+    public double responsesPerSecond() {
+        return perSecond(responses);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "in: %.0f frames/s (%.1f MiB/s), out: %.0f frames/s (%.1f MiB/s), produced: %d, responses: %d "
+                        + "(%.0f/s), latency p50: %.1f us, p90: %.1f us, p99: %.1f us, p99.9: %.1f us, max: %.1f us",
+                framesInPerSecond(), perSecond(bytesIn) / (1 << 20),
+                framesOutPerSecond(), perSecond(bytesOut) / (1 << 20),
+                produced, responses, responsesPerSecond(),
+                micros(latency.getValueAtPercentile(50)), micros(latency.getValueAtPercentile(90)),
+                micros(latency.getValueAtPercentile(99)), micros(latency.getValueAtPercentile(99.9)),
+                micros(latency.getMax())
+        );
+    }
+
+    private double perSecond(long count) {
+        return intervalNanos == 0 ? 0 : count * 1e9 / intervalNanos;
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1e3;
+    }
+}
@@ -0,0 +1,366 @@
+package de.wuespace.telestion.bridge;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.wuespace.telestion.client.metrics.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An in-process stand-in for the Vert.x TCP event bus bridge.
+ * <p>
+ * Speaks the bridge framing (4-byte big-endian length prefix followed by a UTF-8 JSON frame)
+ * and handles the {@code send}, {@code publish}, {@code register}, {@code unregister} and {@code ping} frames
+ * sent by {@code EventBusClient.connectWithTcpBridge}.
+ * How messages are routed is defined by the {@link BridgeMode}.
+ * <p>
+ * Optionally, a producer publishes messages with a fixed rate and measures the latency until a response
+ * arrives on the response address (see {@link LoopbackBridgeOptions}).
+ * Responses are matched with the produced messages in order.
+ * The latency is measured from the point in time the message was scheduled,
+ * so a stalled consumer shows up in the latency instead of lowering the rate.
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ * {@code
+ * try (var bridge = LoopbackBridge.start(new LoopbackBridgeOptions().setPort(0))) {
+ *     var client = EventBusClient.connectWithTcpBridge("localhost", bridge.getPort());
+ *     // ...
+ *     logger.info("{}", bridge.report());
+ * }
+ * }
+ * </pre>
+ */
+public class LoopbackBridge implements Closeable {
+    /**
+     * The frame types that are rejected without an address.
+     */
+    private static final Set<String> ADDRESSED_TYPES = Set.of("register", "unregister", "send", "publish");
+
+    public static LoopbackBridge start(LoopbackBridgeOptions options) throws IOException {
+        var bridge = new LoopbackBridge(options);
+        bridge.startThreads();
+        return bridge;
+    }
+
+    public static LoopbackBridge start() throws IOException {
+        return start(new LoopbackBridgeOptions().setPort(0));
+    }
+
+    private final LoopbackBridgeOptions options;
+    private final ServerSocket serverSocket;
+
+    private final List<Connection> connections = new CopyOnWriteArrayList<>();
+    private final Map<String, List<Connection>> consumers = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> roundRobin = new ConcurrentHashMap<>();
+    private final Map<String, Connection> pendingReplies = new ConcurrentHashMap<>();
+
+    private final Queue<Long> scheduledTimes = new ConcurrentLinkedQueue<>();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder framesIn = new LongAdder();
+    private final LongAdder framesOut = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private final LongAdder produced = new LongAdder();
+    private final LongAdder responses = new LongAdder();
+    private long lastReport = System.nanoTime();
+
+    private volatile boolean running = true;
+
+    private LoopbackBridge(LoopbackBridgeOptions options) throws IOException {
+        this.options = options;
+        this.serverSocket = new ServerSocket(options.getPort(), 50, InetAddress.getByName(options.getHost()));
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public LoopbackBridgeOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * @return the number of connections that registered a consumer for the address
+     */
+    public int getConsumerCount(String address) {
+        return consumers.getOrDefault(address, List.of()).size();
+    }
+
+    /**
+     * Returns the statistics since the last call (or the start of the bridge) and starts a new interval.
+     */
+    public synchronized BridgeReport report() {
+        var now = System.nanoTime();
+        var report = new BridgeReport(
+                now - lastReport,
+                framesIn.sumThenReset(),
+                framesOut.sumThenReset(),
+                bytesIn.sumThenReset(),
+                bytesOut.sumThenReset(),
+                produced.sumThenReset(),
+                responses.sumThenReset(),
+                latency.snapshotAndReset()
+        );
+        lastReport = now;
+        return report;
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        serverSocket.close();
+        for (var connection : connections) {
+            connection.close();
+        }
+    }
+
+    private void startThreads() {
+        startThread(this::accept, "loopback-bridge-acceptor");
+        if (options.getProducerAddress() != null) {
+            startThread(this::produce, "loopback-bridge-producer");
+        }
+        logger.info("Loopback bridge listening on {}:{} in {} mode", options.getHost(), getPort(), options.getMode());
+    }
+
+    private static void startThread(Runnable runnable, String name) {
+        var thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    ///
+    /// CONNECTION SECTION
+    ///
+
+    private void accept() {
+        while (running) {
+            try {
+                var socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                var connection = new Connection(socket);
+                connections.add(connection);
+                startThread(connection::read, "loopback-bridge-" + socket.getPort());
+                logger.info("Client connected from {}", socket.getRemoteSocketAddress());
+            } catch (IOException e) {
+                if (running) {
+                    logger.warn("Cannot accept connection:", e);
+                }
+            }
+        }
+    }
+
+    private void route(Connection source, Map<String, Object> frame) throws IOException {
+        var type = String.valueOf(frame.get("type"));
+        var address = (String) frame.get("address");
+        if (address == null && ADDRESSED_TYPES.contains(type)) {
+            source.write(encode(Map.of("type", "err", "message", "Missing address")));
+            return;
+        }
+
+        switch (type) {
+            case "ping" -> source.write(encode(Map.of("type", "pong")));
+            case "register" -> consumers.computeIfAbsent(address, key -> new CopyOnWriteArrayList<>()).add(source);
+            case "unregister" -> consumers.getOrDefault(address, List.of()).remove(source);
+            case "send", "publish" -> {
+                if (address.equals(options.getResponseAddress())) {
+                    recordResponse();
+                }
+                // replies to requests go back to the requesting connection
+                var requester = pendingReplies.remove(address);
+                if (requester != null) {
+                    deliver(requester, message(address, frame, true));
+                    return;
+                }
+                switch (options.getMode()) {
+                    case ECHO -> echo(source, type, address, frame);
+                    case FANOUT -> fanOut(source, type, address, frame);
+                }
+            }
+            default -> source.write(encode(Map.of("type", "err", "message", "Unknown frame type: " + type)));
+        }
+    }
+
+    private void echo(Connection source, String type, String address, Map<String, Object> frame) throws IOException {
+        var replyAddress = (String) frame.get("replyAddress");
+        if (type.equals("send") && replyAddress != null) {
+            source.write(message(replyAddress, frame, true));
+        } else {
+            source.write(message(address, frame, type.equals("send")));
+        }
+    }
+
+    private void fanOut(Connection source, String type, String address, Map<String, Object> frame) throws IOException {
+        var targets = consumers.getOrDefault(address, List.of());
+        if (targets.isEmpty()) {
+            return;
+        }
+
+        if (type.equals("publish")) {
+            var payload = message(address, frame, false);
+            for (var target : targets) {
+                deliver(target, payload);
+            }
+            return;
+        }
+
+        var replyAddress = (String) frame.get("replyAddress");
+        if (replyAddress != null) {
+            pendingReplies.put(replyAddress, source);
+        }
+        var index = roundRobin.computeIfAbsent(address, key -> new AtomicInteger()).getAndIncrement();
+        deliver(targets.get(Math.floorMod(index, targets.size())), message(address, frame, true));
+    }
+
+    /**
+     * Writes the frame to a connection other than the one it came from.
+     * A target that cannot be written to is closed, the source connection is not affected.
+     */
+    private void deliver(Connection target, byte[] frame) {
+        try {
+            target.write(frame);
+        } catch (IOException e) {
+            logger.info("Dropping connection to {}:", target.socket.getRemoteSocketAddress(), e);
+            target.close();
+        }
+    }
+
+    private byte[] message(String address, Map<String, Object> frame, boolean send) throws JsonProcessingException {
+        var message = new HashMap<String, Object>();
+        message.put("type", "message");
+        message.put("address", address);
+        message.put("headers", frame.getOrDefault("headers", Map.of()));
+        message.put("body", frame.get("body"));
+        message.put("send", send);
+        if (send && frame.containsKey("replyAddress") && !address.equals(frame.get("replyAddress"))) {
+            message.put("replyAddress", frame.get("replyAddress"));
+        }
+        return encode(message);
+    }
+
+    private static byte[] encode(Map<String, Object> frame) throws JsonProcessingException {
+        return mapper.writeValueAsBytes(frame);
+    }
+
+    ///
+    /// PRODUCER SECTION
+    ///
+
+    private void produce() {
+        var interval = (long) (TimeUnit.SECONDS.toNanos(1) / options.getProducerRate());
+        var address = options.getProducerAddress();
+
+        byte[] payload;
+        try {
+            payload = message(address, Map.of("body", options.getProducerBody()), false);
+        } catch (JsonProcessingException e) {
+            logger.error("Cannot encode producer body:", e);
+            return;
+        }
+
+        var next = System.nanoTime();
+        while (running) {
+            var targets = consumers.getOrDefault(address, List.of());
+            if (targets.isEmpty()) {
+                // wait for consumers and restart the schedule
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+                next = System.nanoTime();
+                continue;
+            }
+
+            var now = System.nanoTime();
+            if (now < next) {
+                LockSupport.parkNanos(next - now);
+                continue;
+            }
+
+            if (options.getResponseAddress() != null) {
+                scheduledTimes.add(next);
+            }
+            for (var target : targets) {
+                deliver(target, payload);
+            }
+            produced.increment();
+            next += interval;
+        }
+    }
+
+    private void recordResponse() {
+        responses.increment();
+        var scheduled = scheduledTimes.poll();
+        if (scheduled != null) {
+            latency.record(System.nanoTime() - scheduled);
+        }
+    }
+
+    private class Connection {
+        private final Socket socket;
+        private final DataInputStream input;
+        private final DataOutputStream output;
+
+        private Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        private void read() {
+            try {
+                while (running && !socket.isClosed()) {
+                    var bytes = new byte[input.readInt()];
+                    input.readFully(bytes);
+                    framesIn.increment();
+                    bytesIn.add(bytes.length + 4);
+                    //noinspection unchecked
+                    route(this, mapper.readValue(bytes, Map.class));
+                }
+            } catch (EOFException e) {
+                logger.info("Client disconnected from {}", socket.getRemoteSocketAddress());
+            } catch (IOException e) {
+                if (running && !socket.isClosed()) {
+                    logger.warn("Connection to {} failed:", socket.getRemoteSocketAddress(), e);
+                }
+            } finally {
+                close();
+            }
+        }
+
+        private synchronized void write(byte[] frame) throws IOException {
+            output.writeInt(frame.length);
+            output.write(frame);
+            output.flush();
+            framesOut.increment();
+            bytesOut.add(frame.length + 4);
+        }
+
+        private void close() {
+            connections.remove(this);
+            consumers.values().forEach(list -> list.remove(this));
+            pendingReplies.values().removeIf(connection -> connection == this);
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final Logger logger = LoggerFactory.getLogger(LoopbackBridge.class);
+}
@@ -0,0 +1,91 @@
+package de.wuespace.telestion.bridge;
+
+import java.util.Map;
+
+/**
+ * Options for a {@link LoopbackBridge}.
+ * <p>
+ * A producer is enabled when a {@link #setProducerAddress(String) producer address} is set.
+ * It publishes the {@link #setProducerBody(Map) producer body} with the configured rate.
+ * If a {@link #setResponseAddress(String) response address} is set, every message received on it is
+ * matched in order with the produced messages to measure the round-trip latency.
+ */
+public class LoopbackBridgeOptions {
+    private String host = "localhost";
+    private int port = 7000;
+    private BridgeMode mode = BridgeMode.FANOUT;
+
+    private String producerAddress;
+    private String responseAddress;
+    private Map<String, Object> producerBody = Map.of("content", "Ping");
+    private double producerRate = 1000;
+
+    public String getHost() {
+        return host;
+    }
+
+    public LoopbackBridgeOptions setHost(String host) {
+        this.host = host;
+        return this;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * @param port the port to listen on, {@code 0} selects a free port
+     */
+    public LoopbackBridgeOptions setPort(int port) {
+        this.port = port;
+        return this;
+    }
+
+    public BridgeMode getMode() {
+        return mode;
+    }
+
+    public LoopbackBridgeOptions setMode(BridgeMode mode) {
+        this.mode = mode;
+        return this;
+    }
+
+    public String getProducerAddress() {
+        return producerAddress;
+    }
+
+    public LoopbackBridgeOptions setProducerAddress(String producerAddress) {
+        this.producerAddress = producerAddress;
+        return this;
+    }
+
+    public String getResponseAddress() {
+        return responseAddress;
+    }
+
+    public LoopbackBridgeOptions setResponseAddress(String responseAddress) {
+        this.responseAddress = responseAddress;
+        return this;
+    }
+
+    public Map<String, Object> getProducerBody() {
+        return producerBody;
+    }
+
+    public LoopbackBridgeOptions setProducerBody(Map<String, Object> producerBody) {
+        this.producerBody = producerBody;
+        return this;
+    }
+
+    public double getProducerRate() {
+        return producerRate;
+    }
+
+    /**
+     * @param producerRate the messages per second published by the producer
+     */
+    public LoopbackBridgeOptions setProducerRate(double producerRate) {
+        this.producerRate = producerRate;
+        return this;
+    }
+}
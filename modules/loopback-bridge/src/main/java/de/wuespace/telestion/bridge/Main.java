@@ -0,0 +1,63 @@
+package de.wuespace.telestion.bridge;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a {@link LoopbackBridge} from the command line and logs its statistics periodically.
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ * loopback-bridge [--host localhost] [--port 7000] [--mode fanout|echo]
+ *                 [--produce ADDRESS] [--respond ADDRESS] [--rate MESSAGES_PER_SECOND]
+ *                 [--body JSON] [--report SECONDS] [--duration SECONDS]
+ * </pre>
+ * To load-test the ping-pong client of the terminal core:
+ * <pre>
+ * loopback-bridge --produce string-out --respond string-in --rate 10000
+ * </pre>
+ */
+public class Main {
+    public static void main(String[] args) throws IOException, InterruptedException {
+        var options = new LoopbackBridgeOptions();
+        long reportSeconds = 5;
+        long durationSeconds = 0;
+
+        for (int i = 0; i < args.length; i++) {
+            var value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--host" -> options.setHost(value);
+                case "--port" -> options.setPort(Integer.parseInt(value));
+                case "--mode" -> options.setMode(BridgeMode.valueOf(value.toUpperCase(Locale.ROOT)));
+                case "--produce" -> options.setProducerAddress(value);
+                case "--respond" -> options.setResponseAddress(value);
+                case "--rate" -> options.setProducerRate(Double.parseDouble(value));
+                //noinspection unchecked
+                case "--body" -> options.setProducerBody(new ObjectMapper().readValue(value, Map.class));
+                case "--report" -> reportSeconds = Long.parseLong(value);
+                case "--duration" -> durationSeconds = Long.parseLong(value);
+                default -> {
+                    logger.error("Unknown argument: {}", args[i]);
+                    System.exit(1);
+                }
+            }
+            i++;
+        }
+
+        try (var bridge = LoopbackBridge.start(options)) {
+            var end = durationSeconds > 0 ? System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds) : Long.MAX_VALUE;
+            while (System.nanoTime() < end) {
+                TimeUnit.SECONDS.sleep(reportSeconds);
+                logger.info("{}", bridge.report());
+            }
+        }
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(Main.class);
+}
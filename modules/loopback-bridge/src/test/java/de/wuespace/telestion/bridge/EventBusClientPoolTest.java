@@ -0,0 +1,97 @@
+package de.wuespace.telestion.bridge;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import de.wuespace.telestion.client.EventBusClient;
+import de.wuespace.telestion.client.EventBusClientPool;
+import de.wuespace.telestion.client.JsonMessage;
+import io.vertx.eventbusclient.EventBusClientOptions;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+public class EventBusClientPoolTest {
+
+    public record Reading(@JsonProperty String sensor, @JsonProperty double value) implements JsonMessage {
+    }
+
+    @Test
+    public void shardsRegistrationsAndFailsOverWhenAConnectionDies() throws Exception {
+        try (var bridge = LoopbackBridge.start()) {
+            var options = new EventBusClientOptions().setHost("localhost").setPort(bridge.getPort());
+            var pool = EventBusClientPool.connectWithTcpBridge(options, 3).connect();
+            var receiver = EventBusClient.connectWithTcpBridge("localhost", bridge.getPort()).connect();
+            try {
+                await(() -> pool.isConnected() && receiver.isConnected());
+
+                var addresses = new ArrayList<String>();
+                var received = new ConcurrentHashMap<String, AtomicInteger>();
+                for (int i = 0; i < 30; i++) {
+                    var address = "sat-" + i;
+                    addresses.add(address);
+                    received.put(address, new AtomicInteger());
+                    pool.register(address, (Reading reading) -> received.get(address).incrementAndGet(), Reading.class);
+                }
+                await(() -> addresses.stream().allMatch(address -> bridge.getConsumerCount(address) == 1));
+
+                // every registration is made on the client of its address, and the addresses use all clients
+                var used = new HashSet<EventBusClient>();
+                for (var address : addresses) {
+                    used.add(pool.client(address));
+                    Assertions.assertSame(pool.client(address), pool.route(address));
+                }
+                Assertions.assertEquals(3, used.size());
+                Assertions.assertEquals(30, pool.getClients().stream().mapToInt(EventBusClient::getSubscribedAddressCount).sum());
+
+                for (var address : addresses) {
+                    pool.publish(address, Map.of("sensor", address, "value", 1));
+                }
+                await(() -> received.values().stream().allMatch(count -> count.get() == 1));
+
+                var victim = pool.getClients().get(0);
+                var moved = addresses.stream().filter(address -> pool.client(address) == victim).toList();
+                var failover = new ConcurrentHashMap<String, AtomicInteger>();
+                for (var address : moved) {
+                    failover.put(address, new AtomicInteger());
+                    receiver.register(address, (Reading reading) -> failover.get(address).incrementAndGet(), Reading.class);
+                }
+                await(() -> moved.stream().allMatch(address -> bridge.getConsumerCount(address) == 2));
+
+                victim.close();
+                await(() -> !victim.isConnected() && moved.stream().allMatch(address -> bridge.getConsumerCount(address) == 1));
+                Assertions.assertEquals(2, pool.getConnectedCount());
+                for (var address : moved) {
+                    var route = pool.route(address);
+                    Assertions.assertNotSame(victim, route);
+                    Assertions.assertTrue(route.isConnected());
+                }
+
+                // the messages of the addresses of the dead connection go through the next client on the ring
+                for (var address : addresses) {
+                    pool.publish(address, Map.of("sensor", address, "value", 2));
+                }
+                await(() -> moved.stream().allMatch(address -> failover.get(address).get() == 1));
+                await(() -> addresses.stream().filter(address -> !moved.contains(address))
+                        .allMatch(address -> received.get(address).get() == 2));
+                for (var address : moved) {
+                    Assertions.assertEquals(1, received.get(address).get(), address);
+                }
+            } finally {
+                receiver.close();
+                pool.close();
+            }
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 500 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(condition.getAsBoolean(), "condition not met within 5 s");
+    }
+}
@@ -0,0 +1,60 @@
+package de.wuespace.telestion.bridge;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import de.wuespace.telestion.client.EventBusClient;
+import de.wuespace.telestion.client.JsonMessage;
+import de.wuespace.telestion.client.StripedExecutor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+public class HandlerExecutorTest {
+
+    public record Reading(@JsonProperty String sensor, @JsonProperty double value) implements JsonMessage {
+    }
+
+    @Test
+    public void dropsMessagesForAClosedExecutorAndKeepsReceiving() throws Exception {
+        try (var bridge = LoopbackBridge.start()) {
+            var executor = new StripedExecutor(2);
+            var client = connect(bridge).setHandlerExecutor(executor);
+            try {
+                var received = new CopyOnWriteArrayList<Reading>();
+                client.register("sensors", (Reading reading) -> received.add(reading), Reading.class);
+                client.setHandlerExecutor(null);
+                var inline = new CopyOnWriteArrayList<Reading>();
+                client.register("status", (Reading reading) -> inline.add(reading), Reading.class);
+                await(() -> bridge.getConsumerCount("sensors") == 1 && bridge.getConsumerCount("status") == 1);
+
+                client.publish("sensors", Map.of("sensor", "t1", "value", 1));
+                await(() -> received.size() == 1);
+
+                executor.close();
+                client.publish("sensors", Map.of("sensor", "t1", "value", 2));
+                client.publish("status", Map.of("sensor", "t1", "value", 3));
+                // the I/O thread survives the rejected message
+                await(() -> inline.size() == 1);
+                Assertions.assertEquals(1, client.getMetrics().address("sensors").getMessagesDropped());
+                Assertions.assertEquals(1, received.size());
+            } finally {
+                client.close();
+            }
+        }
+    }
+
+    private static EventBusClient connect(LoopbackBridge bridge) throws InterruptedException {
+        var client = EventBusClient.connectWithTcpBridge("localhost", bridge.getPort()).connect();
+        await(client::isConnected);
+        return client;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 500 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(condition.getAsBoolean(), "condition not met within 5 s");
+    }
+}
@@ -0,0 +1,75 @@
+package de.wuespace.telestion.bridge;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import de.wuespace.telestion.client.EventBusClient;
+import de.wuespace.telestion.client.InboundPipeline;
+import de.wuespace.telestion.client.JsonMessage;
+import de.wuespace.telestion.client.WaitStrategy;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+public class InboundPipelineTest {
+
+    public record Reading(@JsonProperty String sensor, @JsonProperty double value) implements JsonMessage {
+    }
+
+    @Test
+    public void countsMessagesReceivedAfterClose() throws Exception {
+        try (var bridge = LoopbackBridge.start();
+             var pipeline = new InboundPipeline(64, 1, WaitStrategy.YIELD)) {
+            var client = connect(bridge).setInboundPipeline(pipeline);
+            try {
+                var received = new CopyOnWriteArrayList<Reading>();
+                client.register("sensors", (Reading reading) -> received.add(reading), Reading.class);
+                await(() -> bridge.getConsumerCount("sensors") == 1);
+
+                client.publish("sensors", Map.of("sensor", "t1", "value", 1));
+                await(() -> received.size() == 1);
+
+                pipeline.close();
+                client.publish("sensors", Map.of("sensor", "t1", "value", 2));
+                await(() -> pipeline.getDropped() == 1);
+                Assertions.assertEquals(1, client.getMetrics().address("sensors").getMessagesDropped());
+                Assertions.assertEquals(1, received.size());
+            } finally {
+                client.close();
+            }
+        }
+    }
+
+    @Test
+    public void rejectsAPipelineOfAnotherClient() throws Exception {
+        try (var bridge = LoopbackBridge.start();
+             var pipeline = new InboundPipeline(64, 1, WaitStrategy.YIELD)) {
+            var first = connect(bridge);
+            var second = connect(bridge);
+            try {
+                first.setInboundPipeline(pipeline);
+                // setting it again on the same client is fine
+                first.setInboundPipeline(null).setInboundPipeline(pipeline);
+                Assertions.assertThrows(IllegalStateException.class, () -> second.setInboundPipeline(pipeline));
+                Assertions.assertNull(second.getInboundPipeline());
+            } finally {
+                first.close();
+                second.close();
+            }
+        }
+    }
+
+    private static EventBusClient connect(LoopbackBridge bridge) throws InterruptedException {
+        var client = EventBusClient.connectWithTcpBridge("localhost", bridge.getPort()).connect();
+        await(client::isConnected);
+        return client;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 500 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(condition.getAsBoolean(), "condition not met within 5 s");
+    }
+}
@@ -0,0 +1,123 @@
+package de.wuespace.telestion.bridge;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.Map;
+
+public class LoopbackBridgeTest {
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void fanOutDeliversPublishedMessagesToConsumers() throws IOException {
+        try (var bridge = LoopbackBridge.start();
+             var consumer = new Socket(InetAddress.getLoopbackAddress(), bridge.getPort());
+             var producer = new Socket(InetAddress.getLoopbackAddress(), bridge.getPort())) {
+            write(consumer, Map.of("type", "register", "address", "test"));
+            write(consumer, Map.of("type", "ping"));
+            Assertions.assertEquals("pong", read(consumer).get("type"));
+
+            write(producer, Map.of("type", "publish", "address", "test", "body", Map.of("content", "hello")));
+            var message = read(consumer);
+            Assertions.assertEquals("message", message.get("type"));
+            Assertions.assertEquals("test", message.get("address"));
+            Assertions.assertEquals(Map.of("content", "hello"), message.get("body"));
+        }
+    }
+
+    @Test
+    public void echoAnswersRequests() throws IOException {
+        var options = new LoopbackBridgeOptions().setPort(0).setMode(BridgeMode.ECHO);
+        try (var bridge = LoopbackBridge.start(options);
+             var client = new Socket(InetAddress.getLoopbackAddress(), bridge.getPort())) {
+            write(client, Map.of("type", "send", "address", "test", "replyAddress", "reply-1", "body", 42));
+            var reply = read(client);
+            Assertions.assertEquals("reply-1", reply.get("address"));
+            Assertions.assertEquals(42, reply.get("body"));
+        }
+    }
+
+    @Test
+    public void producerMeasuresResponseLatency() throws Exception {
+        var options = new LoopbackBridgeOptions().setPort(0)
+                .setProducerAddress("ping").setResponseAddress("pong").setProducerRate(1000);
+        try (var bridge = LoopbackBridge.start(options);
+             var client = new Socket(InetAddress.getLoopbackAddress(), bridge.getPort())) {
+            write(client, Map.of("type", "register", "address", "ping"));
+            for (int i = 0; i < 10; i++) {
+                Assertions.assertEquals("ping", read(client).get("address"));
+                write(client, Map.of("type", "publish", "address", "pong", "body", i));
+            }
+            write(client, Map.of("type", "ping"));
+            // drain produced messages until the pong arrives, so all responses are processed
+            while (!"pong".equals(read(client).get("type"))) {
+                Thread.onSpinWait();
+            }
+
+            var report = bridge.report();
+            Assertions.assertEquals(10L, report.responses());
+            Assertions.assertEquals(10L, report.latency().getCount());
+            Assertions.assertTrue(report.latency().getValueAtPercentile(50) > 0);
+        }
+    }
+
+    @Test
+    public void rejectsRegistrationsWithoutAddress() throws IOException {
+        try (var bridge = LoopbackBridge.start();
+             var client = new Socket(InetAddress.getLoopbackAddress(), bridge.getPort())) {
+            write(client, Map.of("type", "register"));
+            Assertions.assertEquals(Map.of("type", "err", "message", "Missing address"), read(client));
+            write(client, Map.of("type", "unregister"));
+            Assertions.assertEquals("err", read(client).get("type"));
+
+            // the connection stays usable
+            write(client, Map.of("type", "ping"));
+            Assertions.assertEquals("pong", read(client).get("type"));
+        }
+    }
+
+    @Test
+    public void deadConsumerDoesNotDropThePublisher() throws Exception {
+        try (var bridge = LoopbackBridge.start();
+             var producer = new Socket(InetAddress.getLoopbackAddress(), bridge.getPort())) {
+            var consumer = new Socket(InetAddress.getLoopbackAddress(), bridge.getPort());
+            write(consumer, Map.of("type", "register", "address", "test"));
+            write(consumer, Map.of("type", "ping"));
+            Assertions.assertEquals("pong", read(consumer).get("type"));
+            // reset the connection so writes to it fail
+            consumer.setSoLinger(true, 0);
+            consumer.close();
+
+            for (int i = 0; i < 100; i++) {
+                write(producer, Map.of("type", "publish", "address", "test", "body", i));
+            }
+            write(producer, Map.of("type", "ping"));
+            Assertions.assertEquals("pong", read(producer).get("type"));
+            for (int i = 0; i < 500 && bridge.getConsumerCount("test") > 0; i++) {
+                Thread.sleep(10);
+            }
+            Assertions.assertEquals(0, bridge.getConsumerCount("test"));
+        }
+    }
+
+    private static void write(Socket socket, Map<String, Object> frame) throws IOException {
+        var bytes = mapper.writeValueAsBytes(frame);
+        var output = new DataOutputStream(socket.getOutputStream());
+        output.writeInt(bytes.length);
+        output.write(bytes);
+        output.flush();
+    }
+
+    private static Map<?, ?> read(Socket socket) throws IOException {
+        var input = new DataInputStream(socket.getInputStream());
+        var bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return mapper.readValue(bytes, Map.class);
+    }
+}
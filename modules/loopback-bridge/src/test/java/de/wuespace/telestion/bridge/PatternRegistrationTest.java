@@ -0,0 +1,81 @@
+package de.wuespace.telestion.bridge;
+
+import de.wuespace.telestion.client.EventBusClient;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+public class PatternRegistrationTest {
+
+    @Test
+    public void releasesAddressesWithTheirLastExactRegistration() throws Exception {
+        try (var bridge = LoopbackBridge.start()) {
+            var client = connect(bridge);
+            try {
+                var matched = new CopyOnWriteArrayList<String>();
+                client.registerPattern("sensors.*", message -> matched.add(message.address()));
+                var first = client.register("sensors.t1", message -> {});
+                var second = client.register("sensors.t1", message -> {});
+                await(() -> bridge.getConsumerCount("sensors.t1") == 1);
+
+                client.publish("sensors.t1", Map.of("value", 1));
+                await(() -> matched.size() == 1);
+
+                first.unregister();
+                first.unregister();
+                Thread.sleep(100);
+                Assertions.assertEquals(1, bridge.getConsumerCount("sensors.t1"));
+
+                second.unregister();
+                await(() -> bridge.getConsumerCount("sensors.t1") == 0);
+                Assertions.assertEquals(0, client.getSubscribedAddressCount());
+
+                // the pattern picks the address up again with the next exact registration
+                client.register("sensors.t1", message -> {});
+                await(() -> bridge.getConsumerCount("sensors.t1") == 1);
+                client.publish("sensors.t1", Map.of("value", 2));
+                await(() -> matched.size() == 2);
+                Assertions.assertEquals(List.of("sensors.t1", "sensors.t1"), matched);
+            } finally {
+                client.close();
+            }
+        }
+    }
+
+    @Test
+    public void keepsDeclaredAddresses() throws Exception {
+        try (var bridge = LoopbackBridge.start()) {
+            var client = connect(bridge);
+            try {
+                var matched = new CopyOnWriteArrayList<String>();
+                client.declareAddresses("sensors.t1");
+                client.registerPattern("sensors.*", message -> matched.add(message.address()));
+                client.register("sensors.t1", message -> {}).unregister();
+                Thread.sleep(100);
+                Assertions.assertEquals(1, bridge.getConsumerCount("sensors.t1"));
+
+                client.publish("sensors.t1", Map.of("value", 1));
+                await(() -> matched.size() == 1);
+            } finally {
+                client.close();
+            }
+        }
+    }
+
+    private static EventBusClient connect(LoopbackBridge bridge) throws InterruptedException {
+        var client = EventBusClient.connectWithTcpBridge("localhost", bridge.getPort()).connect();
+        await(client::isConnected);
+        return client;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 500 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(condition.getAsBoolean(), "condition not met within 5 s");
+    }
+}
@@ -0,0 +1,118 @@
+package de.wuespace.telestion.bridge;
+
+import de.wuespace.telestion.client.EventBusClient;
+import de.wuespace.telestion.client.EventBusClientPool;
+import de.wuespace.telestion.client.ReconnectPolicy;
+import io.vertx.eventbusclient.EventBusClientOptions;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+public class ReconnectTest {
+
+    @Test
+    public void keepsTheOptionsOfTheCaller() {
+        var options = new EventBusClientOptions().setHost("localhost").setPort(7000).setAutoReconnect(true);
+        EventBusClient.connectWithTcpBridge(options);
+        EventBusClient.connectWithWebSocketBridge(options);
+        EventBusClientPool.connectWithTcpBridge(options, 2);
+        Assertions.assertTrue(options.isAutoReconnect());
+    }
+
+    @Test
+    public void restoresEveryConsumerOnceAfterTheBridgeRestarts() throws Exception {
+        var bridge = LoopbackBridge.start();
+        var port = bridge.getPort();
+        var events = new CopyOnWriteArrayList<String>();
+        var client = EventBusClient.connectWithTcpBridge("localhost", port)
+                .setReconnectPolicy(new ReconnectPolicy()
+                        .setInitialDelay(Duration.ofMillis(20))
+                        .setMaxDelay(Duration.ofMillis(200)))
+                .connectedHandler(() -> events.add("connected"))
+                .closeHandler(() -> events.add("closed"))
+                .reconnectedHandler(latency -> events.add("reconnected"));
+        try {
+            client.connect();
+            await(client::isConnected);
+
+            var first = new AtomicInteger();
+            var second = new AtomicInteger();
+            var other = new AtomicInteger();
+            client.register("telemetry", message -> first.incrementAndGet());
+            client.register("telemetry", message -> second.incrementAndGet());
+            client.register("other", message -> other.incrementAndGet());
+            var finalBridge = bridge;
+            await(() -> finalBridge.getConsumerCount("telemetry") == 1 && finalBridge.getConsumerCount("other") == 1);
+
+            for (int restart = 1; restart <= 2; restart++) {
+                bridge.close();
+                await(() -> !client.isConnected());
+                bridge = LoopbackBridge.start(new LoopbackBridgeOptions().setPort(port));
+                var restarted = bridge;
+                var expected = restart;
+                await(() -> client.getReconnectCount() == expected);
+                await(() -> restarted.getConsumerCount("telemetry") > 0 && restarted.getConsumerCount("other") > 0);
+                // give duplicate registrations the chance to arrive
+                Thread.sleep(100);
+                Assertions.assertEquals(1, bridge.getConsumerCount("telemetry"));
+                Assertions.assertEquals(1, bridge.getConsumerCount("other"));
+
+                first.set(0);
+                second.set(0);
+                other.set(0);
+                client.publish("telemetry", Map.of("value", restart));
+                client.publish("other", Map.of("value", restart));
+                await(() -> first.get() == 1 && second.get() == 1 && other.get() == 1);
+                Thread.sleep(100);
+                Assertions.assertEquals(List.of(1, 1, 1), List.of(first.get(), second.get(), other.get()));
+            }
+
+            Assertions.assertEquals(2, client.getReconnectCount());
+            Assertions.assertTrue(client.getLastReconnectLatency().compareTo(Duration.ZERO) > 0);
+            // the consumers are restored after the connection is up and before the reconnect is reported
+            Assertions.assertEquals(List.of("connected", "closed", "connected", "reconnected", "closed", "connected", "reconnected"), events);
+        } finally {
+            client.close();
+            bridge.close();
+        }
+    }
+
+    @Test
+    public void stopsAfterMaxAttempts() throws Exception {
+        var bridge = LoopbackBridge.start();
+        var port = bridge.getPort();
+        var client = EventBusClient.connectWithTcpBridge("localhost", port)
+                .setReconnectPolicy(new ReconnectPolicy()
+                        .setInitialDelay(Duration.ofMillis(10))
+                        .setJitter(0)
+                        .setMaxAttempts(2));
+        try {
+            client.connect();
+            await(client::isConnected);
+            bridge.close();
+            await(() -> !client.isConnected());
+            // both attempts fail while the bridge is down, then the client gives up
+            Thread.sleep(200);
+            bridge = LoopbackBridge.start(new LoopbackBridgeOptions().setPort(port));
+            Thread.sleep(300);
+            Assertions.assertFalse(client.isConnected());
+            Assertions.assertEquals(0, client.getReconnectCount());
+        } finally {
+            client.close();
+            bridge.close();
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 500 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(condition.getAsBoolean(), "condition not met within 5 s");
+    }
+}
@@ -0,0 +1,122 @@
+package de.wuespace.telestion.bridge;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import de.wuespace.telestion.client.EventBusClient;
+import de.wuespace.telestion.client.JsonMessage;
+import de.wuespace.telestion.client.metrics.TypeMetrics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+public class SharedSubscriptionTest {
+
+    public record Reading(@JsonProperty String sensor, @JsonProperty double value) implements JsonMessage {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Label(@JsonProperty String sensor) implements JsonMessage {
+    }
+
+    @Test
+    public void decodesOncePerTypeAndSharesTheInstance() throws Exception {
+        try (var bridge = LoopbackBridge.start()) {
+            var client = connect(bridge);
+            try {
+                var readings = new CopyOnWriteArrayList<Reading>();
+                var labels = new CopyOnWriteArrayList<Label>();
+                var raw = new CopyOnWriteArrayList<Object>();
+                client.register("sensors", reading -> readings.add(reading), Reading.class);
+                client.register("sensors", reading -> readings.add(reading), Reading.class);
+                client.register("sensors", label -> labels.add(label), Label.class);
+                client.register("sensors", message -> raw.add(message.body()));
+                await(() -> bridge.getConsumerCount("sensors") == 1);
+
+                var readingDecodes = TypeMetrics.of(Reading.class).getDecodeTime().snapshot().getCount();
+                var labelDecodes = TypeMetrics.of(Label.class).getDecodeTime().snapshot().getCount();
+                client.publish("sensors", Map.of("sensor", "t1", "value", 21.5));
+                await(() -> readings.size() == 2 && labels.size() == 1 && raw.size() == 1);
+
+                Assertions.assertSame(readings.get(0), readings.get(1));
+                Assertions.assertEquals(new Reading("t1", 21.5), readings.get(0));
+                Assertions.assertEquals(new Label("t1"), labels.get(0));
+                Assertions.assertEquals(readingDecodes + 1, TypeMetrics.of(Reading.class).getDecodeTime().snapshot().getCount());
+                Assertions.assertEquals(labelDecodes + 1, TypeMetrics.of(Label.class).getDecodeTime().snapshot().getCount());
+                Assertions.assertEquals(1, bridge.getConsumerCount("sensors"));
+            } finally {
+                client.close();
+            }
+        }
+    }
+
+    @Test
+    public void dropsTheBridgeConsumerWithTheLastHandlerAndSubscribesAgain() throws Exception {
+        try (var bridge = LoopbackBridge.start()) {
+            var client = connect(bridge);
+            try {
+                var received = new CopyOnWriteArrayList<String>();
+                var first = client.register("sensors", reading -> received.add("first"), Reading.class);
+                var second = client.register("sensors", reading -> received.add("second"), Reading.class);
+                await(() -> bridge.getConsumerCount("sensors") == 1);
+                Assertions.assertEquals(1, client.getSubscribedAddressCount());
+
+                first.unregister();
+                client.publish("sensors", Map.of("sensor", "t1", "value", 1));
+                await(() -> received.size() == 1);
+                Assertions.assertEquals(List.of("second"), received);
+                Assertions.assertEquals(1, bridge.getConsumerCount("sensors"));
+
+                second.unregister();
+                await(() -> bridge.getConsumerCount("sensors") == 0);
+                Assertions.assertEquals(0, client.getSubscribedAddressCount());
+
+                client.register("sensors", reading -> received.add("third"), Reading.class);
+                await(() -> bridge.getConsumerCount("sensors") == 1);
+                client.publish("sensors", Map.of("sensor", "t1", "value", 2));
+                await(() -> received.size() == 2);
+                Assertions.assertEquals(List.of("second", "third"), received);
+            } finally {
+                client.close();
+            }
+        }
+    }
+
+    @Test
+    public void failingHandlerDoesNotStopTheOthers() throws Exception {
+        try (var bridge = LoopbackBridge.start()) {
+            var client = connect(bridge);
+            try {
+                var received = new CopyOnWriteArrayList<Reading>();
+                client.register("sensors", reading -> {
+                    throw new IllegalStateException("broken handler");
+                }, Reading.class);
+                client.register("sensors", reading -> received.add(reading), Reading.class);
+                await(() -> bridge.getConsumerCount("sensors") == 1);
+
+                client.publish("sensors", Map.of("sensor", "t1", "value", 1));
+                client.publish("sensors", Map.of("sensor", "t2", "value", 2));
+                await(() -> received.size() == 2);
+                Assertions.assertEquals(List.of(new Reading("t1", 1), new Reading("t2", 2)), received);
+            } finally {
+                client.close();
+            }
+        }
+    }
+
+    private static EventBusClient connect(LoopbackBridge bridge) throws InterruptedException {
+        var client = EventBusClient.connectWithTcpBridge("localhost", bridge.getPort()).connect();
+        await(client::isConnected);
+        return client;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 500 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(condition.getAsBoolean(), "condition not met within 5 s");
+    }
+}
@@ -0,0 +1,141 @@
+package de.wuespace.telestion.bridge;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import de.wuespace.telestion.client.Conflated;
+import de.wuespace.telestion.client.EventBusClient;
+import de.wuespace.telestion.client.JsonMessage;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+public class ThrottleTest {
+
+    public record Reading(@JsonProperty String sensor, @JsonProperty double value) implements JsonMessage {
+    }
+
+    @Test
+    public void deliversTheLatestMessageAtMostMaxHzTimesPerSecond() throws Exception {
+        try (var bridge = LoopbackBridge.start()) {
+            var client = connect(bridge);
+            try {
+                var received = new CopyOnWriteArrayList<Reading>();
+                var threads = new CopyOnWriteArrayList<String>();
+                client.registerThrottled("sensors", reading -> {
+                    received.add(reading);
+                    threads.add(Thread.currentThread().getName());
+                }, Reading.class, 10);
+                await(() -> bridge.getConsumerCount("sensors") == 1);
+
+                var start = System.nanoTime();
+                for (int i = 1; i <= 200; i++) {
+                    client.publish("sensors", Map.of("sensor", "t1", "value", i));
+                    if (i % 20 == 0) {
+                        Thread.sleep(10);
+                    }
+                }
+                await(() -> !received.isEmpty() && received.get(received.size() - 1).value() == 200);
+                var seconds = (System.nanoTime() - start) / 1e9;
+
+                // one delivery per period of 100 ms, the periods started before the first message
+                Assertions.assertTrue(received.size() <= seconds * 10 + 2, received.size() + " deliveries in " + seconds + " s");
+                for (int i = 1; i < received.size(); i++) {
+                    Assertions.assertTrue(received.get(i - 1).value() < received.get(i).value());
+                }
+                // the handler does not run on the scheduler thread
+                Assertions.assertTrue(threads.stream().allMatch("event-bus-client-worker"::equals), threads.toString());
+            } finally {
+                client.close();
+            }
+        }
+    }
+
+    @Test
+    public void slowHandlersDoNotOverlap() throws Exception {
+        try (var bridge = LoopbackBridge.start()) {
+            var client = connect(bridge);
+            try {
+                var running = new AtomicInteger();
+                var maxRunning = new AtomicInteger();
+                var received = new CopyOnWriteArrayList<Reading>();
+                client.registerThrottled("sensors", reading -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(100);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    received.add(reading);
+                    running.decrementAndGet();
+                }, Reading.class, 100);
+                await(() -> bridge.getConsumerCount("sensors") == 1);
+
+                for (int i = 1; i <= 20; i++) {
+                    client.publish("sensors", Map.of("sensor", "t1", "value", i));
+                    Thread.sleep(20);
+                }
+                await(() -> !received.isEmpty() && received.get(received.size() - 1).value() == 20);
+                Assertions.assertEquals(1, maxRunning.get());
+                Assertions.assertTrue(received.size() < 10, received.size() + " deliveries");
+            } finally {
+                client.close();
+            }
+        }
+    }
+
+    @Test
+    public void conflatesTheNumericFieldsOfAPeriod() throws Exception {
+        try (var bridge = LoopbackBridge.start()) {
+            var client = connect(bridge);
+            try {
+                var received = new CopyOnWriteArrayList<Conflated<Reading>>();
+                client.registerConflated("sensors", conflated -> received.add(conflated), Reading.class, 5);
+                await(() -> bridge.getConsumerCount("sensors") == 1);
+
+                for (int i = 1; i <= 10; i++) {
+                    client.publish("sensors", Map.of("sensor", "t" + i, "value", i));
+                }
+                await(() -> received.stream().mapToLong(Conflated::count).sum() == 10);
+
+                // the messages may be split across two periods
+                var min = Double.MAX_VALUE;
+                var max = -Double.MAX_VALUE;
+                var sum = 0.0;
+                var count = 0L;
+                for (var conflated : received) {
+                    var stats = conflated.fields().get("value");
+                    Assertions.assertEquals(conflated.count(), stats.count());
+                    Assertions.assertEquals(stats.max(), conflated.latest().value());
+                    Assertions.assertFalse(conflated.fields().containsKey("sensor"));
+                    min = Math.min(min, stats.min());
+                    max = Math.max(max, stats.max());
+                    sum += stats.mean() * stats.count();
+                    count += stats.count();
+                }
+                Assertions.assertEquals(1.0, min);
+                Assertions.assertEquals(10.0, max);
+                Assertions.assertEquals(55.0, sum, 1e-9);
+                Assertions.assertEquals(10, count);
+                Assertions.assertEquals(new Reading("t10", 10), received.get(received.size() - 1).latest());
+            } finally {
+                client.close();
+            }
+        }
+    }
+
+    private static EventBusClient connect(LoopbackBridge bridge) throws InterruptedException {
+        var client = EventBusClient.connectWithTcpBridge("localhost", bridge.getPort()).connect();
+        await(client::isConnected);
+        return client;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 500 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(condition.getAsBoolean(), "condition not met within 5 s");
+    }
+}
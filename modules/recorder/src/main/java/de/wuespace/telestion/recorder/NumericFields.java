@@ -0,0 +1,101 @@
+package de.wuespace.telestion.recorder;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads the numeric components of a record type as {@code double}s.
+ * Primitive and boxed {@code byte}, {@code short}, {@code int}, {@code long}, {@code float} and {@code double}
+ * components are numeric, {@code null} values are read as {@link Double#NaN}.
+ */
+final class NumericFields {
+    private static final Map<Class<?>, NumericFields> cache = new ConcurrentHashMap<>();
+    private static final MethodType READ = MethodType.methodType(double.class, Object.class);
+    private static final MethodHandle UNBOX = findUnbox();
+
+    private final String[] names;
+    private final MethodHandle[] accessors;
+
+    private NumericFields(String[] names, MethodHandle[] accessors) {
+        this.names = names;
+        this.accessors = accessors;
+    }
+
+    static NumericFields of(Class<?> type) {
+        var fields = cache.get(type);
+        if (fields == null) {
+            fields = cache.computeIfAbsent(type, NumericFields::create);
+        }
+        return fields;
+    }
+
+    private static NumericFields create(Class<?> type) {
+        if (!type.isRecord()) {
+            throw new IllegalArgumentException(type.getName() + " is not a record");
+        }
+        var names = new ArrayList<String>();
+        var accessors = new ArrayList<MethodHandle>();
+        for (var component : type.getRecordComponents()) {
+            if (!isNumeric(component.getType())) {
+                continue;
+            }
+            var accessor = component.getAccessor();
+            accessor.trySetAccessible();
+            try {
+                var handle = MethodHandles.lookup().unreflect(accessor);
+                if (!component.getType().isPrimitive()) {
+                    handle = MethodHandles.filterReturnValue(handle, UNBOX.asType(
+                            MethodType.methodType(double.class, component.getType())));
+                }
+                names.add(component.getName());
+                accessors.add(handle.asType(READ));
+            } catch (IllegalAccessException e) {
+                throw new IllegalArgumentException("Cannot access " + type.getName() + "." + component.getName(), e);
+            }
+        }
+        return new NumericFields(names.toArray(String[]::new), accessors.toArray(MethodHandle[]::new));
+    }
+
+    private static boolean isNumeric(Class<?> type) {
+        return type == byte.class || type == short.class || type == int.class || type == long.class
+                || type == float.class || type == double.class
+                || type == Byte.class || type == Short.class || type == Integer.class || type == Long.class
+                || type == Float.class || type == Double.class;
+    }
+
+    List<String> getNames() {
+        return List.of(names);
+    }
+
+    int size() {
+        return names.length;
+    }
+
+    double read(int field, Object message) {
+        try {
+            return (double) accessors[field].invokeExact(message);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static double unbox(Number number) {
+        return number == null ? Double.NaN : number.doubleValue();
+    }
+
+    private static MethodHandle findUnbox() {
+        try {
+            return MethodHandles.lookup().findStatic(NumericFields.class, "unbox",
+                    MethodType.methodType(double.class, Number.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package de.wuespace.telestion.recorder;
+
+import de.wuespace.telestion.client.JsonMessage;
+import de.wuespace.telestion.client.json.DecodeException;
+import de.wuespace.telestion.client.json.JacksonCodec;
+import de.wuespace.telestion.client.json.PayloadFormat;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * A message read from a recording.
+ *
+ * @param timestamp the receive time in nanoseconds since the epoch
+ * @param address   the address the message was received on
+ * @param headers   the headers of the message
+ * @param body      the body of the message encoded as JSON
+ */
+public record RecordedMessage(long timestamp, String address, Map<String, String> headers, byte[] body) {
+
+    /**
+     * Decodes the body into a plain object ({@link Map}, {@link java.util.List}, {@link String}, ...)
+     * like the bridge client does.
+     */
+    public Object decodeBody() throws DecodeException {
+        try {
+            return JacksonCodec.getMapper().readValue(body, Object.class);
+        } catch (IOException e) {
+            throw new DecodeException(e);
+        }
+    }
+
+    /**
+     * Decodes the body into a {@link JsonMessage}. Like {@link JsonMessage#from(io.vertx.eventbusclient.Message, Class)},
+     * bodies in a binary {@link PayloadFormat} are recognized by the {@value PayloadFormat#HEADER} header.
+     */
+    public <T extends JsonMessage> T decode(Class<T> type) throws DecodeException {
+        var format = PayloadFormat.fromHeaders(headers);
+        if (!format.isBinary()) {
+            return JacksonCodec.from(body, type, PayloadFormat.JSON);
+        }
+        return JacksonCodec.from(PayloadFormat.bodyBytes(decodeBody()), type, format);
+    }
+}
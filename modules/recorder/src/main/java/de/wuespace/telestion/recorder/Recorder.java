@@ -0,0 +1,216 @@
+package de.wuespace.telestion.recorder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import de.wuespace.telestion.client.AddressPattern;
+import de.wuespace.telestion.client.EventBusClient;
+import de.wuespace.telestion.client.Registration;
+import de.wuespace.telestion.client.json.JacksonCodec;
+import io.vertx.eventbusclient.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records received event bus messages into memory-mapped, append-only segment files.
+ * <p>
+ * {@link #record(Message)} only enqueues the message, so it can be called on the I/O thread of the bridge client.
+ * A dedicated writer thread encodes the messages and appends them to the current segment.
+ * If the writer falls behind by more than the {@link RecorderOptions#getQueueCapacity() queue capacity},
+ * new messages are dropped and counted instead of blocking the caller.
+ * Segments roll over when they reach the {@link RecorderOptions#getSegmentSize() segment size}.
+ * Recordings are read with the {@link RecordingReader}.
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ * {@code
+ * var recorder = Recorder.open(new RecorderOptions().setDirectory(Path.of("pass-42")));
+ * var registration = client.register("telemetry", handler, Telemetry.class);
+ * var recording = recorder.attach(client, registration);
+ * }
+ * </pre>
+ */
+public class Recorder implements AutoCloseable {
+    private record Entry(long timestamp, String address, Map<String, String> headers, Object body) {
+    }
+
+    private static final Entry SHUTDOWN = new Entry(0, null, null, null);
+
+    private final RecorderOptions options;
+    private final BlockingQueue<Entry> queue;
+    private final Thread writer;
+
+    /**
+     * Maps {@link System#nanoTime()} to nanoseconds since the epoch.
+     */
+    private final long epochOffset;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long recorded;
+    private volatile long segments;
+    private volatile boolean closed;
+
+    private SegmentWriter segment;
+
+    private Recorder(RecorderOptions options) {
+        this.options = options;
+        this.queue = new ArrayBlockingQueue<>(options.getQueueCapacity());
+        this.epochOffset = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()) - System.nanoTime();
+        this.writer = new Thread(this::run, "recorder-" + options.getDirectory().getFileName());
+        this.writer.setDaemon(true);
+    }
+
+    public static Recorder open(RecorderOptions options) throws IOException {
+        Files.createDirectories(options.getDirectory());
+        var recorder = new Recorder(options);
+        recorder.writer.start();
+        return recorder;
+    }
+
+    /**
+     * Records every message received on the address (or address pattern) of the registration
+     * until the returned registration is unregistered.
+     */
+    public Registration attach(EventBusClient client, Registration registration) {
+        var address = registration.getAddress();
+        return AddressPattern.isPattern(address)
+                ? client.registerPattern(address, this::record)
+                : client.register(address, this::record);
+    }
+
+    /**
+     * Enqueues the message for recording without blocking.
+     *
+     * @return {@code false} if the message was dropped
+     */
+    public boolean record(Message<?> message) {
+        return record(message.address(), message.headers(), message.body());
+    }
+
+    /**
+     * Like {@link #record(Message)} for a message that is not wrapped in a {@link Message}.
+     */
+    public boolean record(String address, Map<String, String> headers, Object body) {
+        return record(System.nanoTime() + epochOffset, address, headers, body);
+    }
+
+    boolean record(long timestamp, String address, Map<String, String> headers, Object body) {
+        if (closed || !queue.offer(new Entry(timestamp, address, headers, body))) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public long getRecorded() {
+        return recorded;
+    }
+
+    /**
+     * Returns the number of messages that were dropped because the writer thread fell behind
+     * or because their address or a header is longer than the segment format allows.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getSegments() {
+        return segments;
+    }
+
+    /**
+     * Writes all enqueued messages, closes the current segment and stops the writer thread.
+     * Returns without writing if the writer thread already stopped after a failure.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        // a writer that died leaves the queue full, so only wait for room while it is alive
+        while (writer.isAlive()) {
+            if (queue.offer(SHUTDOWN, 100, TimeUnit.MILLISECONDS)) {
+                break;
+            }
+        }
+        writer.join();
+    }
+
+    private void run() {
+        var batch = new ArrayList<Entry>(1024);
+        try {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch, 1023);
+                for (var entry : batch) {
+                    if (entry == SHUTDOWN) {
+                        closeSegment();
+                        return;
+                    }
+                    write(entry);
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            closeSegment();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Recording to {} failed, the recorder stops:", options.getDirectory(), e);
+            closed = true;
+            closeSegment();
+        }
+    }
+
+    private void write(Entry entry) throws IOException {
+        byte[] body;
+        try {
+            body = JacksonCodec.getMapper().writeValueAsBytes(entry.body());
+        } catch (JsonProcessingException e) {
+            logger.warn("Cannot encode the message on {}, it is not recorded:", entry.address(), e);
+            return;
+        }
+        var address = entry.address().getBytes(StandardCharsets.UTF_8);
+        var headers = SegmentWriter.encodeHeaders(entry.headers());
+        try {
+            SegmentWriter.size(address, headers, body);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Cannot record the message on {}: {}", entry.address(), e.getMessage());
+            dropped.incrementAndGet();
+            return;
+        }
+
+        if (segment == null || !segment.append(entry.timestamp(), entry.address(), address, headers, body)) {
+            closeSegment();
+            // a record larger than the segment size gets a segment of its own
+            var size = Math.max(options.getSegmentSize(), SegmentWriter.size(address, headers, body) + Integer.BYTES);
+            segment = new SegmentWriter(options.getDirectory(), entry.timestamp(), size, options.getIndexInterval());
+            segments++;
+            segment.append(entry.timestamp(), entry.address(), address, headers, body);
+        }
+        recorded++;
+    }
+
+    private void closeSegment() {
+        if (segment == null) {
+            return;
+        }
+        try {
+            segment.close();
+        } catch (IOException e) {
+            logger.error("Cannot close the segment in {}:", options.getDirectory(), e);
+        } finally {
+            segment = null;
+        }
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(Recorder.class);
+}
@@ -0,0 +1,63 @@
+package de.wuespace.telestion.recorder;
+
+import java.nio.file.Path;
+
+/**
+ * Options for a {@link Recorder}.
+ */
+public class RecorderOptions {
+    private Path directory = Path.of("recordings");
+    private int segmentSize = 64 * 1024 * 1024;
+    private int indexInterval = 64 * 1024;
+    private int queueCapacity = 64 * 1024;
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @param directory the directory of the segment files, it is created if it does not exist
+     */
+    public RecorderOptions setDirectory(Path directory) {
+        this.directory = directory;
+        return this;
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * @param segmentSize the size in bytes after which the recorder rolls over to a new segment file
+     */
+    public RecorderOptions setSegmentSize(int segmentSize) {
+        this.segmentSize = segmentSize;
+        return this;
+    }
+
+    public int getIndexInterval() {
+        return indexInterval;
+    }
+
+    /**
+     * @param indexInterval the number of bytes between two entries of the sparse time index,
+     *                      i.e. the maximum number of bytes that are scanned after a seek
+     */
+    public RecorderOptions setIndexInterval(int indexInterval) {
+        this.indexInterval = indexInterval;
+        return this;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * @param queueCapacity the number of received messages that can wait for the writer thread,
+     *                      further messages are dropped and counted
+     */
+    public RecorderOptions setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+        return this;
+    }
+}
@@ -0,0 +1,262 @@
+package de.wuespace.telestion.recorder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Reads the messages of a recording written by a {@link Recorder} in recording order.
+ * <p>
+ * {@link #seek(long, String)} uses the segment names and the sparse time index of each segment to jump
+ * close to an instant, so at most one {@link RecorderOptions#getIndexInterval() index interval} is scanned.
+ * With an address filter, segments that do not contain the address are skipped entirely.
+ * The reader can follow a recording that is still written; {@link #next()} returns {@code null} at its current end
+ * and picks up the segments that the {@link Recorder} starts later.
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ * {@code
+ * try (var reader = RecordingReader.open(Path.of("pass-42"))) {
+ *     reader.seek(startNanos, "telemetry");
+ *     for (var message = reader.next(); message != null; message = reader.next()) {
+ *         // ...
+ *     }
+ * }
+ * }
+ * </pre>
+ */
+public class RecordingReader implements AutoCloseable {
+    private final Path directory;
+    private List<Path> segments;
+    private long[] segmentStarts;
+
+    private int segmentIndex = -1;
+    private MappedByteBuffer buffer;
+    private int lastRecordStart;
+    private String addressFilter;
+
+    private RecordingReader(Path directory) {
+        this.directory = directory;
+    }
+
+    public static RecordingReader open(Path directory) throws IOException {
+        var reader = new RecordingReader(directory);
+        reader.listSegments();
+        return reader;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public List<Path> getSegments() {
+        return segments;
+    }
+
+    /**
+     * Positions the reader at the first message received at or after the instant.
+     *
+     * @param timestamp the instant in nanoseconds since the epoch
+     */
+    public RecordingReader seek(long timestamp) throws IOException {
+        return seek(timestamp, null);
+    }
+
+    /**
+     * Positions the reader at the first message of the address received at or after the instant.
+     * Afterwards, {@link #next()} only returns messages of the address.
+     *
+     * @param timestamp the instant in nanoseconds since the epoch
+     * @param address   the address or {@code null} for messages of all addresses
+     */
+    public RecordingReader seek(long timestamp, String address) throws IOException {
+        addressFilter = address;
+        // the last segment starting at or before the instant, the instant may be in the middle of it
+        var index = 0;
+        while (index + 1 < segmentStarts.length && segmentStarts[index + 1] <= timestamp) {
+            index++;
+        }
+        if (!openSegment(index)) {
+            return this;
+        }
+        if (segmentIndex == index) {
+            buffer.position(indexedPosition(segments.get(index), timestamp));
+        }
+
+        while (true) {
+            var message = next();
+            if (message == null) {
+                return this;
+            }
+            if (message.timestamp() >= timestamp) {
+                // step back so the message is returned by the next call
+                buffer.position(lastRecordStart);
+                return this;
+            }
+        }
+    }
+
+    /**
+     * @return the next message or {@code null} if the end of the recording is reached
+     */
+    public RecordedMessage next() throws IOException {
+        if (buffer == null && !openSegment(0) && !(listSegments() && openSegment(0))) {
+            return null;
+        }
+        while (true) {
+            var message = readRecord();
+            if (message == null) {
+                if (!openSegment(segmentIndex + 1) && !listSegments()) {
+                    return null;
+                }
+                // the recorder may have appended to the current segment before it rolled over
+                continue;
+            }
+            if (addressFilter == null || addressFilter.equals(message.address())) {
+                return message;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        buffer = null;
+    }
+
+    private RecordedMessage readRecord() {
+        if (buffer.remaining() < Integer.BYTES) {
+            return null;
+        }
+        var start = buffer.position();
+        var length = buffer.getInt(start);
+        if (length <= 0 || buffer.remaining() < Integer.BYTES + length) {
+            // end of the segment or a record that is not completely written yet
+            return null;
+        }
+        lastRecordStart = start;
+        buffer.position(start + Integer.BYTES);
+
+        var timestamp = buffer.getLong();
+        var address = readString(buffer, Short.toUnsignedInt(buffer.getShort()));
+        var headerCount = Short.toUnsignedInt(buffer.getShort());
+        Map<String, String> headers = headerCount == 0 ? Map.of() : new LinkedHashMap<>();
+        for (int i = 0; i < headerCount; i++) {
+            var key = readString(buffer, Short.toUnsignedInt(buffer.getShort()));
+            headers.put(key, readString(buffer, Short.toUnsignedInt(buffer.getShort())));
+        }
+        var body = new byte[buffer.getInt()];
+        buffer.get(body);
+        return new RecordedMessage(timestamp, address, headers, body);
+    }
+
+    /**
+     * Lists the segments of the directory, including the ones started since the last call.
+     *
+     * @return {@code true} if there are new segments
+     */
+    private boolean listSegments() throws IOException {
+        List<Path> listed;
+        try (var files = Files.list(directory)) {
+            listed = files
+                    .filter(file -> file.getFileName().toString().endsWith(SegmentWriter.SEGMENT_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        if (segments != null && listed.size() == segments.size()) {
+            return false;
+        }
+        segments = listed;
+        segmentStarts = new long[listed.size()];
+        for (int i = 0; i < segmentStarts.length; i++) {
+            segmentStarts[i] = startOf(listed.get(i));
+        }
+        return true;
+    }
+
+    /**
+     * Opens the first segment from {@code index} on that may contain messages of the address filter.
+     *
+     * @return {@code false} if there is no such segment
+     */
+    private boolean openSegment(int index) throws IOException {
+        while (index < segments.size() && !mayContain(segments.get(index))) {
+            index++;
+        }
+        if (index >= segments.size()) {
+            return false;
+        }
+        if (index != segmentIndex) {
+            try (var channel = FileChannel.open(segments.get(index))) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            segmentIndex = index;
+        } else {
+            buffer.position(0);
+        }
+        return true;
+    }
+
+    private boolean mayContain(Path segment) throws IOException {
+        if (addressFilter == null) {
+            return true;
+        }
+        var addresses = sibling(segment, SegmentWriter.ADDRESSES_SUFFIX);
+        // segments without address list are still written or were not closed properly
+        return !Files.exists(addresses) || readAddresses(addresses).contains(addressFilter);
+    }
+
+    /**
+     * Returns the position of the last index entry at or before the instant or {@code 0} without index.
+     */
+    private static int indexedPosition(Path segment, long timestamp) throws IOException {
+        var index = sibling(segment, SegmentWriter.INDEX_SUFFIX);
+        if (!Files.exists(index)) {
+            return 0;
+        }
+        var entries = ByteBuffer.wrap(Files.readAllBytes(index));
+        var entrySize = Long.BYTES + Integer.BYTES;
+        var low = 0;
+        var high = entries.capacity() / entrySize - 1;
+        var position = 0;
+        while (low <= high) {
+            var middle = (low + high) >>> 1;
+            if (entries.getLong(middle * entrySize) <= timestamp) {
+                position = entries.getInt(middle * entrySize + Long.BYTES);
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return position;
+    }
+
+    private static Set<String> readAddresses(Path file) throws IOException {
+        return new HashSet<>(Files.readAllLines(file, StandardCharsets.UTF_8));
+    }
+
+    private static Path sibling(Path segment, String suffix) {
+        var name = segment.getFileName().toString();
+        return segment.resolveSibling(name.substring(0, name.length() - SegmentWriter.SEGMENT_SUFFIX.length()) + suffix);
+    }
+
+    private static long startOf(Path segment) {
+        var name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SegmentWriter.SEGMENT_SUFFIX.length()));
+    }
+
+    private static String readString(ByteBuffer buffer, int length) {
+        var bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,190 @@
+package de.wuespace.telestion.recorder;
+
+import de.wuespace.telestion.client.json.DecodeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a recording into a {@link ReplaySink} in real time, N times faster or as fast as possible.
+ * <p>
+ * A reader thread reads and decodes the messages ahead of the playback cursor into a bounded queue
+ * of {@link ReplayOptions#getReadAhead()} messages. The playback thread only waits for the playback time
+ * of each message and hands it to the sink, so the replay throughput is limited by the sink.
+ * The playback time of a message is its offset to the first replayed message divided by the speed.
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ * {@code
+ * try (var bridge = LoopbackBridge.start()) {
+ *     var client = EventBusClient.connectWithTcpBridge("localhost", bridge.getPort());
+ *     client.register("telemetry", handler, Telemetry.class);
+ *     client.connect();
+ *
+ *     var replay = ReplayEngine.start(RecordingReader.open(Path.of("pass-42")),
+ *             ReplayOptions.speed(10), ReplaySink.publishTo(client));
+ *     replay.completion().join();
+ * }
+ * }
+ * </pre>
+ */
+public class ReplayEngine implements AutoCloseable {
+    private record Item(RecordedMessage message, Object body) {
+    }
+
+    private static final Item END = new Item(null, null);
+
+    private final RecordingReader reader;
+    private final ReplayOptions options;
+    private final ReplaySink sink;
+    private final BlockingQueue<Item> queue;
+    private final CompletableFuture<Long> completion = new CompletableFuture<>();
+    private final Thread readThread;
+    private final Thread playbackThread;
+
+    private volatile boolean stopped;
+    private volatile long replayed;
+    private volatile long skipped;
+    private volatile long maxLagNanos;
+
+    private ReplayEngine(RecordingReader reader, ReplayOptions options, ReplaySink sink) {
+        this.reader = reader;
+        this.options = options;
+        this.sink = sink;
+        this.queue = new ArrayBlockingQueue<>(options.getReadAhead());
+        this.readThread = new Thread(this::read, "replay-reader");
+        this.playbackThread = new Thread(this::play, "replay-playback");
+        readThread.setDaemon(true);
+        playbackThread.setDaemon(true);
+    }
+
+    /**
+     * Starts the replay of the recording. The reader is closed when the replay ends.
+     */
+    public static ReplayEngine start(RecordingReader reader, ReplayOptions options, ReplaySink sink) {
+        var engine = new ReplayEngine(reader, options, sink);
+        engine.readThread.start();
+        engine.playbackThread.start();
+        return engine;
+    }
+
+    /**
+     * Returns a future that completes with the number of replayed messages when the replay ended or was stopped.
+     */
+    public CompletableFuture<Long> completion() {
+        return completion;
+    }
+
+    public long getReplayed() {
+        return replayed;
+    }
+
+    /**
+     * Returns the number of messages that were skipped because their body could not be decoded.
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Returns the maximum delay of a message behind its playback time. A growing lag means the sink is too slow
+     * for the replay speed.
+     */
+    public long getMaxLagNanos() {
+        return maxLagNanos;
+    }
+
+    /**
+     * Stops the replay. Messages that were read ahead are discarded.
+     */
+    @Override
+    public void close() {
+        stopped = true;
+        readThread.interrupt();
+        playbackThread.interrupt();
+    }
+
+    private void read() {
+        try (reader) {
+            if (options.getFrom() != Long.MIN_VALUE || options.getAddress() != null) {
+                reader.seek(options.getFrom(), options.getAddress());
+            }
+            for (var message = reader.next(); message != null && !stopped; message = reader.next()) {
+                if (message.timestamp() > options.getTo()) {
+                    break;
+                }
+                try {
+                    queue.put(new Item(message, message.decodeBody()));
+                } catch (DecodeException e) {
+                    skipped++;
+                    logger.warn("Cannot decode the recorded message on {}, it is skipped:", message.address(), e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (IOException | RuntimeException e) {
+            if (!stopped) {
+                logger.error("Reading the recording failed, the replay ends early:", e);
+            }
+        }
+
+        try {
+            queue.put(END);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void play() {
+        var speed = options.getSpeed();
+        var pacing = !options.isAsFastAsPossible();
+        var firstTimestamp = 0L;
+        var start = 0L;
+        try {
+            while (!stopped) {
+                var item = queue.take();
+                if (item == END) {
+                    break;
+                }
+
+                if (pacing) {
+                    var now = System.nanoTime();
+                    if (replayed == 0) {
+                        firstTimestamp = item.message().timestamp();
+                        start = now;
+                    }
+                    var due = start + (long) ((item.message().timestamp() - firstTimestamp) / speed);
+                    while (now < due) {
+                        LockSupport.parkNanos(due - now);
+                        if (stopped) {
+                            return;
+                        }
+                        now = System.nanoTime();
+                    }
+                    maxLagNanos = Math.max(maxLagNanos, now - due);
+                }
+
+                try {
+                    sink.deliver(item.message(), item.body());
+                } catch (RuntimeException e) {
+                    logger.error("Replay sink failed for a message on {}:", item.message().address(), e);
+                }
+                replayed++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            stopped = true;
+            readThread.interrupt();
+            completion.complete(replayed);
+        }
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplayEngine.class);
+}
@@ -0,0 +1,101 @@
+package de.wuespace.telestion.recorder;
+
+/**
+ * Options for a {@link ReplayEngine}.
+ */
+public class ReplayOptions {
+    private double speed = 1.0;
+    private long from = Long.MIN_VALUE;
+    private long to = Long.MAX_VALUE;
+    private String address;
+    private int readAhead = 4096;
+
+    /**
+     * Replays the messages with the timing of the recording.
+     */
+    public static ReplayOptions realTime() {
+        return new ReplayOptions();
+    }
+
+    /**
+     * Replays the messages {@code speed} times faster than they were recorded.
+     */
+    public static ReplayOptions speed(double speed) {
+        return new ReplayOptions().setSpeed(speed);
+    }
+
+    /**
+     * Replays the messages without any delay between them.
+     */
+    public static ReplayOptions asFastAsPossible() {
+        return new ReplayOptions().setSpeed(Double.POSITIVE_INFINITY);
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    /**
+     * @param speed the factor by which the replay is faster than the recording,
+     *              {@link Double#POSITIVE_INFINITY} replays as fast as possible
+     */
+    public ReplayOptions setSpeed(double speed) {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("speed must be positive");
+        }
+        this.speed = speed;
+        return this;
+    }
+
+    public boolean isAsFastAsPossible() {
+        return speed == Double.POSITIVE_INFINITY;
+    }
+
+    public long getFrom() {
+        return from;
+    }
+
+    /**
+     * @param from the receive time of the first replayed message in nanoseconds since the epoch
+     */
+    public ReplayOptions setFrom(long from) {
+        this.from = from;
+        return this;
+    }
+
+    public long getTo() {
+        return to;
+    }
+
+    /**
+     * @param to the receive time after which the replay stops in nanoseconds since the epoch
+     */
+    public ReplayOptions setTo(long to) {
+        this.to = to;
+        return this;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    /**
+     * @param address the only address that is replayed or {@code null} to replay all addresses
+     */
+    public ReplayOptions setAddress(String address) {
+        this.address = address;
+        return this;
+    }
+
+    public int getReadAhead() {
+        return readAhead;
+    }
+
+    /**
+     * @param readAhead the number of messages that are read and decoded ahead of the playback cursor
+     */
+    public ReplayOptions setReadAhead(int readAhead) {
+        this.readAhead = readAhead;
+        return this;
+    }
+}
@@ -0,0 +1,44 @@
+package de.wuespace.telestion.recorder;
+
+import de.wuespace.telestion.client.EventBusClient;
+import io.vertx.eventbusclient.DeliveryOptions;
+
+import java.util.HashMap;
+
+/**
+ * Receives the messages of a {@link ReplayEngine} at their playback time.
+ */
+@FunctionalInterface
+public interface ReplaySink {
+    /**
+     * @param message the recorded message
+     * @param body    the body of the message, already decoded into a plain object like the bridge client does
+     */
+    void deliver(RecordedMessage message, Object body);
+
+    /**
+     * Hands the replayed messages straight to the typed handlers the client registered for their addresses,
+     * without a connection to a bridge. The handlers run on the thread of the {@link ReplayEngine}.
+     *
+     * @see EventBusClient#dispatchLocally(String, Object, java.util.Map)
+     */
+    static ReplaySink dispatchTo(EventBusClient client) {
+        return (message, body) -> client.dispatchLocally(message.address(), body, message.headers());
+    }
+
+    /**
+     * Publishes the replayed messages with their recorded headers through the client.
+     * Handlers registered at a bridge the client is connected to receive them like live traffic,
+     * e.g. with a {@code LoopbackBridge} for offline replays. Unlike {@link #dispatchTo(EventBusClient)},
+     * this reaches every kind of handler, also the ones of other clients.
+     */
+    static ReplaySink publishTo(EventBusClient client) {
+        return (message, body) -> {
+            var options = new DeliveryOptions();
+            if (!message.headers().isEmpty()) {
+                options.setHeaders(new HashMap<>(message.headers()));
+            }
+            client.publish(message.address(), body, options);
+        };
+    }
+}
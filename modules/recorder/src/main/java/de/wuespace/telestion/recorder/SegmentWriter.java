@@ -0,0 +1,182 @@
+package de.wuespace.telestion.recorder;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Appends records to one memory-mapped segment file.
+ * <p>
+ * A segment {@code <first timestamp>.seg} is a sequence of records:
+ * <pre>
+ * int    length of the rest of the record
+ * long   timestamp in nanoseconds since the epoch
+ * short  address length, address (UTF-8)
+ * short  header count, per header: short key length, key (UTF-8), short value length, value (UTF-8)
+ * int    body length, body (JSON)
+ * </pre>
+ * All shorts are unsigned, so the address, the header keys and values and the header count are limited
+ * to {@value #MAX_FIELD_LENGTH}.
+ * A length of {@code 0} marks the end of the segment. Next to it, the sparse time index
+ * {@code <first timestamp>.idx} stores {@code (long timestamp, int position)} pairs for every
+ * {@link RecorderOptions#getIndexInterval() index interval} and {@code <first timestamp>.addr}
+ * lists the addresses in the segment. Both are written when the segment is closed.
+ * If they are missing, the {@link RecordingReader} falls back to scanning the segment.
+ */
+final class SegmentWriter implements Closeable {
+    static final String SEGMENT_SUFFIX = ".seg";
+    static final String INDEX_SUFFIX = ".idx";
+    static final String ADDRESSES_SUFFIX = ".addr";
+    static final int MAX_FIELD_LENGTH = 0xFFFF;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int indexInterval;
+
+    private long[] indexTimestamps = new long[64];
+    private int[] indexPositions = new int[64];
+    private int indexSize;
+    private int nextIndexPosition;
+    private final Set<String> addresses = new TreeSet<>();
+
+    /**
+     * @param directory      the directory of the segment
+     * @param firstTimestamp the timestamp of the first record, it names the segment
+     * @param size           the capacity of the segment in bytes
+     * @param indexInterval  the number of bytes between two index entries
+     */
+    SegmentWriter(Path directory, long firstTimestamp, int size, int indexInterval) throws IOException {
+        this.file = directory.resolve(name(firstTimestamp) + SEGMENT_SUFFIX);
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        this.indexInterval = indexInterval;
+    }
+
+    static String name(long timestamp) {
+        return String.format("%020d", timestamp);
+    }
+
+    /**
+     * Returns the size of a record, including its length prefix.
+     *
+     * @throws IllegalArgumentException if a field does not fit into its unsigned short length
+     */
+    static int size(byte[] address, byte[][] headers, byte[] body) {
+        checkLength("address", address.length);
+        checkLength("header count", headers.length / 2);
+        for (var header : headers) {
+            checkLength("header", header.length);
+        }
+        var size = Integer.BYTES + Long.BYTES + Short.BYTES + address.length + Short.BYTES + Integer.BYTES + body.length;
+        for (var header : headers) {
+            size += Short.BYTES + header.length;
+        }
+        return size;
+    }
+
+    private static void checkLength(String field, int length) {
+        if (length > MAX_FIELD_LENGTH) {
+            throw new IllegalArgumentException("The " + field + " of a record is limited to " + MAX_FIELD_LENGTH + ", got " + length);
+        }
+    }
+
+    /**
+     * @param headers the header keys and values, alternating, encoded in UTF-8
+     * @return {@code false} if the record does not fit into the rest of the segment
+     * @throws IllegalArgumentException if a field does not fit into its unsigned short length
+     */
+    boolean append(long timestamp, String address, byte[] addressBytes, byte[][] headers, byte[] body) {
+        var size = size(addressBytes, headers, body);
+        // keep room for the end marker
+        if (buffer.remaining() < size + Integer.BYTES) {
+            return false;
+        }
+
+        var position = buffer.position();
+        if (position >= nextIndexPosition) {
+            addIndexEntry(timestamp, position);
+            nextIndexPosition = position + indexInterval;
+        }
+        addresses.add(address);
+
+        // the length is written last, so readers of a segment that is still written never see a partial record
+        buffer.position(position + Integer.BYTES);
+        buffer.putLong(timestamp);
+        buffer.putShort((short) addressBytes.length).put(addressBytes);
+        buffer.putShort((short) (headers.length / 2));
+        for (var header : headers) {
+            buffer.putShort((short) header.length).put(header);
+        }
+        buffer.putInt(body.length).put(body);
+        buffer.putInt(position, size - Integer.BYTES);
+        return true;
+    }
+
+    boolean isEmpty() {
+        return buffer.position() == 0;
+    }
+
+    /**
+     * Flushes the segment to disk, truncates it to its content and writes the index and the address list.
+     */
+    @Override
+    public void close() throws IOException {
+        var length = buffer.position();
+        buffer.putInt(0);
+        buffer.force();
+        try {
+            channel.truncate(length + Integer.BYTES);
+        } catch (IOException e) {
+            // some platforms refuse to truncate mapped files, the end marker is sufficient
+        }
+        channel.close();
+
+        var name = file.getFileName().toString().replace(SEGMENT_SUFFIX, "");
+        try (var index = FileChannel.open(file.resolveSibling(name + INDEX_SUFFIX),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            var entries = ByteBuffer.allocate(indexSize * (Long.BYTES + Integer.BYTES));
+            for (int i = 0; i < indexSize; i++) {
+                entries.putLong(indexTimestamps[i]).putInt(indexPositions[i]);
+            }
+            index.write(entries.flip());
+        }
+        Files.write(file.resolveSibling(name + ADDRESSES_SUFFIX), addresses, StandardCharsets.UTF_8);
+    }
+
+    private void addIndexEntry(long timestamp, int position) {
+        if (indexSize == indexTimestamps.length) {
+            indexTimestamps = Arrays.copyOf(indexTimestamps, indexSize * 2);
+            indexPositions = Arrays.copyOf(indexPositions, indexSize * 2);
+        }
+        indexTimestamps[indexSize] = timestamp;
+        indexPositions[indexSize] = position;
+        indexSize++;
+    }
+
+    /**
+     * Encodes the headers for {@link #append(long, String, byte[], byte[][], byte[])}.
+     */
+    static byte[][] encodeHeaders(Map<String, String> headers) {
+        if (headers == null || headers.isEmpty()) {
+            return new byte[0][];
+        }
+        var encoded = new byte[headers.size() * 2][];
+        var i = 0;
+        for (var header : headers.entrySet()) {
+            encoded[i++] = header.getKey().getBytes(StandardCharsets.UTF_8);
+            encoded[i++] = header.getValue() == null ? new byte[0] : header.getValue().getBytes(StandardCharsets.UTF_8);
+        }
+        return encoded;
+    }
+}
@@ -0,0 +1,244 @@
+package de.wuespace.telestion.recorder;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The numeric fields of the messages of one address, stored in off-heap ring buffers with one column per field.
+ * <p>
+ * Samples are appended in receive order by a single thread. Queries may run on any thread,
+ * they only see the samples within the {@link TimeSeriesOptions#getRetention() retention}.
+ * All timestamps are nanoseconds since the epoch.
+ */
+public final class TimeSeries {
+    /**
+     * Samples of one field, oldest first.
+     */
+    public record Samples(long[] timestamps, double[] values) {
+        public int size() {
+            return timestamps.length;
+        }
+    }
+
+    /**
+     * The statistics of one field over a time range, all values are {@link Double#NaN} if {@code count} is zero.
+     */
+    public record Stats(double min, double max, double mean, long count) {
+    }
+
+    /**
+     * One field downsampled into equally wide buckets, e.g. for plotting.
+     * Empty buckets have {@link Double#NaN} values.
+     *
+     * @param timestamps the start of each bucket
+     */
+    public record Buckets(long[] timestamps, double[] min, double[] max, double[] mean) {
+        public int size() {
+            return timestamps.length;
+        }
+    }
+
+    private final String address;
+    private final List<String> fields;
+    private final int capacity;
+    private final long retention;
+
+    private final LongBuffer timestamps;
+    private final DoubleBuffer[] columns;
+
+    // guarded by this, the physical index of the oldest sample and the number of samples
+    private int start;
+    private int size;
+
+    TimeSeries(String address, List<String> fields, TimeSeriesOptions options) {
+        this.address = address;
+        this.fields = fields;
+        this.capacity = options.getCapacity();
+        this.retention = options.getRetention() == null ? Long.MAX_VALUE : options.getRetention().toNanos();
+
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity must be positive, got " + capacity);
+        }
+        // one column of timestamps and one per field, a direct buffer is limited to Integer.MAX_VALUE bytes
+        var bytes = (long) capacity * Long.BYTES * (1 + fields.size());
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("A capacity of " + capacity + " samples with " + fields.size()
+                    + " fields needs " + bytes + " bytes, the maximum is " + Integer.MAX_VALUE);
+        }
+        var column = capacity * Long.BYTES;
+        var memory = ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder());
+        this.timestamps = memory.slice(0, column).order(ByteOrder.nativeOrder()).asLongBuffer();
+        this.columns = new DoubleBuffer[fields.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = memory.slice(column * (i + 1), column).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+        }
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    /**
+     * @return the names of the numeric fields in column order
+     */
+    public List<String> getFields() {
+        return fields;
+    }
+
+    /**
+     * @return the number of stored samples, including samples beyond the retention that are not overwritten yet
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Appends one sample, overwriting the oldest sample if the series is full.
+     *
+     * @param values one value per field
+     */
+    synchronized void append(long timestamp, double[] values) {
+        int index;
+        if (size < capacity) {
+            index = physical(size++);
+        } else {
+            index = start;
+            start = physical(1);
+        }
+        timestamps.put(index, timestamp);
+        for (int i = 0; i < columns.length; i++) {
+            columns[i].put(index, values[i]);
+        }
+    }
+
+    /**
+     * @return the latest {@code n} samples of the field within the retention
+     * @throws IllegalArgumentException if {@code n} is negative
+     */
+    public synchronized Samples last(String field, int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must not be negative, got " + n);
+        }
+        var column = column(field);
+        var end = size;
+        var first = Math.max(Math.max(0, end - n), lowerBound(oldest()));
+        var result = new Samples(new long[end - first], new double[end - first]);
+        for (int i = first; i < end; i++) {
+            var index = physical(i);
+            result.timestamps()[i - first] = timestamps.get(index);
+            result.values()[i - first] = column.get(index);
+        }
+        return result;
+    }
+
+    /**
+     * @return the statistics of the field over the samples received in {@code [from, to)}, ignoring {@code NaN}s
+     */
+    public synchronized Stats stats(String field, long from, long to) {
+        var column = column(field);
+        double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY, sum = 0;
+        long count = 0;
+        var end = lowerBound(to);
+        for (int i = lowerBound(Math.max(from, oldest())); i < end; i++) {
+            var value = column.get(physical(i));
+            if (!Double.isNaN(value)) {
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+                sum += value;
+                count++;
+            }
+        }
+        return count == 0
+                ? new Stats(Double.NaN, Double.NaN, Double.NaN, 0)
+                : new Stats(min, max, sum / count, count);
+    }
+
+    /**
+     * Downsamples the field over {@code [from, to)} into {@code buckets} buckets of equal width.
+     */
+    public synchronized Buckets downsample(String field, long from, long to, int buckets) {
+        if (buckets <= 0 || to <= from) {
+            throw new IllegalArgumentException("Need a positive number of buckets and a non-empty range");
+        }
+        var column = column(field);
+        var width = Math.max(1, (to - from + buckets - 1) / buckets);
+        var result = new Buckets(new long[buckets], new double[buckets], new double[buckets], new double[buckets]);
+        var counts = new long[buckets];
+        for (int b = 0; b < buckets; b++) {
+            result.timestamps()[b] = from + b * width;
+            result.min()[b] = Double.POSITIVE_INFINITY;
+            result.max()[b] = Double.NEGATIVE_INFINITY;
+        }
+
+        var end = lowerBound(to);
+        for (int i = lowerBound(Math.max(from, oldest())); i < end; i++) {
+            var index = physical(i);
+            var value = column.get(index);
+            if (Double.isNaN(value)) {
+                continue;
+            }
+            var b = (int) ((timestamps.get(index) - from) / width);
+            result.min()[b] = Math.min(result.min()[b], value);
+            result.max()[b] = Math.max(result.max()[b], value);
+            result.mean()[b] += value;
+            counts[b]++;
+        }
+
+        for (int b = 0; b < buckets; b++) {
+            if (counts[b] == 0) {
+                result.min()[b] = result.max()[b] = result.mean()[b] = Double.NaN;
+            } else {
+                result.mean()[b] /= counts[b];
+            }
+        }
+        return result;
+    }
+
+    private DoubleBuffer column(String field) {
+        var index = fields.indexOf(field);
+        if (index < 0) {
+            throw new IllegalArgumentException(address + " has no numeric field " + field + ", only " + fields);
+        }
+        return columns[index];
+    }
+
+    /**
+     * @return the receive time of the oldest sample within the retention
+     */
+    private long oldest() {
+        if (size == 0 || retention == Long.MAX_VALUE) {
+            return Long.MIN_VALUE;
+        }
+        return timestamps.get(physical(size - 1)) - retention;
+    }
+
+    /**
+     * @return the logical index of the first sample received at or after the timestamp
+     */
+    private int lowerBound(long timestamp) {
+        int low = 0, high = size;
+        while (low < high) {
+            var middle = (low + high) >>> 1;
+            if (timestamps.get(physical(middle)) < timestamp) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int physical(int logical) {
+        var index = start + logical;
+        return index >= capacity ? index - capacity : index;
+    }
+
+    @Override
+    public String toString() {
+        return "TimeSeries{address=" + address + ", fields=" + fields + ", size=" + size() + "}";
+    }
+}
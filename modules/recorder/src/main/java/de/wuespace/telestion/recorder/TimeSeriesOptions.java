@@ -0,0 +1,37 @@
+package de.wuespace.telestion.recorder;
+
+import java.time.Duration;
+
+/**
+ * Options for a {@link TimeSeriesStore}.
+ */
+public class TimeSeriesOptions {
+    private int capacity = 64 * 1024;
+    private Duration retention;
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @param capacity the number of samples kept per address, older samples are overwritten.
+     *                 Each address allocates {@code 8 * capacity * (1 + numeric fields)} bytes off-heap.
+     */
+    public TimeSeriesOptions setCapacity(int capacity) {
+        this.capacity = capacity;
+        return this;
+    }
+
+    public Duration getRetention() {
+        return retention;
+    }
+
+    /**
+     * @param retention the time after which samples are no longer returned by queries, even if they still fit into
+     *                  the capacity, or {@code null} to keep samples until they are overwritten
+     */
+    public TimeSeriesOptions setRetention(Duration retention) {
+        this.retention = retention;
+        return this;
+    }
+}
@@ -0,0 +1,108 @@
+package de.wuespace.telestion.recorder;
+
+import de.wuespace.telestion.client.AddressPattern;
+import de.wuespace.telestion.client.EventBusClient;
+import de.wuespace.telestion.client.ExtendedMessageHandler;
+import de.wuespace.telestion.client.JsonMessage;
+import de.wuespace.telestion.client.MessageRegistration;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the history of the numeric record components of received {@link JsonMessage}s in off-heap columns,
+ * so multi-hour passes can be queried without holding the decoded messages on the heap.
+ * <p>
+ * Every address gets its own {@link TimeSeries} with a fixed {@link TimeSeriesOptions#getCapacity() capacity}.
+ * Only top-level numeric components are stored, other components are ignored.
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ * {@code
+ * var store = new TimeSeriesStore(new TimeSeriesOptions().setRetention(Duration.ofHours(6)));
+ * var registration = client.register("telemetry", handler, Telemetry.class);
+ * store.attach(client, registration);
+ * // later, e.g. on the render thread
+ * var temperature = store.series("telemetry").stats("temperature", from, to);
+ * }
+ * </pre>
+ */
+public class TimeSeriesStore {
+    private final TimeSeriesOptions options;
+    private final Map<String, TimeSeries> series = new ConcurrentHashMap<>();
+
+    /**
+     * Maps {@link System#nanoTime()} to nanoseconds since the epoch.
+     */
+    private final long epochOffset;
+
+    public TimeSeriesStore(TimeSeriesOptions options) {
+        if (options.getCapacity() <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.options = options;
+        this.epochOffset = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()) - System.nanoTime();
+    }
+
+    /**
+     * Stores the numeric fields of every message received on the address (or address pattern) of the registration
+     * until the returned registration is unregistered.
+     * The messages are decoded into the type of the registration, sharing the decoded instance with its handler.
+     */
+    public <T extends JsonMessage> MessageRegistration<T> attach(EventBusClient client, MessageRegistration<T> registration) {
+        var address = registration.getAddress();
+        var type = registration.getMessageType();
+        ExtendedMessageHandler<T, Object> handler = (body, message) -> append(message.address(), body);
+        return AddressPattern.isPattern(address)
+                ? client.registerPattern(address, handler, type)
+                : client.register(address, handler, type);
+    }
+
+    /**
+     * Stores the numeric fields of the message as received now.
+     */
+    public void append(String address, JsonMessage message) {
+        append(System.nanoTime() + epochOffset, address, message);
+    }
+
+    void append(long timestamp, String address, JsonMessage message) {
+        if (message == null) {
+            return;
+        }
+        var fields = NumericFields.of(message.getClass());
+        var series = this.series.get(address);
+        if (series == null) {
+            series = this.series.computeIfAbsent(address, key -> new TimeSeries(key, fields.getNames(), options));
+        }
+        if (!series.getFields().equals(fields.getNames())) {
+            throw new IllegalArgumentException(address + " already stores " + series.getFields()
+                    + ", not the fields of " + message.getClass().getName());
+        }
+
+        var values = new double[fields.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = fields.read(i, message);
+        }
+        series.append(timestamp, values);
+    }
+
+    /**
+     * @return the series of the address or {@code null} if no message of the address was stored yet
+     */
+    public TimeSeries series(String address) {
+        return series.get(address);
+    }
+
+    public Set<String> getAddresses() {
+        return Set.copyOf(series.keySet());
+    }
+
+    /**
+     * Drops the series of the address, its off-heap memory is released with the next garbage collection.
+     */
+    public void remove(String address) {
+        series.remove(address);
+    }
+}
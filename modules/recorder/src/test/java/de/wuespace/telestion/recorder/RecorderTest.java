@@ -0,0 +1,168 @@
+package de.wuespace.telestion.recorder;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import de.wuespace.telestion.client.JsonMessage;
+import de.wuespace.telestion.client.json.PayloadFormat;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.util.Base64;
+import java.util.Map;
+
+public class RecorderTest {
+
+    public record Sample(@JsonProperty String name, @JsonProperty int value) implements JsonMessage {
+    }
+
+    @Test
+    public void readsRecordedMessagesInOrder() throws Exception {
+        var directory = Files.createTempDirectory("recorder");
+        try (var recorder = Recorder.open(new RecorderOptions().setDirectory(directory))) {
+            for (int i = 0; i < 100; i++) {
+                Assertions.assertTrue(recorder.record(1000L + i, "address-" + (i % 3), Map.of("n", "" + i), Map.of("value", i)));
+            }
+        }
+
+        try (var reader = RecordingReader.open(directory)) {
+            for (int i = 0; i < 100; i++) {
+                var message = reader.next();
+                Assertions.assertEquals(1000L + i, message.timestamp());
+                Assertions.assertEquals("address-" + (i % 3), message.address());
+                Assertions.assertEquals(Map.of("n", "" + i), message.headers());
+                Assertions.assertEquals(Map.of("value", i), message.decodeBody());
+            }
+            Assertions.assertNull(reader.next());
+        }
+    }
+
+    @Test
+    public void rollsSegmentsAndSeeksByTimeAndAddress() throws Exception {
+        var directory = Files.createTempDirectory("recorder");
+        var options = new RecorderOptions().setDirectory(directory).setSegmentSize(4096).setIndexInterval(256);
+        try (var recorder = Recorder.open(options)) {
+            for (int i = 0; i < 1000; i++) {
+                recorder.record(10_000L + i * 10L, i % 100 == 0 ? "rare" : "frequent", null, Map.of("value", i));
+            }
+            recorder.close();
+            Assertions.assertEquals(1000L, recorder.getRecorded());
+            Assertions.assertTrue(recorder.getSegments() > 1);
+        }
+
+        try (var reader = RecordingReader.open(directory)) {
+            Assertions.assertTrue(reader.getSegments().size() > 1);
+
+            reader.seek(10_000L + 555 * 10L - 5);
+            Assertions.assertEquals(Map.of("value", 555), reader.next().decodeBody());
+            Assertions.assertEquals(Map.of("value", 556), reader.next().decodeBody());
+
+            reader.seek(10_000L + 250 * 10L, "rare");
+            Assertions.assertEquals(Map.of("value", 300), reader.next().decodeBody());
+            Assertions.assertEquals(Map.of("value", 400), reader.next().decodeBody());
+
+            reader.seek(0);
+            Assertions.assertEquals(Map.of("value", 0), reader.next().decodeBody());
+            reader.seek(Long.MAX_VALUE);
+            Assertions.assertNull(reader.next());
+        }
+    }
+
+    @Test
+    public void followsARecordingThatIsStillWritten() throws Exception {
+        var directory = Files.createTempDirectory("recorder");
+        var options = new RecorderOptions().setDirectory(directory).setSegmentSize(4096).setIndexInterval(256);
+        try (var recorder = Recorder.open(options); var reader = RecordingReader.open(directory)) {
+            Assertions.assertNull(reader.next());
+            var value = 0;
+            for (int round = 0; round < 3; round++) {
+                var from = value;
+                for (; value < from + 150; value++) {
+                    recorder.record(1000L + value, "address", null, Map.of("value", value));
+                }
+                var expected = value;
+                for (int i = 0; i < 500 && recorder.getRecorded() < expected; i++) {
+                    Thread.sleep(10);
+                }
+                for (int i = from; i < expected; i++) {
+                    Assertions.assertEquals(Map.of("value", i), reader.next().decodeBody());
+                }
+                Assertions.assertNull(reader.next());
+            }
+            Assertions.assertTrue(recorder.getSegments() > 2);
+        }
+    }
+
+    @Test
+    public void decodesBinaryBodies() throws Exception {
+        var directory = Files.createTempDirectory("recorder");
+        var sample = new Sample("eps", 7);
+        try (var recorder = Recorder.open(new RecorderOptions().setDirectory(directory))) {
+            recorder.record(1L, "json", null, Map.of("name", "eps", "value", 7));
+            recorder.record(2L, "cbor", Map.of(PayloadFormat.HEADER, PayloadFormat.CBOR.getContentType()),
+                    Base64.getEncoder().encodeToString(sample.toBytes(PayloadFormat.CBOR)));
+        }
+
+        try (var reader = RecordingReader.open(directory)) {
+            Assertions.assertEquals(sample, reader.next().decode(Sample.class));
+            Assertions.assertEquals(sample, reader.next().decode(Sample.class));
+        }
+    }
+
+    @Test
+    public void dropsRecordsWithOversizedFields() throws Exception {
+        var directory = Files.createTempDirectory("recorder");
+        var longest = "a".repeat(SegmentWriter.MAX_FIELD_LENGTH);
+        var tooLong = longest + "a";
+        try (var recorder = Recorder.open(new RecorderOptions().setDirectory(directory))) {
+            recorder.record(1L, longest, Map.of("key", longest), 1);
+            recorder.record(2L, tooLong, null, 2);
+            recorder.record(3L, "a", Map.of("key", tooLong), 3);
+            recorder.record(4L, "a", null, 4);
+            recorder.close();
+            Assertions.assertEquals(2, recorder.getDropped());
+            Assertions.assertEquals(2, recorder.getRecorded());
+        }
+
+        try (var reader = RecordingReader.open(directory)) {
+            var first = reader.next();
+            Assertions.assertEquals(longest, first.address());
+            Assertions.assertEquals(Map.of("key", longest), first.headers());
+            Assertions.assertEquals(4L, reader.next().timestamp());
+            Assertions.assertNull(reader.next());
+        }
+    }
+
+    @Test
+    public void closeReturnsAfterTheWriterDied() throws Exception {
+        var directory = Files.createTempDirectory("recorder");
+        var recorder = Recorder.open(new RecorderOptions().setDirectory(directory).setQueueCapacity(2));
+        // errors are not caught by the writer thread
+        recorder.record(1L, "broken", null, new Broken());
+        var writer = Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("recorder-" + directory.getFileName()))
+                .findFirst();
+        if (writer.isPresent()) {
+            writer.get().join(5000);
+        }
+        Assertions.assertTrue(recorder.record(2L, "a", null, 2));
+        Assertions.assertTrue(recorder.record(3L, "a", null, 3));
+        Assertions.assertFalse(recorder.record(4L, "a", null, 4));
+
+        var closer = new Thread(() -> {
+            try {
+                recorder.close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        closer.start();
+        closer.join(5000);
+        Assertions.assertFalse(closer.isAlive(), "close blocks on the full queue");
+    }
+
+    public static class Broken {
+        public int getValue() {
+            throw new AssertionError("broken body");
+        }
+    }
+}
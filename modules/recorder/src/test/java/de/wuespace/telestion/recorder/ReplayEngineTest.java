@@ -0,0 +1,90 @@
+package de.wuespace.telestion.recorder;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import de.wuespace.telestion.client.EventBusClient;
+import de.wuespace.telestion.client.JsonMessage;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class ReplayEngineTest {
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    public record Value(@JsonProperty int value) implements JsonMessage {
+    }
+
+    @Test
+    public void replaysAllMessagesInOrderAsFastAsPossible() throws Exception {
+        var directory = record(1000, 1000 * MILLI);
+        var received = Collections.synchronizedList(new ArrayList<Object>());
+        var replay = ReplayEngine.start(RecordingReader.open(directory), ReplayOptions.asFastAsPossible(),
+                (message, body) -> received.add(body));
+
+        Assertions.assertEquals(1000L, (long) replay.completion().get(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 1000; i++) {
+            Assertions.assertEquals(Map.of("value", i), received.get(i));
+        }
+    }
+
+    @Test
+    public void keepsRecordedTimingAtTheGivenSpeed() throws Exception {
+        // 11 messages, 20 ms apart: 200 ms of recording, 50 ms at 4x speed
+        var directory = record(11, 20 * MILLI);
+        var start = System.nanoTime();
+        var replay = ReplayEngine.start(RecordingReader.open(directory), ReplayOptions.speed(4), (message, body) -> {
+        });
+
+        Assertions.assertEquals(11L, (long) replay.completion().get(5, TimeUnit.SECONDS));
+        var elapsed = System.nanoTime() - start;
+        Assertions.assertTrue(elapsed >= 50 * MILLI, "replay was too fast: " + elapsed);
+        Assertions.assertTrue(elapsed < 190 * MILLI, "replay was too slow: " + elapsed);
+    }
+
+    @Test
+    public void replaysTimeRangeOfOneAddress() throws Exception {
+        var directory = record(100, MILLI);
+        var received = Collections.synchronizedList(new ArrayList<String>());
+        var options = ReplayOptions.asFastAsPossible().setAddress("odd").setFrom(50 * MILLI).setTo(60 * MILLI);
+        var replay = ReplayEngine.start(RecordingReader.open(directory), options,
+                (message, body) -> received.add(message.address() + ((Map<?, ?>) body).get("value")));
+
+        Assertions.assertEquals(5L, (long) replay.completion().get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(List.of("odd51", "odd53", "odd55", "odd57", "odd59"), received);
+    }
+
+    @Test
+    public void dispatchesToTypedHandlersWithoutABridge() throws Exception {
+        var directory = record(10, MILLI);
+        // the client is never connected
+        var client = EventBusClient.connectWithTcpBridge("localhost", 7000);
+        var even = Collections.synchronizedList(new ArrayList<Value>());
+        var all = Collections.synchronizedList(new ArrayList<Value>());
+        client.register("even", (Value value) -> even.add(value), Value.class);
+        client.registerPattern("*", (Value value) -> all.add(value), Value.class);
+        var replay = ReplayEngine.start(RecordingReader.open(directory), ReplayOptions.asFastAsPossible(),
+                ReplaySink.dispatchTo(client));
+
+        Assertions.assertEquals(10L, (long) replay.completion().get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(List.of(new Value(0), new Value(2), new Value(4), new Value(6), new Value(8)), even);
+        // the pattern only knows the registered address
+        Assertions.assertEquals(even, all);
+        client.close();
+    }
+
+    private static Path record(int count, long interval) throws Exception {
+        var directory = Files.createTempDirectory("replay");
+        try (var recorder = Recorder.open(new RecorderOptions().setDirectory(directory))) {
+            for (int i = 0; i < count; i++) {
+                recorder.record(i * interval, i % 2 == 0 ? "even" : "odd", null, Map.of("value", i));
+            }
+        }
+        return directory;
+    }
+}
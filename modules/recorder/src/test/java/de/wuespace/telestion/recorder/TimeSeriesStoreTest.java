@@ -0,0 +1,98 @@
+package de.wuespace.telestion.recorder;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import de.wuespace.telestion.client.JsonMessage;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+public class TimeSeriesStoreTest {
+
+    public record Telemetry(
+            @JsonProperty String name,
+            @JsonProperty int mode,
+            @JsonProperty double temperature,
+            @JsonProperty Long counter
+    ) implements JsonMessage {
+    }
+
+    @Test
+    public void storesOnlyNumericComponents() {
+        var store = new TimeSeriesStore(new TimeSeriesOptions().setCapacity(8));
+        store.append(1, "telemetry", new Telemetry("a", 1, 20.5, null));
+
+        var series = store.series("telemetry");
+        Assertions.assertEquals(List.of("mode", "temperature", "counter"), series.getFields());
+        Assertions.assertEquals(20.5, series.last("temperature", 1).values()[0], 0);
+        Assertions.assertTrue(Double.isNaN(series.last("counter", 1).values()[0]));
+        Assertions.assertNull(store.series("other"));
+    }
+
+    @Test
+    public void overwritesOldestSamplesWhenFull() {
+        var store = new TimeSeriesStore(new TimeSeriesOptions().setCapacity(4));
+        for (int i = 0; i < 10; i++) {
+            store.append(i, "telemetry", new Telemetry("a", i, i, (long) i));
+        }
+
+        var series = store.series("telemetry");
+        Assertions.assertEquals(4, series.size());
+        var last = series.last("mode", 100);
+        Assertions.assertArrayEquals(new long[]{6, 7, 8, 9}, last.timestamps());
+        Assertions.assertArrayEquals(new double[]{8, 9}, series.last("mode", 2).values(), 0);
+    }
+
+    @Test
+    public void rejectsInvalidSizes() {
+        var store = new TimeSeriesStore(new TimeSeriesOptions().setCapacity(4));
+        store.append(1, "telemetry", new Telemetry("a", 1, 20.5, null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> store.series("telemetry").last("mode", -1));
+        Assertions.assertEquals(0, store.series("telemetry").last("mode", 0).size());
+
+        // 4 columns of 8 bytes per sample do not fit into one direct buffer
+        var huge = new TimeSeriesStore(new TimeSeriesOptions().setCapacity(Integer.MAX_VALUE / 16));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> huge.append(1, "telemetry", new Telemetry("a", 1, 20.5, null)));
+        Assertions.assertNull(huge.series("telemetry"));
+    }
+
+    @Test
+    public void computesStatsOverTimeRange() {
+        var store = new TimeSeriesStore(new TimeSeriesOptions().setCapacity(100));
+        for (int i = 0; i < 100; i++) {
+            store.append(i * 10L, "telemetry", new Telemetry("a", 0, i, 0L));
+        }
+
+        var stats = store.series("telemetry").stats("temperature", 100, 200);
+        Assertions.assertEquals(new TimeSeries.Stats(10, 19, 14.5, 10), stats);
+        Assertions.assertEquals(0, store.series("telemetry").stats("temperature", 5000, 6000).count());
+    }
+
+    @Test
+    public void retentionHidesOldSamples() {
+        var store = new TimeSeriesStore(new TimeSeriesOptions().setCapacity(100).setRetention(Duration.ofNanos(50)));
+        for (int i = 0; i < 100; i++) {
+            store.append(i * 10L, "telemetry", new Telemetry("a", 0, i, 0L));
+        }
+
+        var series = store.series("telemetry");
+        Assertions.assertEquals(100, series.size());
+        Assertions.assertEquals(6, series.last("temperature", 100).size());
+        Assertions.assertEquals(6, series.stats("temperature", Long.MIN_VALUE, Long.MAX_VALUE).count());
+    }
+
+    @Test
+    public void downsamplesIntoBuckets() {
+        var store = new TimeSeriesStore(new TimeSeriesOptions().setCapacity(100));
+        for (int i = 0; i < 40; i++) {
+            store.append(i, "telemetry", new Telemetry("a", 0, i, 0L));
+        }
+
+        var buckets = store.series("telemetry").downsample("temperature", 0, 80, 4);
+        Assertions.assertArrayEquals(new long[]{0, 20, 40, 60}, buckets.timestamps());
+        Assertions.assertArrayEquals(new double[]{0, 20, Double.NaN, Double.NaN}, buckets.min(), 0);
+        Assertions.assertArrayEquals(new double[]{19, 39, Double.NaN, Double.NaN}, buckets.max(), 0);
+        Assertions.assertArrayEquals(new double[]{9.5, 29.5, Double.NaN, Double.NaN}, buckets.mean(), 0);
+    }
+}
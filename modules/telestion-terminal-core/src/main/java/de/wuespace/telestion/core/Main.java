@@ -1,37 +1,42 @@
 package de.wuespace.telestion.core;
 
 import de.wuespace.telestion.client.EventBusClient;
+import de.wuespace.telestion.core.dashboard.Dashboard;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class Main {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         var inAddress = "string-out";
         var outAddress = "string-in";
-        logger.debug("inAddress: {}, outAddress: {}", inAddress, outAddress);
+        var host = args.length > 0 ? args[0] : "localhost";
+        var port = args.length > 1 ? Integer.parseInt(args[1]) : 7000;
+        logger.debug("inAddress: {}, outAddress: {}, bridge: {}:{}", inAddress, outAddress, host, port);
 
         // create instance
-        var client = EventBusClient.connectWithTcpBridge("localhost", 7000);
+        var client = EventBusClient.connectWithTcpBridge(host, port);
 
         // register on publish address from application
         var counter = new AtomicInteger();
-        var registration = client.register(inAddress, message -> {
-            logger.info("Received string message on {}: {}", inAddress, message);
-
+        client.register(inAddress, message -> {
             // answer on other channel
             client.publish(outAddress, new StringMessage("Pong number: " + counter.getAndIncrement()));
         }, StringMessage.class);
 
-        // log after connect
-        client.connectedHandler(() -> logger.info("Connected"));
-        // log after close
-        client.closeHandler(() -> logger.info("Eventbus closed"));
+        // show the latest received string, the connection state is shown in the header
+        var dashboard = Dashboard.open(client, 30)
+                .bind("Received", inAddress, StringMessage.class, StringMessage::content);
+
         // try to connect
         client.connect();
+        dashboard.start();
 
-        // TODO: Combine and rewrite this with lanterna Terminal GUI
+        // the dashboard takes over the terminal until the user quits
+        dashboard.closed().join();
+        client.close();
     }
 
     private static final Logger logger = LoggerFactory.getLogger(Main.class);
@@ -0,0 +1,206 @@
+package de.wuespace.telestion.core.dashboard;
+
+import com.googlecode.lanterna.SGR;
+import com.googlecode.lanterna.TextColor;
+import com.googlecode.lanterna.input.KeyType;
+import com.googlecode.lanterna.screen.Screen;
+import com.googlecode.lanterna.terminal.DefaultTerminalFactory;
+import de.wuespace.telestion.client.EventBusClient;
+import de.wuespace.telestion.client.JsonMessage;
+import de.wuespace.telestion.client.Registration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * A terminal dashboard that shows the latest value of each bound address.
+ * <p>
+ * The dashboard renders with a fixed frame rate on its own thread. Received messages only replace the latest value
+ * of their widget, so a stream of any rate costs at most one redraw of its row per frame.
+ * Only rows whose text changed are drawn into the screen buffer, and the screen writes only the changed cells
+ * to the terminal. No terminal I/O runs on the threads of the event bus client.
+ * Press {@code q} or {@code Escape} to quit.
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ * {@code
+ * var dashboard = Dashboard.open(client, 30)
+ *         .bind("Mode", "status", StatusMessage.class, StatusMessage::mode)
+ *         .start();
+ * dashboard.closed().join();
+ * }
+ * </pre>
+ */
+public class Dashboard implements AutoCloseable {
+    private static final int HEADER_ROWS = 2;
+
+    private final EventBusClient client;
+    private final Screen screen;
+    private final long frameNanos;
+    private final List<ValueWidget<?>> widgets = new CopyOnWriteArrayList<>();
+    private final List<Registration> registrations = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService renderer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "dashboard-render");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final CompletableFuture<Void> closed = new CompletableFuture<>();
+
+    // only accessed by the render thread
+    private int renderedWidgets;
+    private String status = "";
+    // only written by the render thread
+    private volatile long frames;
+
+    /**
+     * @param client          the client whose messages are displayed
+     * @param screen          the screen to draw on, it is started by {@link #start()}
+     * @param framesPerSecond the maximum number of redraws per second
+     */
+    public Dashboard(EventBusClient client, Screen screen, int framesPerSecond) {
+        this.client = client;
+        this.screen = screen;
+        this.frameNanos = TimeUnit.SECONDS.toNanos(1) / framesPerSecond;
+    }
+
+    /**
+     * Creates a dashboard on the terminal of the process.
+     */
+    public static Dashboard open(EventBusClient client, int framesPerSecond) throws IOException {
+        return new Dashboard(client, new DefaultTerminalFactory().createScreen(), framesPerSecond);
+    }
+
+    /**
+     * Adds a row that shows the latest message received on the address.
+     *
+     * @param label   the label of the row
+     * @param address the address of the displayed messages
+     * @param type    the type of the displayed messages
+     * @param format  formats a message for the row, it runs on the render thread
+     */
+    public <V extends JsonMessage> Dashboard bind(String label, String address, Class<V> type, Function<V, String> format) {
+        var widget = new ValueWidget<>(label, type, format);
+        widgets.add(widget);
+        registrations.add(client.register(address, widget::update));
+        return this;
+    }
+
+    public Dashboard start() throws IOException {
+        screen.startScreen();
+        renderer.scheduleAtFixedRate(this::renderFrame, 0, frameNanos, TimeUnit.NANOSECONDS);
+        return this;
+    }
+
+    /**
+     * Returns a future that completes when the dashboard was closed, e.g. because the user quit.
+     */
+    public CompletableFuture<Void> closed() {
+        return closed;
+    }
+
+    /**
+     * Returns the number of frames that were written to the terminal.
+     */
+    public long getFrames() {
+        return frames;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (renderer.isShutdown()) {
+            return;
+        }
+        registrations.forEach(Registration::unregister);
+        registrations.clear();
+        renderer.execute(() -> {
+            try {
+                screen.stopScreen();
+            } catch (IOException e) {
+                logger.warn("Cannot restore the terminal:", e);
+            }
+            closed.complete(null);
+        });
+        renderer.shutdown();
+    }
+
+    private void renderFrame() {
+        if (closed.isDone()) {
+            return;
+        }
+        try {
+            if (quitRequested()) {
+                close();
+                return;
+            }
+
+            var graphics = screen.newTextGraphics();
+            var resized = screen.doResizeIfNecessary() != null;
+            if (resized) {
+                screen.clear();
+            }
+            var width = screen.getTerminalSize().getColumns();
+            var changed = resized || renderedWidgets != widgets.size();
+            renderedWidgets = widgets.size();
+
+            var newStatus = "Telestion Dashboard | " + client.getMetrics().getState()
+                    + " | " + widgets.size() + " addresses | q to quit";
+            if (changed || !newStatus.equals(status)) {
+                status = newStatus;
+                graphics.enableModifiers(SGR.BOLD);
+                graphics.putString(0, 0, pad(status, width));
+                graphics.disableModifiers(SGR.BOLD);
+                changed = true;
+            }
+
+            var now = System.nanoTime();
+            var row = HEADER_ROWS;
+            for (var widget : widgets) {
+                if (widget.refresh(now) || resized) {
+                    graphics.setForegroundColor(TextColor.ANSI.GREEN);
+                    graphics.putString(0, row, pad(widget.getText(), width));
+                    graphics.setForegroundColor(TextColor.ANSI.DEFAULT);
+                    changed = true;
+                }
+                row++;
+            }
+
+            if (changed) {
+                screen.refresh(resized ? Screen.RefreshType.COMPLETE : Screen.RefreshType.DELTA);
+                //noinspection NonAtomicOperationOnVolatileField
+                frames++;
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("Cannot render the dashboard:", e);
+        }
+    }
+
+    private boolean quitRequested() throws IOException {
+        for (var key = screen.pollInput(); key != null; key = screen.pollInput()) {
+            if (key.getKeyType() == KeyType.Escape || key.getKeyType() == KeyType.EOF
+                    || key.getKeyType() == KeyType.Character && key.getCharacter() == 'q') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cuts or pads the text to the width, so the rest of a longer previous text is overwritten.
+     */
+    private static String pad(String text, int width) {
+        if (text.length() >= width) {
+            return text.substring(0, width);
+        }
+        return text + " ".repeat(width - text.length());
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(Dashboard.class);
+}
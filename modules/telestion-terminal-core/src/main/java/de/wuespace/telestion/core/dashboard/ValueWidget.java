@@ -0,0 +1,87 @@
+package de.wuespace.telestion.core.dashboard;
+
+import de.wuespace.telestion.client.JsonMessage;
+import de.wuespace.telestion.client.json.DecodeException;
+import io.vertx.eventbusclient.Message;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A dashboard row that shows the latest value received on an address.
+ * <p>
+ * The bus thread only stores the latest raw message and counts it. The message is decoded and formatted
+ * by the render thread, at most once per frame, so intermediate values are never decoded.
+ *
+ * @param <V> the type of the displayed messages
+ */
+final class ValueWidget<V extends JsonMessage> {
+    private final String label;
+    private final Class<V> type;
+    private final Function<V, String> format;
+
+    private final LongAdder received = new LongAdder();
+    private volatile Message<?> latest;
+
+    // only accessed by the render thread
+    private long renderedCount = -1;
+    private long rateCount;
+    private long rateTime = System.nanoTime();
+    private double rate;
+    private String text = "";
+
+    ValueWidget(String label, Class<V> type, Function<V, String> format) {
+        this.label = label;
+        this.type = type;
+        this.format = format;
+    }
+
+    /**
+     * Called on the bus thread for every received message.
+     */
+    void update(Message<?> message) {
+        latest = message;
+        received.increment();
+    }
+
+    /**
+     * Updates the text of the widget on the render thread.
+     *
+     * @return {@code true} if the text changed since the last call
+     */
+    boolean refresh(long now) {
+        var count = received.sum();
+        var rateChanged = false;
+        if (now - rateTime >= 1_000_000_000L) {
+            var newRate = (count - rateCount) * 1e9 / (now - rateTime);
+            rateChanged = newRate != rate;
+            rate = newRate;
+            rateCount = count;
+            rateTime = now;
+        }
+        if (count == renderedCount && !rateChanged) {
+            return false;
+        }
+        renderedCount = count;
+
+        var message = latest;
+        String value;
+        if (message == null) {
+            value = "-";
+        } else {
+            try {
+                value = format.apply(JsonMessage.from(message, type));
+            } catch (DecodeException e) {
+                value = "<cannot decode " + type.getSimpleName() + ">";
+            }
+        }
+        var newText = String.format("%-20s %-40s %10d msgs %9.1f/s", label, value, count, rate);
+        var changed = !newText.equals(text);
+        text = newText;
+        return changed;
+    }
+
+    String getText() {
+        return text;
+    }
+}
@@ -0,0 +1,107 @@
+package de.wuespace.telestion.core.dashboard;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.googlecode.lanterna.TerminalSize;
+import com.googlecode.lanterna.screen.TerminalScreen;
+import com.googlecode.lanterna.terminal.Terminal;
+import com.googlecode.lanterna.terminal.virtual.DefaultVirtualTerminal;
+import com.googlecode.lanterna.terminal.virtual.VirtualTerminalListener;
+import de.wuespace.telestion.bridge.LoopbackBridge;
+import de.wuespace.telestion.client.EventBusClient;
+import de.wuespace.telestion.client.JsonMessage;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+public class DashboardTest {
+    private static final int FRAMES_PER_SECOND = 20;
+
+    public record Reading(@JsonProperty int value) implements JsonMessage {
+    }
+
+    @Test
+    public void redrawsAtMostOncePerFrameOnTheRenderThread() throws Exception {
+        var terminal = new DefaultVirtualTerminal(new TerminalSize(120, 10));
+        var flushThreads = ConcurrentHashMap.<String>newKeySet();
+        terminal.addVirtualTerminalListener(new FlushListener(flushThreads));
+
+        try (var bridge = LoopbackBridge.start()) {
+            var client = EventBusClient.connectWithTcpBridge("localhost", bridge.getPort()).connect();
+            await(client::isConnected);
+            var dashboard = new Dashboard(client, new TerminalScreen(terminal), FRAMES_PER_SECOND)
+                    .bind("Reading", "readings", Reading.class, reading -> String.valueOf(reading.value()));
+            try {
+                await(() -> bridge.getConsumerCount("readings") == 1);
+                var start = System.nanoTime();
+                dashboard.start();
+                // startScreen flushes on the calling thread, all later output comes from the render thread
+                flushThreads.remove(Thread.currentThread().getName());
+
+                for (int i = 1; i <= 10_000; i++) {
+                    client.publish("readings", Map.of("value", i));
+                }
+                await(() -> row(terminal, 2).contains(" 10000 msgs"));
+                var seconds = (System.nanoTime() - start) / 1e9;
+                var frames = dashboard.getFrames();
+
+                Assertions.assertTrue(row(terminal, 2).startsWith("Reading              10000 "), row(terminal, 2));
+                Assertions.assertTrue(frames <= seconds * FRAMES_PER_SECOND + 2, frames + " frames in " + seconds + " s");
+                Assertions.assertEquals(Set.of("dashboard-render"), flushThreads);
+
+                // rows that do not change are not drawn again once the rate settles
+                await(() -> !row(terminal, 2).contains(" 0.0/s"));
+                await(() -> row(terminal, 2).contains(" 0.0/s"));
+                // the frame is counted after it was written
+                Thread.sleep(100);
+                frames = dashboard.getFrames();
+                Thread.sleep(500);
+                Assertions.assertEquals(frames, dashboard.getFrames());
+            } finally {
+                dashboard.close();
+                dashboard.closed().join();
+                client.close();
+            }
+        }
+    }
+
+    private static String row(DefaultVirtualTerminal terminal, int row) {
+        var text = new StringBuilder();
+        for (int column = 0; column < terminal.getTerminalSize().getColumns(); column++) {
+            text.append(terminal.getCharacter(column, row).getCharacterString());
+        }
+        return text.toString();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 500 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(condition.getAsBoolean(), "condition not met within 5 s");
+    }
+
+    /**
+     * Collects the names of the threads that write to the terminal.
+     */
+    private record FlushListener(Set<String> threads) implements VirtualTerminalListener {
+        @Override
+        public void onFlush() {
+            threads.add(Thread.currentThread().getName());
+        }
+
+        @Override
+        public void onBell() {
+        }
+
+        @Override
+        public void onClose() {
+        }
+
+        @Override
+        public void onResized(Terminal terminal, TerminalSize newSize) {
+        }
+    }
+}
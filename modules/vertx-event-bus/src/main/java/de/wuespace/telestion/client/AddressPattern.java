@@ -0,0 +1,110 @@
+package de.wuespace.telestion.client;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A compiled pattern for event bus addresses with dot-separated segments.
+ * <p>
+ * A {@code *} segment matches exactly one segment, a {@code **} segment matches any number of segments (also none).
+ * All other segments must match literally.
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ * {@code
+ * var pattern = AddressPattern.compile("telemetry.*.temperature");
+ * pattern.matches("telemetry.eps.temperature"); // true
+ * AddressPattern.compile("sat1.**").matches("sat1.obc.mode"); // true
+ * }
+ * </pre>
+ */
+public final class AddressPattern {
+    public static final String SINGLE = "*";
+    public static final String MULTI = "**";
+
+    private final String pattern;
+    private final String[] segments;
+
+    private AddressPattern(String pattern, String[] segments) {
+        this.pattern = pattern;
+        this.segments = segments;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the pattern has empty segments
+     */
+    public static AddressPattern compile(String pattern) {
+        var segments = split(pattern);
+        for (var segment : segments) {
+            if (segment.isEmpty()) {
+                throw new IllegalArgumentException("Address pattern contains an empty segment: " + pattern);
+            }
+        }
+        return new AddressPattern(pattern, segments);
+    }
+
+    /**
+     * @return {@code true} if the address contains a {@code *} or {@code **} segment
+     */
+    public static boolean isPattern(String address) {
+        for (var segment : split(address)) {
+            if (SINGLE.equals(segment) || MULTI.equals(segment)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean matches(String address) {
+        return matches(split(address), 0, 0);
+    }
+
+    String[] getSegments() {
+        return segments;
+    }
+
+    private boolean matches(String[] address, int segment, int offset) {
+        if (segment == segments.length) {
+            return offset == address.length;
+        }
+        if (MULTI.equals(segments[segment])) {
+            for (int i = offset; i <= address.length; i++) {
+                if (matches(address, segment + 1, i)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return offset < address.length
+                && (SINGLE.equals(segments[segment]) || segments[segment].equals(address[offset]))
+                && matches(address, segment + 1, offset + 1);
+    }
+
+    static String[] split(String address) {
+        var segments = new ArrayList<String>();
+        var start = 0;
+        for (int i = 0; i < address.length(); i++) {
+            if (address.charAt(i) == '.') {
+                segments.add(address.substring(start, i));
+                start = i + 1;
+            }
+        }
+        segments.add(address.substring(start));
+        return segments.toArray(String[]::new);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof AddressPattern other && pattern.equals(other.pattern);
+    }
+
+    @Override
+    public int hashCode() {
+        return pattern.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+}
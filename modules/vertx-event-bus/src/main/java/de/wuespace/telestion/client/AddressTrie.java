@@ -0,0 +1,99 @@
+package de.wuespace.telestion.client;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A trie of {@link AddressPattern address patterns} that finds the values of all patterns matching an address
+ * in one walk over the address segments, independent of the number of registered patterns.
+ * <p>
+ * The trie is not thread-safe.
+ *
+ * @param <V> the type of the values stored per pattern
+ */
+final class AddressTrie<V> {
+    private static final class Node<V> {
+        private final Map<String, Node<V>> children = new HashMap<>();
+        private final List<V> values = new ArrayList<>();
+
+        private boolean isEmpty() {
+            return children.isEmpty() && values.isEmpty();
+        }
+    }
+
+    private final Node<V> root = new Node<>();
+    private int size;
+
+    void add(AddressPattern pattern, V value) {
+        var node = root;
+        for (var segment : pattern.getSegments()) {
+            node = node.children.computeIfAbsent(segment, key -> new Node<>());
+        }
+        node.values.add(value);
+        size++;
+    }
+
+    boolean remove(AddressPattern pattern, V value) {
+        var removed = remove(root, pattern.getSegments(), 0, value);
+        if (removed) {
+            size--;
+        }
+        return removed;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the values of all patterns that match the address, each value once in insertion order of the walk
+     */
+    Set<V> match(String address) {
+        var result = new LinkedHashSet<V>();
+        if (size > 0) {
+            match(root, AddressPattern.split(address), 0, result);
+        }
+        return result;
+    }
+
+    private void match(Node<V> node, String[] segments, int offset, Set<V> result) {
+        var multi = node.children.get(AddressPattern.MULTI);
+        if (multi != null) {
+            // ** consumes any number of the remaining segments
+            for (int i = offset; i <= segments.length; i++) {
+                match(multi, segments, i, result);
+            }
+        }
+        if (offset == segments.length) {
+            result.addAll(node.values);
+            return;
+        }
+
+        var literal = node.children.get(segments[offset]);
+        if (literal != null) {
+            match(literal, segments, offset + 1, result);
+        }
+        var single = node.children.get(AddressPattern.SINGLE);
+        if (single != null) {
+            match(single, segments, offset + 1, result);
+        }
+    }
+
+    private boolean remove(Node<V> node, String[] segments, int offset, V value) {
+        if (offset == segments.length) {
+            return node.values.remove(value);
+        }
+        var child = node.children.get(segments[offset]);
+        if (child == null || !remove(child, segments, offset + 1, value)) {
+            return false;
+        }
+        if (child.isEmpty()) {
+            node.children.remove(segments[offset]);
+        }
+        return true;
+    }
+}
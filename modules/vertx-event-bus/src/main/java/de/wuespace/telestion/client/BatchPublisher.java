@@ -0,0 +1,126 @@
+package de.wuespace.telestion.client;
+
+import io.vertx.eventbusclient.DeliveryOptions;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects messages for one address and hands them to the {@link EventBusClient} as a batch.
+ * <p>
+ * A batch is flushed when it contains {@code maxBatchSize} messages or when its first message waited
+ * for {@code maxDelay}, whatever happens first. Closing the publisher flushes the pending messages.
+ * All methods are thread-safe, the order of the messages is kept.
+ * Batches flushed because of the delay are written on the worker pool of the {@link ClientScheduler},
+ * batches flushed because of their size on the publishing thread.
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ * {@code
+ * try (var publisher = client.batchPublisher("telemetry", 256, Duration.ofMillis(5))) {
+ *     for (var record : records) {
+ *         publisher.publish(record);
+ *     }
+ * }
+ * }
+ * </pre>
+ *
+ * @see EventBusClient#batchPublisher(String, int, Duration)
+ * @see EventBusClient#batchSender(String, int, Duration)
+ */
+public class BatchPublisher implements AutoCloseable {
+
+    /**
+     * Writes a flushed batch, e.g. {@link EventBusClient#publishBatch(String, Collection, DeliveryOptions)}.
+     */
+    @FunctionalInterface
+    interface Target {
+        void write(String address, List<JsonMessage> batch, DeliveryOptions options);
+    }
+
+    private final String address;
+    private final Target target;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+
+    private DeliveryOptions options = new DeliveryOptions();
+    private List<JsonMessage> pending;
+    private ScheduledFuture<?> timer;
+    private boolean closed;
+
+    BatchPublisher(String address, Target target, int maxBatchSize, Duration maxDelay) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be at least 1");
+        }
+        this.address = address;
+        this.target = target;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.pending = new ArrayList<>(maxBatchSize);
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public synchronized BatchPublisher setDeliveryOptions(DeliveryOptions options) {
+        this.options = options;
+        return this;
+    }
+
+    /**
+     * Adds the message to the current batch.
+     *
+     * @throws IllegalStateException if the publisher is closed
+     */
+    public synchronized void publish(JsonMessage message) throws IllegalStateException {
+        if (closed) {
+            throw new IllegalStateException("BatchPublisher for " + address + " is closed");
+        }
+        pending.add(message);
+        if (pending.size() >= maxBatchSize) {
+            flush();
+        } else if (pending.size() == 1) {
+            var batch = pending;
+            timer = ClientScheduler.get().schedule(
+                    () -> ClientScheduler.worker().execute(() -> flushExpired(batch)), maxDelayNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Flushes the batch whose delay has passed unless it was already flushed.
+     * The pending list is replaced on every flush, so it identifies the batch the timer belongs to.
+     */
+    private synchronized void flushExpired(List<JsonMessage> batch) {
+        if (pending == batch) {
+            flush();
+        }
+    }
+
+    /**
+     * Hands all pending messages to the client immediately.
+     */
+    public synchronized void flush() {
+        // the batch is written while holding the lock to keep the order between concurrent flushes
+        if (timer != null) {
+            timer.cancel(false);
+            timer = null;
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        var batch = pending;
+        pending = new ArrayList<>(maxBatchSize);
+        target.write(address, batch, options);
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        flush();
+    }
+}
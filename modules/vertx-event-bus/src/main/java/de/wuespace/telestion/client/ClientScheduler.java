@@ -0,0 +1,39 @@
+package de.wuespace.telestion.client;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * The daemon scheduler shared by the timers of the event bus client (batch flushes, reconnects, throttled deliveries).
+ * Scheduled tasks must be short and must never block.
+ * Timers that trigger encoding, I/O or user handlers hand that work to the {@link #worker() worker pool},
+ * so a slow flush or handler cannot delay the reconnect attempts and request timeouts of other clients.
+ */
+final class ClientScheduler {
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "event-bus-client-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final ExecutorService worker = Executors.newCachedThreadPool(runnable -> {
+        var thread = new Thread(runnable, "event-bus-client-worker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static ScheduledExecutorService get() {
+        return scheduler;
+    }
+
+    /**
+     * @return the daemon pool for the work of timers that may take long or block
+     */
+    static ExecutorService worker() {
+        return worker;
+    }
+
+    private ClientScheduler() {
+    }
+}
@@ -0,0 +1,23 @@
+package de.wuespace.telestion.client;
+
+import java.util.Map;
+
+/**
+ * The messages of an address conflated over one delivery period of
+ * {@link EventBusClient#registerConflated(String, io.vertx.eventbusclient.Handler, Class, double)}.
+ *
+ * @param latest the latest message of the period
+ * @param count  the number of messages received in the period
+ * @param fields the statistics of the numeric top-level fields of the messages in the period, keyed by field name
+ * @param <V>    the type of the messages
+ */
+public record Conflated<V extends JsonMessage>(V latest, long count, Map<String, FieldStats> fields) {
+
+    /**
+     * The statistics of one numeric field.
+     *
+     * @param count the number of messages that contained the field
+     */
+    public record FieldStats(double min, double max, double mean, long count) {
+    }
+}
@@ -0,0 +1,102 @@
+package de.wuespace.telestion.client;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * An immutable consistent hash ring that maps keys to nodes.
+ * <p>
+ * Every node is placed on the ring at {@code virtualNodes} points, so keys spread evenly and adding or removing
+ * a node only moves the keys of that node. A key belongs to the node of the first point at or after its hash.
+ *
+ * @param <T> the type of the nodes
+ */
+final class ConsistentHash<T> {
+    private final List<T> nodes;
+    private final long[] points;
+    private final int[] owners;
+
+    ConsistentHash(List<T> nodes, int virtualNodes) {
+        if (nodes.isEmpty() || virtualNodes <= 0) {
+            throw new IllegalArgumentException("Need at least one node and one virtual node per node");
+        }
+        this.nodes = List.copyOf(nodes);
+
+        var count = nodes.size() * virtualNodes;
+        var entries = new long[count][];
+        for (int node = 0; node < nodes.size(); node++) {
+            for (int point = 0; point < virtualNodes; point++) {
+                entries[node * virtualNodes + point] = new long[]{hash(node + "#" + point), node};
+            }
+        }
+        Arrays.sort(entries, (a, b) -> Long.compare(a[0], b[0]));
+        this.points = new long[count];
+        this.owners = new int[count];
+        for (int i = 0; i < count; i++) {
+            points[i] = entries[i][0];
+            owners[i] = (int) entries[i][1];
+        }
+    }
+
+    List<T> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return the node the key belongs to
+     */
+    T get(String key) {
+        return nodes.get(owners[start(key)]);
+    }
+
+    /**
+     * Walks the ring from the point of the key and returns the first node that is accepted,
+     * i.e. the node that takes over the key while the nodes before it are unavailable.
+     *
+     * @return the first accepted node or {@code null} if no node is accepted
+     */
+    T find(String key, Predicate<? super T> accepted) {
+        var start = start(key);
+        var checked = new boolean[nodes.size()];
+        var remaining = nodes.size();
+        for (int i = 0; i < points.length && remaining > 0; i++) {
+            var owner = owners[(start + i) % points.length];
+            if (checked[owner]) {
+                continue;
+            }
+            checked[owner] = true;
+            remaining--;
+            var node = nodes.get(owner);
+            if (accepted.test(node)) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    private int start(String key) {
+        var index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return index == points.length ? 0 : index;
+    }
+
+    /**
+     * 64-bit FNV-1a over the chars, followed by the MurmurHash3 finalizer to spread similar keys.
+     */
+    static long hash(String key) {
+        var hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,41 @@
+package de.wuespace.telestion.client;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A pool of equally sized direct buffers.
+ * Buffers are allocated on demand, at most {@code capacity} released buffers are kept for reuse.
+ */
+final class DirectBufferPool {
+    private final int bufferSize;
+    private final BlockingQueue<ByteBuffer> free;
+
+    DirectBufferPool(int bufferSize, int capacity) {
+        this.bufferSize = bufferSize;
+        this.free = new ArrayBlockingQueue<>(Math.max(1, capacity));
+    }
+
+    int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * @return a cleared buffer
+     */
+    ByteBuffer acquire() {
+        var buffer = free.poll();
+        return buffer == null ? ByteBuffer.allocateDirect(bufferSize) : buffer;
+    }
+
+    void release(ByteBuffer buffer) {
+        if (buffer.isDirect() && buffer.capacity() == bufferSize) {
+            free.offer(buffer.clear());
+        }
+    }
+
+    int getFreeBuffers() {
+        return free.size();
+    }
+}
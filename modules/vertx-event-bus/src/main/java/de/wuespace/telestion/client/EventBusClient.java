@@ -1,13 +1,43 @@
 package de.wuespace.telestion.client;
 
+import de.wuespace.telestion.client.json.BridgeCodec;
+import de.wuespace.telestion.client.json.JacksonCodec;
+import de.wuespace.telestion.client.json.DecodeException;
 import de.wuespace.telestion.client.json.JsonObject;
+import de.wuespace.telestion.client.json.MessageFilter;
+import de.wuespace.telestion.client.json.PayloadFormat;
+import de.wuespace.telestion.client.metrics.ClientMetrics;
+import de.wuespace.telestion.client.metrics.ConnectionState;
+import de.wuespace.telestion.client.metrics.LatencyHistogram;
+import de.wuespace.telestion.client.metrics.TypeMetrics;
 import io.vertx.eventbusclient.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-@SuppressWarnings("ClassCanBeRecord")
 public class EventBusClient {
 
+    /**
+     * Creates a client for the TCP bridge that reconnects with the default {@link ReconnectPolicy}.
+     * The automatic reconnect of the underlying bridge client is disabled on a copy of the given options.
+     */
     public static EventBusClient connectWithTcpBridge(EventBusClientOptions options) {
-        return new EventBusClient(io.vertx.eventbusclient.EventBusClient.tcp(options));
+        var bridgeOptions = new EventBusClientOptions(options).setAutoReconnect(false);
+        var metrics = new ClientMetrics();
+        return new EventBusClient(io.vertx.eventbusclient.EventBusClient.tcp(bridgeOptions, new BridgeCodec(metrics)), true, metrics)
+                .setReconnectPolicy(new ReconnectPolicy());
     }
 
     public static EventBusClient connectWithTcpBridge(String host, int port) {
@@ -19,8 +49,36 @@ public class EventBusClient {
         return connectWithTcpBridge(new EventBusClientOptions());
     }
 
+    /**
+     * Creates a client for the WebSocket bridge that reconnects with the default {@link ReconnectPolicy}.
+     * The automatic reconnect of the underlying bridge client is disabled on a copy of the given options.
+     */
     public static EventBusClient connectWithWebSocketBridge(EventBusClientOptions options) {
-        return new EventBusClient(io.vertx.eventbusclient.EventBusClient.webSocket(options));
+        var bridgeOptions = new EventBusClientOptions(options).setAutoReconnect(false);
+        var metrics = new ClientMetrics();
+        return new EventBusClient(io.vertx.eventbusclient.EventBusClient.webSocket(bridgeOptions, new BridgeCodec(metrics)), true, metrics)
+                .setReconnectPolicy(new ReconnectPolicy());
+    }
+
+    /**
+     * Creates a client for the TCP bridge that publishes and sends through an additional NIO connection.
+     * <p>
+     * The NIO connection encodes frames straight into pooled direct buffers and writes batches
+     * ({@link #publishBatch(String, Collection, DeliveryOptions)}, {@link BatchPublisher}) with coalesced gathering
+     * writes. Consumers and requests stay on the connection of the bridge client, which also carries publish and
+     * send while the NIO connection is down. Messages published through different connections are not ordered
+     * with respect to each other.
+     */
+    public static EventBusClient connectWithNioTcpBridge(NioBridgeOptions options) {
+        var bridgeOptions = new EventBusClientOptions(options.getBridgeOptions()).setAutoReconnect(false);
+        var metrics = new ClientMetrics();
+        return new EventBusClient(io.vertx.eventbusclient.EventBusClient.tcp(bridgeOptions, new BridgeCodec(metrics)), true, metrics, options)
+                .setReconnectPolicy(new ReconnectPolicy());
+    }
+
+    public static EventBusClient connectWithNioTcpBridge(String host, int port) {
+        var options = new NioBridgeOptions().setBridgeOptions(new EventBusClientOptions().setHost(host).setPort(port));
+        return connectWithNioTcpBridge(options);
     }
 
     public static EventBusClient connectWithWebSocketBridge(String host, int port) {
@@ -34,8 +92,118 @@ public class EventBusClient {
 
     private final io.vertx.eventbusclient.EventBusClient eventBusClient;
 
-    public EventBusClient(io.vertx.eventbusclient.EventBusClient eventBusClient) {
+    /**
+     * {@code true} if the wrapped client encodes its frames with the {@link BridgeCodec}.
+     * Then {@link JsonMessage} bodies are passed to the client as they are and
+     * serialized together with the frame instead of being converted to a {@link JsonObject} first.
+     */
+    private final boolean directEncoding;
+
+    /**
+     * The NIO connection for outgoing messages or {@code null} if everything goes through the bridge client.
+     */
+    private final NioTcpTransport outbound;
+
+    /**
+     * The shared bridge consumers of all addresses with live registrations. They are restored after a reconnect.
+     * Changes are synchronized on the map, so an address is never subscribed twice.
+     */
+    private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+
+    /**
+     * The pattern registrations by pattern and all addresses they can be matched against, i.e. the declared addresses
+     * and the addresses with exact registrations, with the number of exact registrations per address.
+     * Guarded by {@link #subscriptions}.
+     */
+    private final AddressTrie<PatternListener> patterns = new AddressTrie<>();
+    private final Set<String> knownAddresses = new HashSet<>();
+    private final Set<String> declaredAddresses = new HashSet<>();
+    private final Map<String, Integer> registeredAddresses = new HashMap<>();
+
+    private final Reconnector reconnector;
+
+    private final RequestTracker requests = new RequestTracker();
+
+    private final ClientMetrics metrics;
+
+    private volatile StripedExecutor handlerExecutor;
+
+    private volatile InboundPipeline inboundPipeline;
+
+    private volatile PayloadFormat payloadFormat = PayloadFormat.JSON;
+
+    private volatile Map<String, String> defaultHeaders = Map.of();
+
+    private volatile boolean closedByUser;
+    private volatile Runnable connectedHandler = () -> {
+    };
+    private volatile Runnable closeHandler = () -> {
+    };
+    private volatile Handler<Throwable> exceptionHandler = cause -> {
+    };
+    private volatile Handler<Duration> reconnectedHandler = latency -> {
+    };
+
+    /**
+     * @param eventBusClient the wrapped bridge client
+     * @param directEncoding {@code true} if the bridge client was created with a {@link BridgeCodec}
+     * @param metrics        the metrics of this client, the same instance the {@link BridgeCodec} records the frame sizes in
+     */
+    public EventBusClient(io.vertx.eventbusclient.EventBusClient eventBusClient, boolean directEncoding, ClientMetrics metrics) {
+        this(eventBusClient, directEncoding, metrics, null);
+    }
+
+    private EventBusClient(io.vertx.eventbusclient.EventBusClient eventBusClient, boolean directEncoding, ClientMetrics metrics,
+                           NioBridgeOptions nioOptions) {
         this.eventBusClient = eventBusClient;
+        this.directEncoding = directEncoding;
+        this.metrics = metrics;
+        this.outbound = nioOptions == null ? null : new NioTcpTransport(
+                nioOptions.getBridgeOptions().getHost(), nioOptions.getBridgeOptions().getPort(), nioOptions, metrics,
+                cause -> exceptionHandler.handle(cause));
+        this.reconnector = new Reconnector(() -> {
+            metrics.recordState(ConnectionState.RECONNECTING);
+            eventBusClient.connect();
+        }, eventBusClient::isConnected);
+
+        eventBusClient.connectedHandler(finish -> {
+            metrics.recordState(ConnectionState.CONNECTED);
+            if (outbound != null) {
+                outbound.connect();
+            }
+            var reconnected = reconnector.connected();
+            connectedHandler.run();
+            // call given handler so the EventBus client can finish its stuff
+            finish.handle(null);
+            if (reconnected) {
+                restoreSubscriptions();
+            }
+        });
+        eventBusClient.closeHandler(result -> {
+            metrics.recordState(closedByUser ? ConnectionState.CLOSED : ConnectionState.DISCONNECTED);
+            closeHandler.run();
+            if (!closedByUser) {
+                reconnector.disconnected();
+            }
+        });
+        eventBusClient.exceptionHandler(cause -> {
+            exceptionHandler.handle(cause);
+            if (!closedByUser && !eventBusClient.isConnected()) {
+                reconnector.disconnected();
+            }
+        });
+    }
+
+    /**
+     * @param eventBusClient the wrapped bridge client
+     * @param directEncoding {@code true} if the bridge client was created with a {@link BridgeCodec}
+     */
+    public EventBusClient(io.vertx.eventbusclient.EventBusClient eventBusClient, boolean directEncoding) {
+        this(eventBusClient, directEncoding, new ClientMetrics());
+    }
+
+    public EventBusClient(io.vertx.eventbusclient.EventBusClient eventBusClient) {
+        this(eventBusClient, false);
     }
 
     ///
@@ -44,48 +212,177 @@ public class EventBusClient {
 
     public EventBusClient setDefaultDeliveryOptions(DeliveryOptions defaultOptions) {
         eventBusClient.setDefaultDeliveryOptions(defaultOptions);
+        var headers = defaultOptions.getHeaders();
+        defaultHeaders = headers == null ? Map.of() : Map.copyOf(headers);
         return this;
     }
 
+    /**
+     * Sets the format in which {@link JsonMessage} bodies are published and sent.
+     * Binary formats are announced in the {@value PayloadFormat#HEADER} header, so receivers using
+     * {@link JsonMessage#from(Message, Class)} decode them automatically. The default is {@link PayloadFormat#JSON}.
+     */
+    public EventBusClient setPayloadFormat(PayloadFormat payloadFormat) {
+        this.payloadFormat = payloadFormat;
+        return this;
+    }
+
+    public PayloadFormat getPayloadFormat() {
+        return payloadFormat;
+    }
+
     public boolean isConnected() {
         return eventBusClient.isConnected();
     }
 
     public EventBusClient connect() {
+        closedByUser = false;
+        // an explicit connect starts the reconnect policy over, also after it gave up
+        reconnector.stop();
         eventBusClient.connect();
         return this;
     }
 
     public EventBusClient close() {
+        closedByUser = true;
+        metrics.recordState(ConnectionState.CLOSED);
+        reconnector.stop();
+        if (outbound != null) {
+            outbound.close();
+        }
         eventBusClient.close();
         return this;
     }
 
     public EventBusClient connectedHandler(Runnable connectedHandler) {
-        eventBusClient.connectedHandler(handler -> {
-            connectedHandler.run();
-            // call given handler so the EventBus client can finish its stuff
-            handler.handle(null);
-        });
+        this.connectedHandler = connectedHandler;
         return this;
     }
 
+    /**
+     * The close handler is called on every loss of the connection, also when the client reconnects afterwards.
+     */
     public EventBusClient closeHandler(Runnable closeHandler) {
-        eventBusClient.closeHandler(result -> closeHandler.run());
+        this.closeHandler = closeHandler;
         return this;
     }
 
     public EventBusClient exceptionHandler(Handler<Throwable> exceptionHandler) {
-        eventBusClient.exceptionHandler(exceptionHandler);
+        this.exceptionHandler = exceptionHandler;
+        return this;
+    }
+
+    /**
+     * Runs the handlers of addresses registered afterwards on the given executor instead of the I/O thread
+     * of the bridge client. Messages of the same address are handled in order, different addresses in parallel.
+     * With typed registrations, the message decoding runs on the executor, too.
+     * Addresses that already have registrations keep their executor until all their handlers are unregistered.
+     *
+     * @param handlerExecutor the executor or {@code null} to run the handlers on the I/O thread again
+     */
+    public EventBusClient setHandlerExecutor(StripedExecutor handlerExecutor) {
+        this.handlerExecutor = handlerExecutor;
         return this;
     }
 
+    public StripedExecutor getHandlerExecutor() {
+        return handlerExecutor;
+    }
+
+    /**
+     * Passes the messages of addresses registered afterwards through the given ring buffer pipeline
+     * instead of running their handlers on the I/O thread or the {@link #setHandlerExecutor(StripedExecutor) handler executor}.
+     * The pipeline does not allocate per message and bounds the number of pending messages.
+     * Addresses that already have registrations keep their current dispatching until all their handlers are unregistered.
+     * <p>
+     * The pipeline has a single producer, the I/O thread of this client, so it cannot be shared between clients.
+     * It stays bound to this client even after it was replaced.
+     *
+     * @param inboundPipeline the pipeline or {@code null} to stop using it for new addresses
+     * @throws IllegalStateException if the pipeline is already used by another client
+     */
+    public EventBusClient setInboundPipeline(InboundPipeline inboundPipeline) {
+        if (inboundPipeline != null) {
+            inboundPipeline.attach(this);
+        }
+        this.inboundPipeline = inboundPipeline;
+        return this;
+    }
+
+    public InboundPipeline getInboundPipeline() {
+        return inboundPipeline;
+    }
+
+    /**
+     * Returns the metrics of this client: message and byte counters and handler execution times per address,
+     * and the transitions of the connection state. Use {@link ClientMetrics#snapshot()} to read them
+     * or {@link ClientMetrics#registerMBean(String)} to expose them via JMX.
+     * Byte counts are only available for clients created by the static factory methods.
+     */
+    public ClientMetrics getMetrics() {
+        return metrics;
+    }
+
+    ///
+    /// RECONNECT SECTION
+    ///
+
+    /**
+     * Sets the policy that describes when the client reconnects after the connection was lost unexpectedly.
+     * After a reconnect, all consumers of live registrations are restored at once.
+     */
+    public EventBusClient setReconnectPolicy(ReconnectPolicy policy) {
+        reconnector.setPolicy(policy);
+        if (outbound != null) {
+            outbound.setReconnectPolicy(policy);
+        }
+        return this;
+    }
+
+    public ReconnectPolicy getReconnectPolicy() {
+        return reconnector.getPolicy();
+    }
+
+    /**
+     * Gets called after a successful reconnect once all consumers are restored.
+     * The handler receives the time from the loss of the connection until the consumers were restored.
+     */
+    public EventBusClient reconnectedHandler(Handler<Duration> reconnectedHandler) {
+        this.reconnectedHandler = reconnectedHandler;
+        return this;
+    }
+
+    public long getReconnectCount() {
+        return reconnector.getReconnects();
+    }
+
+    /**
+     * Returns the time from the loss of the connection until the consumers were restored for the last reconnect
+     * or {@link Duration#ZERO} if the client never reconnected.
+     */
+    public Duration getLastReconnectLatency() {
+        return reconnector.getLastLatency();
+    }
+
+    private void restoreSubscriptions() {
+        for (var subscription : subscriptions.values()) {
+            subscription.subscribe(eventBusClient);
+        }
+        var latency = reconnector.restored();
+        logger.info("Reconnected to the event bus bridge and restored {} consumers after {} ms",
+                subscriptions.size(), latency.toMillis());
+        reconnectedHandler.handle(latency);
+    }
+
     ///
     /// PUBLISH SECTION
     ///
 
     public EventBusClient publish(String address, Object message, DeliveryOptions options) {
-        this.eventBusClient.publish(address, message, options);
+        metrics.address(address).recordMessageOut();
+        if (outbound == null || !outbound.write("publish", address, headers(options), message)) {
+            this.eventBusClient.publish(address, message, options);
+        }
         return this;
     }
 
@@ -102,19 +399,44 @@ public class EventBusClient {
     }
 
     public EventBusClient publish(String address, JsonMessage message, DeliveryOptions options) {
-        return publish(address, message.toJsonObject(), options);
+        var format = payloadFormat;
+        return publish(address, encodeBody(message, format), withContentType(options, format));
     }
 
     public EventBusClient publish(String address, JsonMessage message) {
         return publish(address, message, new DeliveryOptions());
     }
 
+    /**
+     * Publishes all messages to the address one after another with the same delivery options.
+     * The messages are delivered in iteration order.
+     */
+    public EventBusClient publishBatch(String address, Collection<? extends JsonMessage> messages, DeliveryOptions options) {
+        var format = payloadFormat;
+        var batchOptions = withContentType(options, format);
+        metrics.address(address).recordMessagesOut(messages.size());
+        if (outbound != null && outbound.writeBatch("publish", address, headers(batchOptions), messages, message -> encodeBody(message, format))) {
+            return this;
+        }
+        for (var message : messages) {
+            this.eventBusClient.publish(address, encodeBody(message, format), batchOptions);
+        }
+        return this;
+    }
+
+    public EventBusClient publishBatch(String address, Collection<? extends JsonMessage> messages) {
+        return publishBatch(address, messages, new DeliveryOptions());
+    }
+
     ///
     /// SEND SECTION
     ///
 
     public EventBusClient send(String address, Object message, DeliveryOptions options) {
-        this.eventBusClient.send(address, message, options);
+        metrics.address(address).recordMessageOut();
+        if (outbound == null || !outbound.write("send", address, headers(options), message)) {
+            this.eventBusClient.send(address, message, options);
+        }
         return this;
     }
 
@@ -131,18 +453,79 @@ public class EventBusClient {
     }
 
     public EventBusClient send(String address, JsonMessage message, DeliveryOptions options) {
-        return send(address, message.toJsonObject(), options);
+        var format = payloadFormat;
+        return send(address, encodeBody(message, format), withContentType(options, format));
     }
 
     public EventBusClient send(String address, JsonMessage message) {
         return send(address, message, new DeliveryOptions());
     }
 
+    /**
+     * Sends all messages to the address one after another with the same delivery options.
+     * The messages are delivered in iteration order.
+     */
+    public EventBusClient sendBatch(String address, Collection<? extends JsonMessage> messages, DeliveryOptions options) {
+        var format = payloadFormat;
+        var batchOptions = withContentType(options, format);
+        metrics.address(address).recordMessagesOut(messages.size());
+        if (outbound != null && outbound.writeBatch("send", address, headers(batchOptions), messages, message -> encodeBody(message, format))) {
+            return this;
+        }
+        for (var message : messages) {
+            this.eventBusClient.send(address, encodeBody(message, format), batchOptions);
+        }
+        return this;
+    }
+
+    public EventBusClient sendBatch(String address, Collection<? extends JsonMessage> messages) {
+        return sendBatch(address, messages, new DeliveryOptions());
+    }
+
+    /**
+     * Returns the headers of a frame written by the NIO connection, the defaults merged with those of the options,
+     * as the bridge client would send them.
+     */
+    private Map<String, String> headers(DeliveryOptions options) {
+        var headers = options.getHeaders();
+        if (headers == null || headers.isEmpty()) {
+            return defaultHeaders;
+        }
+        if (defaultHeaders.isEmpty()) {
+            return headers;
+        }
+        var merged = new HashMap<>(defaultHeaders);
+        merged.putAll(headers);
+        return merged;
+    }
+
+    ///
+    /// BATCH SECTION
+    ///
+
+    /**
+     * Creates a {@link BatchPublisher} that collects messages for the address and publishes them with
+     * {@link #publishBatch(String, Collection, DeliveryOptions)} once {@code maxBatchSize} messages are pending
+     * or the oldest pending message waited for {@code maxDelay}.
+     */
+    public BatchPublisher batchPublisher(String address, int maxBatchSize, Duration maxDelay) {
+        return new BatchPublisher(address, this::publishBatch, maxBatchSize, maxDelay);
+    }
+
+    /**
+     * Like {@link #batchPublisher(String, int, Duration)} but sends the messages with
+     * {@link #sendBatch(String, Collection, DeliveryOptions)}.
+     */
+    public BatchPublisher batchSender(String address, int maxBatchSize, Duration maxDelay) {
+        return new BatchPublisher(address, this::sendBatch, maxBatchSize, maxDelay);
+    }
+
     ///
     /// REQUEST SECTION
     ///
 
     public <T> EventBusClient request(String address, Object message, DeliveryOptions options, Handler<AsyncResult<Message<T>>> handler) {
+        metrics.address(address).recordMessageOut();
         this.eventBusClient.request(address, message, options, handler);
         return this;
     }
@@ -151,6 +534,8 @@ public class EventBusClient {
         return request(address, message, options, result -> {
             if (result.succeeded()) {
                 JsonMessage.on(type, result.result(), handler::handle);
+            } else {
+                logger.warn("Request to {} failed:", address, result.cause());
             }
         });
     }
@@ -159,6 +544,8 @@ public class EventBusClient {
         return this.<T>request(address, message, options, result -> {
             if (result.succeeded()) {
                 JsonMessage.on(type, result.result(), body -> handler.handle(body, result.result()));
+            } else {
+                logger.warn("Request to {} failed:", address, result.cause());
             }
         });
     }
@@ -175,20 +562,412 @@ public class EventBusClient {
         return request(address, message, new DeliveryOptions(), type, handler);
     }
 
+    ///
+    /// ASYNC REQUEST SECTION
+    ///
+
+    /**
+     * Sends a request and returns a future that completes with the decoded reply.
+     * <p>
+     * The future fails with a {@link java.util.concurrent.TimeoutException} when no reply arrives within
+     * the send timeout of the delivery options, with a {@link DecodeException} when the reply cannot be
+     * decoded and with a {@link RejectedExecutionException} when the maximum number of in-flight requests
+     * is reached (see {@link #setMaxInFlightRequests(int)}).
+     * Many requests can be in flight at the same time, so requests can be pipelined.
+     *
+     * @param address the address of the request
+     * @param message the request body
+     * @param options the delivery options, their send timeout is the deadline of the request
+     * @param type    the class of the reply
+     * @param <V>     the type of the reply
+     * @return a future of the decoded reply
+     */
+    public <V extends JsonMessage> CompletableFuture<V> requestAsync(String address, Object message, DeliveryOptions options, Class<V> type) {
+        RequestTracker.InFlight<V> request = requests.begin(options.getSendTimeout());
+        if (request == null) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException(
+                    "Too many in-flight requests (" + requests.getMaxInFlight() + ")"));
+        }
+
+        this.<Object>request(address, message, options, result -> {
+            if (result.failed()) {
+                request.fail(result.cause());
+                return;
+            }
+            try {
+                request.complete(JsonMessage.from(result.result(), type));
+            } catch (DecodeException e) {
+                request.fail(e);
+            }
+        });
+        return request.future();
+    }
+
+    public <V extends JsonMessage> CompletableFuture<V> requestAsync(String address, Object message, Class<V> type) {
+        return requestAsync(address, message, new DeliveryOptions(), type);
+    }
+
+    public <V extends JsonMessage> CompletableFuture<V> requestAsync(String address, JsonMessage message, DeliveryOptions options, Class<V> type) {
+        var format = payloadFormat;
+        return requestAsync(address, encodeBody(message, format), withContentType(options, format), type);
+    }
+
+    public <V extends JsonMessage> CompletableFuture<V> requestAsync(String address, JsonMessage message, Class<V> type) {
+        return requestAsync(address, message, new DeliveryOptions(), type);
+    }
+
+    /**
+     * Sets the maximum number of requests from {@link #requestAsync(String, Object, DeliveryOptions, Class)}
+     * that may wait for their reply at the same time. The default is 10000.
+     */
+    public EventBusClient setMaxInFlightRequests(int maxInFlightRequests) {
+        requests.setMaxInFlight(maxInFlightRequests);
+        return this;
+    }
+
+    public int getInFlightRequests() {
+        return requests.getInFlight();
+    }
+
+    /**
+     * Returns the histogram of the round-trip latencies of successful asynchronous requests.
+     */
+    public LatencyHistogram getRequestLatency() {
+        return requests.getLatency();
+    }
+
     ///
     /// REGISTER SECTION
     ///
 
+    /**
+     * Registers a handler for the address.
+     * <p>
+     * All handlers of an address share one consumer at the bridge. Each received message is passed to the
+     * handlers in registration order, and a handler that throws does not keep the message from the others.
+     * The bridge consumer is dropped when the last handler of the address is unregistered.
+     */
     public <T> Registration register(String address, Handler<Message<T>> handler) {
-        var consumer = this.eventBusClient.consumer(address, handler);
-        return new Registration(address, consumer::unregister);
+        //noinspection unchecked
+        return register(address, null, (message, body) -> handler.handle((Message<T>) (Message<?>) message));
     }
 
+    /**
+     * Registers a typed handler for the address.
+     * <p>
+     * Each received message is decoded at most once per type, no matter how many handlers of the address expect it.
+     * The decoded instance is shared between these handlers, so they must not modify it.
+     */
     public <V extends JsonMessage> MessageRegistration<V> register(String address, MessageHandler<V> handler, Class<V> type) {
-        return register(address, message -> JsonMessage.on(type, message, handler::handle)).hydrate(type);
+        // resolve the codec now instead of on the first received message
+        JacksonCodec.prepare(type);
+        return register(address, type, (Subscription.BodyListener) body -> handler.handle(type.cast(body))).hydrate(type);
     }
 
     public <V extends JsonMessage, T> MessageRegistration<V> register(String address, ExtendedMessageHandler<V, T> handler, Class<V> type) {
-        return this.<T>register(address, message -> JsonMessage.on(type, message, body -> handler.handle(body, message))).hydrate(type);
+        JacksonCodec.prepare(type);
+        //noinspection unchecked
+        return register(address, type, (message, body) -> handler.handle(type.cast(body), (Message<T>) (Message<?>) message))
+                .hydrate(type);
+    }
+
+    /**
+     * Registers a typed handler for the messages of the address that match the filter.
+     * <p>
+     * The filter is evaluated in one streaming pass over the raw body before anything is decoded, so messages that
+     * do not match cost neither a decode nor a handler call. Matching messages are decoded for this handler only,
+     * a message that cannot be evaluated is logged and dropped.
+     *
+     * @see MessageFilter
+     */
+    public <V extends JsonMessage> MessageRegistration<V> register(String address, MessageFilter filter, MessageHandler<V> handler, Class<V> type) {
+        JacksonCodec.prepare(type);
+        return register(address, null, (message, body) -> {
+            if (matches(filter, message)) {
+                JsonMessage.on(type, message, handler::handle);
+            }
+        }).hydrate(type);
+    }
+
+    /**
+     * Like {@link #register(String, MessageFilter, MessageHandler, Class)} with a filter expression
+     * that is compiled once.
+     *
+     * @throws IllegalArgumentException if the filter expression is malformed
+     */
+    public <V extends JsonMessage> MessageRegistration<V> register(String address, String filter, MessageHandler<V> handler, Class<V> type) {
+        return register(address, MessageFilter.compile(filter), handler, type);
+    }
+
+    private static boolean matches(MessageFilter filter, Message<Object> message) {
+        try {
+            return filter.test(message);
+        } catch (DecodeException e) {
+            logger.warn("Cannot evaluate filter {} on message of {}:", filter, message.address(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Registers a handler that receives at most {@code maxHz} messages of the address per second.
+     * <p>
+     * Only the latest message of each period of {@code 1 / maxHz} seconds is decoded and delivered,
+     * all messages in between are dropped without decoding. The handler runs on the stripe of the address
+     * if a {@link #setHandlerExecutor(StripedExecutor) handler executor} is set, otherwise on a worker thread
+     * of the client. A handler that takes longer than a period delays the next delivery instead of running
+     * concurrently with it.
+     */
+    public <V extends JsonMessage> MessageRegistration<V> registerThrottled(String address, MessageHandler<V> handler, Class<V> type, double maxHz) {
+        JacksonCodec.prepare(type);
+        return registerThrottle(address, Throttle.latest(address, type, handler, handlerExecutor), type, maxHz);
+    }
+
+    /**
+     * Like {@link #registerThrottled(String, MessageHandler, Class, double)}, but delivers the latest message
+     * together with the number of messages in the period and the minimum, maximum and mean of their numeric
+     * top-level fields. The statistics are collected from the bodies as received from the bridge,
+     * without decoding the messages. Binary payload formats only contribute to the count.
+     */
+    public <V extends JsonMessage> MessageRegistration<V> registerConflated(String address, Handler<Conflated<V>> handler, Class<V> type, double maxHz) {
+        JacksonCodec.prepare(type);
+        return registerThrottle(address, Throttle.conflating(address, type, handler, handlerExecutor), type, maxHz);
+    }
+
+    private <V extends JsonMessage> MessageRegistration<V> registerThrottle(String address, Throttle<V> throttle, Class<V> type, double maxHz) {
+        throttle.start(maxHz);
+        // an untyped listener, so the subscription does not decode the messages for it
+        var registration = register(address, null, throttle);
+        return new MessageRegistration<>(address, () -> {
+            registration.unregister();
+            throttle.stop();
+        }, type);
+    }
+
+    /**
+     * Hands a body that did not come from the bridge, e.g. a replayed message, to the typed
+     * {@link MessageHandler handlers} of the address, including the ones of matching pattern registrations.
+     * The body is decoded at most once per type and the handlers run on the calling thread.
+     * Raw, extended, filtered and throttled handlers need the message of the bridge and are skipped.
+     *
+     * @param body    the body decoded into a plain object like the bridge client does
+     * @param headers the headers of the message, which announce a binary {@link PayloadFormat}
+     * @return {@code false} if nothing is registered for the address
+     */
+    public boolean dispatchLocally(String address, Object body, Map<String, String> headers) {
+        var subscription = subscriptions.get(address);
+        if (subscription == null) {
+            return false;
+        }
+        subscription.dispatchBody(body, headers);
+        return true;
+    }
+
+    /**
+     * Returns the number of addresses that have a consumer at the bridge.
+     */
+    public int getSubscribedAddressCount() {
+        return subscriptions.size();
+    }
+
+    private Registration register(String address, Class<?> type, Subscription.Listener listener) {
+        Subscription subscription;
+        synchronized (subscriptions) {
+            registeredAddresses.merge(address, 1, Integer::sum);
+            addressKnown(address);
+            subscription = attach(address, type, listener);
+        }
+        var registered = new AtomicBoolean(true);
+        return new Registration(address, () -> {
+            synchronized (subscriptions) {
+                if (registered.getAndSet(false)) {
+                    detach(subscription, listener);
+                    addressReleased(address);
+                }
+            }
+        });
+    }
+
+    ///
+    /// PATTERN SECTION
+    ///
+
+    /**
+     * Registers a handler for all addresses that match the {@link AddressPattern pattern},
+     * e.g. {@code telemetry.*.temperature} or {@code sat1.**}.
+     * <p>
+     * The bridge only knows exact addresses, so the pattern is matched against the addresses
+     * declared with {@link #declareAddresses(Collection)} and the addresses of all other registrations,
+     * including the ones that are declared or registered later. When the last exact registration of an address
+     * that was not declared is unregistered, the pattern registrations let go of the address as well.
+     * Every matching address shares its bridge consumer with the other handlers of the address.
+     * The returned registration covers the whole pattern and its address is the pattern.
+     */
+    public <T> Registration registerPattern(String pattern, Handler<Message<T>> handler) {
+        //noinspection unchecked
+        return registerPattern(pattern, null, (message, body) -> handler.handle((Message<T>) (Message<?>) message));
+    }
+
+    public <V extends JsonMessage> MessageRegistration<V> registerPattern(String pattern, MessageHandler<V> handler, Class<V> type) {
+        JacksonCodec.prepare(type);
+        return registerPattern(pattern, type, (Subscription.BodyListener) body -> handler.handle(type.cast(body))).hydrate(type);
+    }
+
+    public <V extends JsonMessage, T> MessageRegistration<V> registerPattern(String pattern, ExtendedMessageHandler<V, T> handler, Class<V> type) {
+        JacksonCodec.prepare(type);
+        //noinspection unchecked
+        return registerPattern(pattern, type, (message, body) -> handler.handle(type.cast(body), (Message<T>) (Message<?>) message))
+                .hydrate(type);
+    }
+
+    /**
+     * Declares addresses that pattern registrations are matched against, e.g. all addresses from a configuration.
+     * Declaring an address does not subscribe it; only addresses with a matching pattern are subscribed at the bridge.
+     */
+    public EventBusClient declareAddresses(Collection<String> addresses) {
+        synchronized (subscriptions) {
+            for (var address : addresses) {
+                declaredAddresses.add(address);
+                addressKnown(address);
+            }
+        }
+        return this;
     }
+
+    public EventBusClient declareAddresses(String... addresses) {
+        return declareAddresses(List.of(addresses));
+    }
+
+    private Registration registerPattern(String pattern, Class<?> type, Subscription.Listener listener) {
+        var compiled = AddressPattern.compile(pattern);
+        var patternListener = new PatternListener(type, listener);
+        synchronized (subscriptions) {
+            patterns.add(compiled, patternListener);
+            for (var address : knownAddresses) {
+                if (compiled.matches(address)) {
+                    patternListener.attached.add(attach(address, type, listener));
+                }
+            }
+        }
+        return new Registration(pattern, () -> {
+            synchronized (subscriptions) {
+                if (patterns.remove(compiled, patternListener)) {
+                    for (var subscription : patternListener.attached) {
+                        detach(subscription, listener);
+                    }
+                    patternListener.attached.clear();
+                }
+            }
+        });
+    }
+
+    /**
+     * A listener registered for an address pattern and the subscriptions of the matched addresses.
+     */
+    private static final class PatternListener {
+        private final Class<?> type;
+        private final Subscription.Listener listener;
+        private final Set<Subscription> attached = new HashSet<>();
+
+        private PatternListener(Class<?> type, Subscription.Listener listener) {
+            this.type = type;
+            this.listener = listener;
+        }
+    }
+
+    /**
+     * Attaches the listeners of all matching patterns if the address is new. Must hold the lock of {@link #subscriptions}.
+     */
+    private void addressKnown(String address) {
+        if (!knownAddresses.add(address)) {
+            return;
+        }
+        for (var patternListener : patterns.match(address)) {
+            patternListener.attached.add(attach(address, patternListener.type, patternListener.listener));
+        }
+    }
+
+    /**
+     * Forgets the address after its last exact registration was dropped unless it is declared,
+     * and detaches the pattern listeners from it. Must hold the lock of {@link #subscriptions}.
+     */
+    private void addressReleased(String address) {
+        registeredAddresses.computeIfPresent(address, (key, count) -> count == 1 ? null : count - 1);
+        if (registeredAddresses.containsKey(address) || declaredAddresses.contains(address)
+                || !knownAddresses.remove(address)) {
+            return;
+        }
+        for (var patternListener : patterns.match(address)) {
+            var attached = patternListener.attached.iterator();
+            while (attached.hasNext()) {
+                var subscription = attached.next();
+                if (subscription.getAddress().equals(address)) {
+                    attached.remove();
+                    detach(subscription, patternListener.listener);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the listener to the subscription of the address and subscribes the address at the bridge if needed.
+     * Must hold the lock of {@link #subscriptions}.
+     */
+    private Subscription attach(String address, Class<?> type, Subscription.Listener listener) {
+        var subscription = subscriptions.get(address);
+        if (subscription == null) {
+            subscription = new Subscription(address, metrics.address(address), handlerExecutor, inboundPipeline);
+            subscription.add(type, listener);
+            subscription.subscribe(eventBusClient);
+            subscriptions.put(address, subscription);
+        } else {
+            subscription.add(type, listener);
+        }
+        return subscription;
+    }
+
+    /**
+     * Removes the listener and drops the bridge consumer with the last listener. Must hold the lock of {@link #subscriptions}.
+     */
+    private void detach(Subscription subscription, Subscription.Listener listener) {
+        if (subscription.remove(listener) && subscriptions.remove(subscription.getAddress(), subscription)) {
+            subscription.unsubscribe();
+        }
+    }
+
+    ///
+    /// HELPER SECTION
+    ///
+
+    private Object encodeBody(JsonMessage message, PayloadFormat format) {
+        if (directEncoding && !format.isBinary()) {
+            // encoded and measured together with the frame by the BridgeCodec
+            return message;
+        }
+
+        var start = System.nanoTime();
+        Object body;
+        if (format.isBinary()) {
+            // the BridgeCodec writes byte arrays as Base64 strings itself
+            var bytes = message.toBytes(format);
+            body = directEncoding ? bytes : Base64.getEncoder().encodeToString(bytes);
+        } else {
+            body = message.toJsonObject().getContents();
+        }
+        TypeMetrics.of(message.getClass()).recordEncode(System.nanoTime() - start);
+        return body;
+    }
+
+    private static DeliveryOptions withContentType(DeliveryOptions options, PayloadFormat format) {
+        if (!format.isBinary()) {
+            return options;
+        }
+        var headers = new HashMap<String, String>();
+        if (options.getHeaders() != null) {
+            headers.putAll(options.getHeaders());
+        }
+        headers.put(PayloadFormat.HEADER, format.getContentType());
+        return new DeliveryOptions().setSendTimeout(options.getSendTimeout()).setHeaders(headers);
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(EventBusClient.class);
 }
@@ -0,0 +1,380 @@
+package de.wuespace.telestion.client;
+
+import de.wuespace.telestion.client.json.JsonObject;
+import de.wuespace.telestion.client.json.MessageFilter;
+import de.wuespace.telestion.client.json.PayloadFormat;
+import io.vertx.eventbusclient.AsyncResult;
+import io.vertx.eventbusclient.DeliveryOptions;
+import io.vertx.eventbusclient.EventBusClientOptions;
+import io.vertx.eventbusclient.Handler;
+import io.vertx.eventbusclient.Message;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * A pool of {@link EventBusClient}s with one bridge connection each, so the traffic of many addresses is spread
+ * over several connections and I/O threads.
+ * <p>
+ * Addresses are sharded over the clients by consistent hashing, so all messages and registrations of an address
+ * use the same connection and stay in order. If the connection of an address is down, messages and requests
+ * fail over to the next connected client on the ring until it is back. Registrations stay on the client of their
+ * address, it restores them when it reconnects. Pattern registrations are made on every client, and each
+ * declared address is declared on its own client only.
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ * {@code
+ * var pool = EventBusClientPool.connectWithTcpBridge(new EventBusClientOptions().setHost(host).setPort(port), 4);
+ * pool.connect();
+ * pool.register("telemetry/" + satellite, handler, Telemetry.class);
+ * pool.publish("commands/" + satellite, command);
+ * }
+ * </pre>
+ */
+public class EventBusClientPool {
+    /**
+     * The number of points every client occupies on the hash ring.
+     */
+    private static final int VIRTUAL_NODES = 160;
+
+    private final ConsistentHash<EventBusClient> ring;
+
+    /**
+     * @param clients the clients to shard the addresses over, one per bridge connection
+     */
+    public EventBusClientPool(List<EventBusClient> clients) {
+        this.ring = new ConsistentHash<>(clients, VIRTUAL_NODES);
+    }
+
+    /**
+     * Creates a pool of {@code connections} clients.
+     *
+     * @param factory creates the client with the given index
+     */
+    public static EventBusClientPool create(int connections, IntFunction<EventBusClient> factory) {
+        var clients = new ArrayList<EventBusClient>(connections);
+        for (int i = 0; i < connections; i++) {
+            clients.add(factory.apply(i));
+        }
+        return new EventBusClientPool(clients);
+    }
+
+    /**
+     * Creates a pool of {@code connections} clients for the TCP bridge,
+     * see {@link EventBusClient#connectWithTcpBridge(EventBusClientOptions)}.
+     */
+    public static EventBusClientPool connectWithTcpBridge(EventBusClientOptions options, int connections) {
+        return create(connections, index -> EventBusClient.connectWithTcpBridge(options));
+    }
+
+    /**
+     * Creates a pool of {@code connections} clients for the TCP bridge that publish and send through NIO connections,
+     * see {@link EventBusClient#connectWithNioTcpBridge(NioBridgeOptions)}.
+     */
+    public static EventBusClientPool connectWithNioTcpBridge(NioBridgeOptions options, int connections) {
+        return create(connections, index -> EventBusClient.connectWithNioTcpBridge(options));
+    }
+
+    ///
+    /// SHARDING SECTION
+    ///
+
+    public List<EventBusClient> getClients() {
+        return ring.getNodes();
+    }
+
+    /**
+     * @return the client the address is sharded to, regardless of its connection
+     */
+    public EventBusClient client(String address) {
+        return ring.get(address);
+    }
+
+    /**
+     * @return the client that carries the messages of the address right now,
+     * i.e. the first connected client on the ring starting at the address
+     */
+    public EventBusClient route(String address) {
+        var client = ring.get(address);
+        if (client.isConnected()) {
+            return client;
+        }
+        // only walk the ring on failover
+        var fallback = ring.find(address, EventBusClient::isConnected);
+        // with all connections down, the client of the address reports the failure
+        return fallback == null ? client : fallback;
+    }
+
+    ///
+    /// CONTROL SECTION
+    ///
+
+    public EventBusClientPool connect() {
+        for (var client : getClients()) {
+            client.connect();
+        }
+        return this;
+    }
+
+    public EventBusClientPool close() {
+        for (var client : getClients()) {
+            client.close();
+        }
+        return this;
+    }
+
+    /**
+     * @return {@code true} if all clients are connected
+     */
+    public boolean isConnected() {
+        return getConnectedCount() == getClients().size();
+    }
+
+    public int getConnectedCount() {
+        var count = 0;
+        for (var client : getClients()) {
+            if (client.isConnected()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public EventBusClientPool setDefaultDeliveryOptions(DeliveryOptions defaultOptions) {
+        for (var client : getClients()) {
+            client.setDefaultDeliveryOptions(defaultOptions);
+        }
+        return this;
+    }
+
+    public EventBusClientPool setPayloadFormat(PayloadFormat payloadFormat) {
+        for (var client : getClients()) {
+            client.setPayloadFormat(payloadFormat);
+        }
+        return this;
+    }
+
+    /**
+     * Sets the same handler executor on all clients, so the handlers of an address keep running in order
+     * on one stripe no matter which connection delivered the message.
+     */
+    public EventBusClientPool setHandlerExecutor(StripedExecutor handlerExecutor) {
+        for (var client : getClients()) {
+            client.setHandlerExecutor(handlerExecutor);
+        }
+        return this;
+    }
+
+    public EventBusClientPool exceptionHandler(Handler<Throwable> exceptionHandler) {
+        for (var client : getClients()) {
+            client.exceptionHandler(exceptionHandler);
+        }
+        return this;
+    }
+
+    ///
+    /// PUBLISH SECTION
+    ///
+
+    public EventBusClientPool publish(String address, Object message, DeliveryOptions options) {
+        route(address).publish(address, message, options);
+        return this;
+    }
+
+    public EventBusClientPool publish(String address, Object message) {
+        route(address).publish(address, message);
+        return this;
+    }
+
+    public EventBusClientPool publish(String address, JsonObject message, DeliveryOptions options) {
+        route(address).publish(address, message, options);
+        return this;
+    }
+
+    public EventBusClientPool publish(String address, JsonObject message) {
+        route(address).publish(address, message);
+        return this;
+    }
+
+    public EventBusClientPool publish(String address, JsonMessage message, DeliveryOptions options) {
+        route(address).publish(address, message, options);
+        return this;
+    }
+
+    public EventBusClientPool publish(String address, JsonMessage message) {
+        route(address).publish(address, message);
+        return this;
+    }
+
+    public EventBusClientPool publishBatch(String address, Collection<? extends JsonMessage> messages, DeliveryOptions options) {
+        route(address).publishBatch(address, messages, options);
+        return this;
+    }
+
+    public EventBusClientPool publishBatch(String address, Collection<? extends JsonMessage> messages) {
+        route(address).publishBatch(address, messages);
+        return this;
+    }
+
+    ///
+    /// SEND SECTION
+    ///
+
+    public EventBusClientPool send(String address, Object message, DeliveryOptions options) {
+        route(address).send(address, message, options);
+        return this;
+    }
+
+    public EventBusClientPool send(String address, Object message) {
+        route(address).send(address, message);
+        return this;
+    }
+
+    public EventBusClientPool send(String address, JsonObject message, DeliveryOptions options) {
+        route(address).send(address, message, options);
+        return this;
+    }
+
+    public EventBusClientPool send(String address, JsonObject message) {
+        route(address).send(address, message);
+        return this;
+    }
+
+    public EventBusClientPool send(String address, JsonMessage message, DeliveryOptions options) {
+        route(address).send(address, message, options);
+        return this;
+    }
+
+    public EventBusClientPool send(String address, JsonMessage message) {
+        route(address).send(address, message);
+        return this;
+    }
+
+    public EventBusClientPool sendBatch(String address, Collection<? extends JsonMessage> messages, DeliveryOptions options) {
+        route(address).sendBatch(address, messages, options);
+        return this;
+    }
+
+    public EventBusClientPool sendBatch(String address, Collection<? extends JsonMessage> messages) {
+        route(address).sendBatch(address, messages);
+        return this;
+    }
+
+    ///
+    /// REQUEST SECTION
+    ///
+
+    public <T> EventBusClientPool request(String address, Object message, DeliveryOptions options, Handler<AsyncResult<Message<T>>> handler) {
+        route(address).request(address, message, options, handler);
+        return this;
+    }
+
+    public <V extends JsonMessage> EventBusClientPool request(String address, Object message, DeliveryOptions options, Class<V> type, MessageHandler<V> handler) {
+        route(address).request(address, message, options, type, handler);
+        return this;
+    }
+
+    public <T> EventBusClientPool request(String address, Object message, Handler<AsyncResult<Message<T>>> handler) {
+        route(address).request(address, message, handler);
+        return this;
+    }
+
+    public <V extends JsonMessage> EventBusClientPool request(String address, Object message, Class<V> type, MessageHandler<V> handler) {
+        route(address).request(address, message, type, handler);
+        return this;
+    }
+
+    public <V extends JsonMessage> CompletableFuture<V> requestAsync(String address, Object message, DeliveryOptions options, Class<V> type) {
+        return route(address).requestAsync(address, message, options, type);
+    }
+
+    public <V extends JsonMessage> CompletableFuture<V> requestAsync(String address, Object message, Class<V> type) {
+        return route(address).requestAsync(address, message, type);
+    }
+
+    public <V extends JsonMessage> CompletableFuture<V> requestAsync(String address, JsonMessage message, DeliveryOptions options, Class<V> type) {
+        return route(address).requestAsync(address, message, options, type);
+    }
+
+    public <V extends JsonMessage> CompletableFuture<V> requestAsync(String address, JsonMessage message, Class<V> type) {
+        return route(address).requestAsync(address, message, type);
+    }
+
+    ///
+    /// REGISTER SECTION
+    ///
+
+    public <T> Registration register(String address, Handler<Message<T>> handler) {
+        return client(address).register(address, handler);
+    }
+
+    public <V extends JsonMessage> MessageRegistration<V> register(String address, MessageHandler<V> handler, Class<V> type) {
+        return client(address).register(address, handler, type);
+    }
+
+    public <V extends JsonMessage, T> MessageRegistration<V> register(String address, ExtendedMessageHandler<V, T> handler, Class<V> type) {
+        return client(address).register(address, handler, type);
+    }
+
+    public <V extends JsonMessage> MessageRegistration<V> register(String address, MessageFilter filter, MessageHandler<V> handler, Class<V> type) {
+        return client(address).register(address, filter, handler, type);
+    }
+
+    public <V extends JsonMessage> MessageRegistration<V> register(String address, String filter, MessageHandler<V> handler, Class<V> type) {
+        return register(address, MessageFilter.compile(filter), handler, type);
+    }
+
+    public <V extends JsonMessage> MessageRegistration<V> registerThrottled(String address, MessageHandler<V> handler, Class<V> type, double maxHz) {
+        return client(address).registerThrottled(address, handler, type, maxHz);
+    }
+
+    public <V extends JsonMessage> MessageRegistration<V> registerConflated(String address, Handler<Conflated<V>> handler, Class<V> type, double maxHz) {
+        return client(address).registerConflated(address, handler, type, maxHz);
+    }
+
+    ///
+    /// PATTERN SECTION
+    ///
+
+    public <T> Registration registerPattern(String pattern, Handler<Message<T>> handler) {
+        return registerOnAll(pattern, client -> client.registerPattern(pattern, handler));
+    }
+
+    public <V extends JsonMessage> MessageRegistration<V> registerPattern(String pattern, MessageHandler<V> handler, Class<V> type) {
+        return registerOnAll(pattern, client -> client.registerPattern(pattern, handler, type)).hydrate(type);
+    }
+
+    public <V extends JsonMessage, T> MessageRegistration<V> registerPattern(String pattern, ExtendedMessageHandler<V, T> handler, Class<V> type) {
+        return registerOnAll(pattern, client -> client.registerPattern(pattern, handler, type)).hydrate(type);
+    }
+
+    /**
+     * Declares every address on the client it is sharded to, see {@link EventBusClient#declareAddresses(Collection)}.
+     */
+    public EventBusClientPool declareAddresses(Collection<String> addresses) {
+        var shards = new HashMap<EventBusClient, List<String>>();
+        for (var address : addresses) {
+            shards.computeIfAbsent(client(address), key -> new ArrayList<>()).add(address);
+        }
+        shards.forEach(EventBusClient::declareAddresses);
+        return this;
+    }
+
+    public EventBusClientPool declareAddresses(String... addresses) {
+        return declareAddresses(List.of(addresses));
+    }
+
+    private Registration registerOnAll(String pattern, Function<EventBusClient, Registration> register) {
+        var registrations = new ArrayList<Registration>(getClients().size());
+        for (var client : getClients()) {
+            registrations.add(register.apply(client));
+        }
+        return new Registration(pattern, () -> registrations.forEach(Registration::unregister));
+    }
+}
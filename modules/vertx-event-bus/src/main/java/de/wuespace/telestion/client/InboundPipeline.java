@@ -0,0 +1,114 @@
+package de.wuespace.telestion.client;
+
+import io.vertx.eventbusclient.Message;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A preallocated ring buffer between the receive callback of the bridge client and the registered handlers.
+ * <p>
+ * The I/O thread of the bridge client only copies each received message into the next slot of the ring buffer
+ * and returns to reading the socket. The handlers run on {@code stages} threads that drain all available messages
+ * in batches. Messages of the same address are handled in order by the same stage.
+ * When the ring buffer is full, the I/O thread waits for a free slot, so a burst is bounded by the capacity
+ * and then throttles the socket reads instead of piling up in memory.
+ * <p>
+ * The ring buffer has a single producer, so a pipeline belongs to the one client it was set on.
+ * Messages received after the pipeline was closed are dropped and counted in {@link #getDropped()}
+ * and in the {@link de.wuespace.telestion.client.metrics.AddressMetrics#getMessagesDropped() address metrics}.
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ * {@code
+ * var client = EventBusClient.connectWithTcpBridge("localhost", 7000)
+ *         .setInboundPipeline(new InboundPipeline(8192, 2, WaitStrategy.YIELD));
+ * }
+ * </pre>
+ *
+ * @see EventBusClient#setInboundPipeline(InboundPipeline)
+ */
+public class InboundPipeline implements AutoCloseable {
+    private final RingBuffer<Subscription, Message<Object>> ringBuffer;
+    private final AtomicReference<EventBusClient> owner = new AtomicReference<>();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * @param capacity     the number of slots, a power of two
+     * @param stages       the number of handler threads
+     * @param waitStrategy how the I/O thread waits for free slots and the stages wait for messages
+     */
+    public InboundPipeline(int capacity, int stages, WaitStrategy waitStrategy) {
+        this.ringBuffer = new RingBuffer<>(capacity, stages, waitStrategy,
+                subscription -> subscription.getAddress().hashCode(), Subscription::dispatch, "event-bus-pipeline");
+    }
+
+    /**
+     * Binds the pipeline to the client whose I/O thread is its only producer.
+     *
+     * @throws IllegalStateException if the pipeline belongs to another client
+     */
+    void attach(EventBusClient client) {
+        if (!owner.compareAndSet(null, client) && owner.get() != client) {
+            throw new IllegalStateException("The inbound pipeline is already used by another client");
+        }
+    }
+
+    /**
+     * Called by the single I/O thread of the bridge client.
+     *
+     * @return {@code false} if the message was dropped because the pipeline is closed
+     */
+    boolean publish(Subscription subscription, Message<Object> message) {
+        if (ringBuffer.publish(subscription, message)) {
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    public int getCapacity() {
+        return ringBuffer.getCapacity();
+    }
+
+    public int getStageCount() {
+        return ringBuffer.getStageCount();
+    }
+
+    /**
+     * Returns the number of received messages that are not handled yet.
+     */
+    public long getBacklog() {
+        return ringBuffer.getBacklog();
+    }
+
+    /**
+     * Returns how often the I/O thread had to wait for a free slot.
+     */
+    public long getProducerStalls() {
+        return ringBuffer.getProducerStalls();
+    }
+
+    /**
+     * Returns the number of received messages that were dropped because the pipeline was closed.
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getBatches() {
+        return ringBuffer.getBatches();
+    }
+
+    public long getMaxBatchSize() {
+        return ringBuffer.getMaxBatchSize();
+    }
+
+    /**
+     * Stops the handler threads after all received messages are handled.
+     */
+    @Override
+    public void close() {
+        ringBuffer.close();
+    }
+}
@@ -4,6 +4,8 @@ import de.wuespace.telestion.client.json.DecodeException;
 import de.wuespace.telestion.client.json.EncodeException;
 import de.wuespace.telestion.client.json.JacksonCodec;
 import de.wuespace.telestion.client.json.JsonObject;
+import de.wuespace.telestion.client.json.PayloadFormat;
+import de.wuespace.telestion.client.metrics.TypeMetrics;
 import io.vertx.eventbusclient.Handler;
 import io.vertx.eventbusclient.Message;
 import org.slf4j.Logger;
@@ -36,6 +38,7 @@ public interface JsonMessage {
 
 	/**
 	 * Asynchronous version of {@link #from(String, Class)}.
+	 * The decoding time and failures are recorded in the {@link TypeMetrics} of the type.
 	 *
 	 * @param type             the class of the target {@link JsonMessage}
 	 * @param json             the JSON {@link String} that contains the necessary information to construct
@@ -47,10 +50,15 @@ public interface JsonMessage {
 	 */
 	static <T extends JsonMessage> boolean on(Class<T> type, String json, Handler<T> handler,
 											  Handler<DecodeException> exceptionHandler) {
+		var metrics = TypeMetrics.of(type);
+		var start = System.nanoTime();
 		try {
-			handler.handle(from(json, type));
+			var value = from(json, type);
+			metrics.recordDecode(System.nanoTime() - start);
+			handler.handle(value);
 			return true;
 		} catch (DecodeException e) {
+			metrics.recordDecodeFailure();
 			logger.warn("Cannot convert JSON string to JsonMessage {}:", type.getName(), e);
 			exceptionHandler.handle(e);
 			return false;
@@ -70,10 +78,15 @@ public interface JsonMessage {
 	 */
 	static <T extends JsonMessage> boolean on(Class<T> type, Object json, Handler<T> handler,
 											  Handler<DecodeException> exceptionHandler) {
+		var metrics = TypeMetrics.of(type);
+		var start = System.nanoTime();
 		try {
-			handler.handle(from(json, type));
+			var value = from(json, type);
+			metrics.recordDecode(System.nanoTime() - start);
+			handler.handle(value);
 			return true;
 		} catch (DecodeException e) {
+			metrics.recordDecodeFailure();
 			logger.warn("Cannot convert Object to JsonMessage {}:", type.getName(), e);
 			exceptionHandler.handle(e);
 			return false;
@@ -93,10 +106,15 @@ public interface JsonMessage {
 	 */
 	static <T extends JsonMessage> boolean on(Class<T> type, Message<?> message, Handler<T> handler,
 											  Handler<DecodeException> exceptionHandler) {
+		var metrics = TypeMetrics.of(type);
+		var start = System.nanoTime();
 		try {
-			handler.handle(from(message, type));
+			var value = from(message, type);
+			metrics.recordDecode(System.nanoTime() - start);
+			handler.handle(value);
 			return true;
 		} catch (DecodeException e) {
+			metrics.recordDecodeFailure();
 			logger.warn("Cannot convert Vertx Message to JsonMessage {}:", type.getName(), e);
 			exceptionHandler.handle(e);
 			return false;
@@ -163,6 +181,9 @@ public interface JsonMessage {
 
 	/**
 	 * Constructs a {@link JsonMessage} from a Vert.x EventBus {@link Message} body.
+	 * <p>
+	 * If the message announces a binary {@link PayloadFormat} in its headers, the body is decoded
+	 * with that format. Otherwise, the body is treated as JSON.
 	 *
 	 * @param message the message which body contains the necessary information to construct
 	 *                the specified {@link JsonMessage}
@@ -173,6 +194,10 @@ public interface JsonMessage {
 	 *                         construct the specified {@link JsonMessage}
 	 */
 	static <T extends JsonMessage> T from(Message<?> message, Class<T> type) throws DecodeException {
+		var format = PayloadFormat.fromHeaders(message.headers());
+		if (format.isBinary()) {
+			return JacksonCodec.from(PayloadFormat.bodyBytes(message.body()), type, format);
+		}
 		return from(message.body(), type);
 	}
 
@@ -211,6 +236,19 @@ public interface JsonMessage {
 		return toJsonString(false);
 	}
 
+	/**
+	 * Encodes the {@link JsonMessage} in the given {@link PayloadFormat}.
+	 *
+	 * @param format the target format
+	 * @return the encoded message
+	 * @throws EncodeException if the {@link JsonMessage} containing properties that cannot be represented
+	 *                         by the format
+	 * @see JacksonCodec#toBytes(Object, PayloadFormat)
+	 */
+	default byte[] toBytes(PayloadFormat format) throws EncodeException {
+		return JacksonCodec.toBytes(this, format);
+	}
+
 	///
 	/// OTHERS SECTION
 	///
@@ -0,0 +1,111 @@
+package de.wuespace.telestion.client;
+
+import io.vertx.eventbusclient.EventBusClientOptions;
+
+/**
+ * Options for {@link EventBusClient#connectWithNioTcpBridge(NioBridgeOptions)}.
+ */
+public class NioBridgeOptions {
+    private EventBusClientOptions bridgeOptions = new EventBusClientOptions();
+    private boolean tcpNoDelay = true;
+    private int sendBufferSize = 1024 * 1024;
+    private int receiveBufferSize = 64 * 1024;
+    private int bufferSize = 64 * 1024;
+    private int pooledBuffers = 64;
+    private int maxGatheringWrite = 64;
+    private int maxFrameSize = 16 * 1024 * 1024;
+
+    public EventBusClientOptions getBridgeOptions() {
+        return bridgeOptions;
+    }
+
+    /**
+     * @param bridgeOptions the options of the bridge, its host and port are also used by the NIO connection
+     */
+    public NioBridgeOptions setBridgeOptions(EventBusClientOptions bridgeOptions) {
+        this.bridgeOptions = bridgeOptions;
+        return this;
+    }
+
+    public boolean isTcpNoDelay() {
+        return tcpNoDelay;
+    }
+
+    public NioBridgeOptions setTcpNoDelay(boolean tcpNoDelay) {
+        this.tcpNoDelay = tcpNoDelay;
+        return this;
+    }
+
+    public int getSendBufferSize() {
+        return sendBufferSize;
+    }
+
+    /**
+     * @param sendBufferSize the {@code SO_SNDBUF} of the socket in bytes
+     */
+    public NioBridgeOptions setSendBufferSize(int sendBufferSize) {
+        this.sendBufferSize = sendBufferSize;
+        return this;
+    }
+
+    public int getReceiveBufferSize() {
+        return receiveBufferSize;
+    }
+
+    /**
+     * @param receiveBufferSize the {@code SO_RCVBUF} of the socket in bytes
+     */
+    public NioBridgeOptions setReceiveBufferSize(int receiveBufferSize) {
+        this.receiveBufferSize = receiveBufferSize;
+        return this;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * @param bufferSize the size of the pooled direct buffers in bytes, larger frames span several buffers
+     */
+    public NioBridgeOptions setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+        return this;
+    }
+
+    public int getPooledBuffers() {
+        return pooledBuffers;
+    }
+
+    /**
+     * @param pooledBuffers the number of free direct buffers that are kept for reuse
+     */
+    public NioBridgeOptions setPooledBuffers(int pooledBuffers) {
+        this.pooledBuffers = pooledBuffers;
+        return this;
+    }
+
+    public int getMaxGatheringWrite() {
+        return maxGatheringWrite;
+    }
+
+    /**
+     * @param maxGatheringWrite the maximum number of buffers that are written to the socket with one system call
+     */
+    public NioBridgeOptions setMaxGatheringWrite(int maxGatheringWrite) {
+        this.maxGatheringWrite = maxGatheringWrite;
+        return this;
+    }
+
+    public int getMaxFrameSize() {
+        return maxFrameSize;
+    }
+
+    /**
+     * @param maxFrameSize the maximum length of a frame received from the bridge in bytes, without its length prefix.
+     *                     A longer frame closes the connection.
+     */
+    public NioBridgeOptions setMaxFrameSize(int maxFrameSize) {
+        this.maxFrameSize = maxFrameSize;
+        return this;
+    }
+}
@@ -0,0 +1,625 @@
+package de.wuespace.telestion.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import de.wuespace.telestion.client.json.EncodeException;
+import de.wuespace.telestion.client.json.JacksonCodec;
+import de.wuespace.telestion.client.metrics.ClientMetrics;
+import de.wuespace.telestion.client.metrics.TypeMetrics;
+import io.vertx.eventbusclient.Handler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * A connection to the TCP bridge that writes {@code publish} and {@code send} frames from pooled direct buffers.
+ * <p>
+ * Frames are encoded on the calling thread straight into direct buffers, with the 4-byte length prefix of the
+ * bridge protocol filled in afterwards. All frames of a batch are handed over as one chain, so they are never
+ * interleaved with other frames and leave the client in as few gathering writes as possible.
+ * A single selector thread connects, writes and reads.
+ * <p>
+ * The transport is outbound-only: it never registers consumers and does not receive messages, consumers and
+ * requests stay on the bridge client. The only frames it reads are the {@code err} and {@code pong} frames of
+ * the bridge, which are parsed in place with Jackson's non-blocking parser from a small heap buffer that is not
+ * taken from the pool.
+ * Frames written while the connection is down are rejected, so the caller can fall back to the bridge client.
+ * Like with the bridge client, {@code publish} and {@code send} are fire-and-forget: frames that were accepted
+ * but not completely written when the connection is lost are dropped and counted in
+ * {@link ClientMetrics#getDroppedFrames()}. After an unexpected loss, the connection reconnects on its own
+ * according to its {@link ReconnectPolicy}.
+ */
+final class NioTcpTransport {
+    private static final int LENGTH_BYTES = Integer.BYTES;
+    /**
+     * The initial size of the buffer for the {@code err} and {@code pong} frames sent by the bridge.
+     */
+    private static final int READ_BUFFER_SIZE = 1024;
+
+    /**
+     * The encoded frames of one write.
+     *
+     * @param frames the number of frames that end in each buffer
+     */
+    private record Chain(ByteBuffer[] buffers, int[] frames) {
+    }
+
+    private final InetSocketAddress address;
+    private final NioBridgeOptions options;
+    private final ClientMetrics metrics;
+    private final Handler<Throwable> exceptionHandler;
+    private final DirectBufferPool pool;
+    private final JsonFactory factory;
+
+    /**
+     * The encoded frame chains waiting for the selector thread.
+     */
+    private final Queue<Chain> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean wakeupPending = new AtomicBoolean();
+    private final Reconnector reconnector = new Reconnector(this::connect, this::isConnected);
+
+    private volatile boolean connected;
+    private volatile boolean running;
+    private volatile boolean connectRequested;
+    private volatile Selector selector;
+    // guarded by this
+    private Thread thread;
+
+    // only accessed by the selector thread
+    private SocketChannel channel;
+    private SelectionKey key;
+    private final ArrayDeque<ByteBuffer> inFlight = new ArrayDeque<>();
+    private final ArrayDeque<Integer> inFlightFrames = new ArrayDeque<>();
+    private final ByteBuffer[] gather;
+    private ByteBuffer readBuffer;
+
+    NioTcpTransport(String host, int port, NioBridgeOptions options, ClientMetrics metrics, Handler<Throwable> exceptionHandler) {
+        this.address = InetSocketAddress.createUnresolved(host, port);
+        this.options = options;
+        this.metrics = metrics;
+        this.exceptionHandler = exceptionHandler;
+        this.pool = new DirectBufferPool(options.getBufferSize(), options.getPooledBuffers());
+        this.gather = new ByteBuffer[Math.max(1, options.getMaxGatheringWrite())];
+        this.factory = JacksonCodec.getMapper().getFactory().copy()
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setCodec(JacksonCodec.getMapper());
+    }
+
+    ///
+    /// CONTROL SECTION
+    ///
+
+    /**
+     * Connects in the background, does nothing if the connection is already up or being established.
+     */
+    void connect() {
+        Thread previous;
+        synchronized (this) {
+            if (running) {
+                connectRequested = true;
+                selector.wakeup();
+                return;
+            }
+            previous = thread;
+        }
+        if (previous == Thread.currentThread()) {
+            // called while the selector thread shuts down, it cannot wait for itself
+            ClientScheduler.worker().execute(this::connect);
+            return;
+        }
+        if (previous != null) {
+            // the previous selector thread owns the connection state until it has stopped
+            try {
+                previous.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        synchronized (this) {
+            if (!running) {
+                Selector opened;
+                try {
+                    opened = Selector.open();
+                } catch (IOException e) {
+                    exceptionHandler.handle(e);
+                    return;
+                }
+                selector = opened;
+                running = true;
+                thread = new Thread(() -> run(opened), "event-bus-nio-" + address.getHostString() + ":" + address.getPort());
+                thread.setDaemon(true);
+                thread.start();
+            }
+            connectRequested = true;
+            selector.wakeup();
+        }
+    }
+
+    void close() {
+        // outside the lock, a reconnect attempt calls connect() while it holds the lock of the reconnector
+        reconnector.stop();
+        synchronized (this) {
+            if (running) {
+                running = false;
+                selector.wakeup();
+            }
+        }
+    }
+
+    boolean isConnected() {
+        return connected;
+    }
+
+    void setReconnectPolicy(ReconnectPolicy policy) {
+        reconnector.setPolicy(policy);
+    }
+
+    long getReconnectCount() {
+        return reconnector.getReconnects();
+    }
+
+    ///
+    /// WRITE SECTION
+    ///
+
+    /**
+     * Encodes one frame and queues it for writing.
+     *
+     * @param type    {@code publish} or {@code send}
+     * @param headers the headers of the message or {@code null}
+     * @return {@code false} if the connection is down and nothing was written,
+     * {@code true} if the frame is queued, it is dropped if the connection is lost before it is written
+     */
+    boolean write(String type, String address, Map<String, String> headers, Object body) {
+        if (!connected) {
+            return false;
+        }
+        var output = new FrameOutput();
+        try {
+            encode(output, type, address, headers, body);
+        } catch (RuntimeException e) {
+            output.release();
+            throw e;
+        }
+        enqueue(output.finish());
+        return true;
+    }
+
+    /**
+     * Encodes one frame per message and queues them as one chain, so they are written together and in order.
+     *
+     * @param encoder converts every message into the body of its frame
+     * @return {@code false} if the connection is down and nothing was written
+     */
+    <M> boolean writeBatch(String type, String address, Map<String, String> headers,
+                           Collection<? extends M> messages, Function<M, Object> encoder) {
+        if (!connected) {
+            return false;
+        }
+        var output = new FrameOutput();
+        try {
+            for (var message : messages) {
+                encode(output, type, address, headers, encoder.apply(message));
+            }
+        } catch (RuntimeException e) {
+            output.release();
+            throw e;
+        }
+        enqueue(output.finish());
+        return true;
+    }
+
+    /**
+     * Appends a frame to the output. On failure, the caller releases the buffers of the output.
+     */
+    private void encode(FrameOutput output, String type, String address, Map<String, String> headers, Object body) {
+        var start = System.nanoTime();
+        output.beginFrame();
+        try (var generator = factory.createGenerator(output)) {
+            generator.writeStartObject();
+            generator.writeStringField("type", type);
+            generator.writeStringField("address", address);
+            if (headers != null && !headers.isEmpty()) {
+                generator.writeObjectFieldStart("headers");
+                for (var header : headers.entrySet()) {
+                    generator.writeStringField(header.getKey(), header.getValue());
+                }
+                generator.writeEndObject();
+            }
+            generator.writeFieldName("body");
+            if (body instanceof JsonMessage message) {
+                JacksonCodec.prepare(message.getClass()).getWriter().writeValue(generator, message);
+            } else {
+                generator.writeObject(body);
+            }
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new EncodeException(e);
+        }
+        var length = output.endFrame();
+
+        if (body instanceof JsonMessage) {
+            TypeMetrics.of(body.getClass()).recordEncode(System.nanoTime() - start);
+        }
+        metrics.address(address).recordBytesOut(length);
+    }
+
+    private void enqueue(Chain chain) {
+        pending.offer(chain);
+        if (wakeupPending.compareAndSet(false, true)) {
+            selector.wakeup();
+        }
+    }
+
+    /**
+     * Writes queued buffers until the socket does not take more.
+     */
+    private void flush() throws IOException {
+        wakeupPending.set(false);
+        while (true) {
+            Chain chain;
+            while (inFlight.size() < gather.length && (chain = pending.poll()) != null) {
+                take(chain);
+            }
+            if (inFlight.isEmpty()) {
+                key.interestOps(SelectionKey.OP_READ);
+                return;
+            }
+
+            var count = 0;
+            for (var buffer : inFlight) {
+                gather[count++] = buffer;
+                if (count == gather.length) {
+                    break;
+                }
+            }
+            channel.write(gather, 0, count);
+            while (!inFlight.isEmpty() && !inFlight.peekFirst().hasRemaining()) {
+                pool.release(inFlight.pollFirst());
+                inFlightFrames.pollFirst();
+            }
+            if (!inFlight.isEmpty()) {
+                // the socket buffer is full, continue when it is writable again
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                return;
+            }
+        }
+    }
+
+    private void take(Chain chain) {
+        inFlight.addAll(List.of(chain.buffers()));
+        for (var frames : chain.frames()) {
+            inFlightFrames.add(frames);
+        }
+    }
+
+    ///
+    /// SELECTOR SECTION
+    ///
+
+    /**
+     * @param selector the selector of this thread, a later thread gets its own
+     */
+    private void run(Selector selector) {
+        try {
+            while (running) {
+                if (connectRequested && channel == null) {
+                    connectRequested = false;
+                    open(selector);
+                }
+                selector.select();
+                for (var selected : selector.selectedKeys()) {
+                    handle(selected);
+                }
+                selector.selectedKeys().clear();
+                if (connected && (!pending.isEmpty() || wakeupPending.get())) {
+                    flushOrDisconnect();
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Selector of the NIO bridge connection failed:", e);
+            exceptionHandler.handle(e);
+        } finally {
+            synchronized (this) {
+                // after a failure of the selector, the next connect() starts a new thread
+                running = false;
+            }
+            disconnect(null);
+            try {
+                selector.close();
+            } catch (IOException e) {
+                logger.warn("Cannot close selector:", e);
+            }
+        }
+    }
+
+    private void open(Selector selector) {
+        try {
+            channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, options.isTcpNoDelay());
+            channel.setOption(StandardSocketOptions.SO_SNDBUF, options.getSendBufferSize());
+            channel.setOption(StandardSocketOptions.SO_RCVBUF, options.getReceiveBufferSize());
+            channel.setOption(StandardSocketOptions.SO_KEEPALIVE, true);
+            var resolved = new InetSocketAddress(address.getHostString(), address.getPort());
+            if (channel.connect(resolved)) {
+                key = channel.register(selector, SelectionKey.OP_READ);
+                connected();
+            } else {
+                key = channel.register(selector, SelectionKey.OP_CONNECT);
+            }
+        } catch (IOException e) {
+            disconnect(e);
+        }
+    }
+
+    private void handle(SelectionKey selected) {
+        if (!selected.isValid()) {
+            return;
+        }
+        try {
+            if (selected.isConnectable() && channel.finishConnect()) {
+                key.interestOps(SelectionKey.OP_READ);
+                connected();
+            }
+            if (selected.isValid() && selected.isReadable()) {
+                read();
+            }
+            if (selected.isValid() && selected.isWritable()) {
+                flush();
+            }
+        } catch (IOException | RuntimeException e) {
+            // the selector thread must survive anything a single connection throws
+            disconnect(e);
+        }
+    }
+
+    private void connected() {
+        // a writer that saw the old connection may have queued a chain after disconnect() drained the queue,
+        // it must not be sent after messages that already fell back to the bridge client
+        var stale = 0;
+        Chain chain;
+        while ((chain = pending.poll()) != null) {
+            for (var buffer : chain.buffers()) {
+                pool.release(buffer);
+            }
+            for (var frames : chain.frames()) {
+                stale += frames;
+            }
+        }
+        if (stale > 0) {
+            metrics.recordDroppedFrames(stale);
+        }
+        readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        if (reconnector.connected()) {
+            var latency = reconnector.restored();
+            logger.info("NIO bridge connection to {} re-established after {} ms", address, latency.toMillis());
+        } else {
+            logger.info("NIO bridge connection to {} established", address);
+        }
+        connected = true;
+    }
+
+    private void flushOrDisconnect() {
+        try {
+            flush();
+        } catch (IOException | RuntimeException e) {
+            disconnect(e);
+        }
+    }
+
+    /**
+     * Drops the connection and all frames that are not written yet and reconnects after a failure.
+     *
+     * @param cause the failure or {@code null} if the connection was closed on purpose
+     */
+    private void disconnect(Exception cause) {
+        var wasConnected = connected;
+        connected = false;
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.warn("Cannot close NIO bridge connection:", e);
+            }
+            channel = null;
+            key = null;
+        }
+        Chain chain;
+        while ((chain = pending.poll()) != null) {
+            take(chain);
+        }
+        var dropped = 0;
+        while (!inFlight.isEmpty()) {
+            pool.release(inFlight.pollFirst());
+            dropped += inFlightFrames.pollFirst();
+        }
+        if (dropped > 0) {
+            metrics.recordDroppedFrames(dropped);
+        }
+        readBuffer = null;
+        if (cause != null) {
+            logger.warn("NIO bridge connection to {} lost, dropped {} unwritten frames:", address, dropped, cause);
+            exceptionHandler.handle(cause);
+            if (running) {
+                reconnector.disconnected();
+            }
+        } else if (wasConnected) {
+            logger.info("NIO bridge connection to {} closed", address);
+        }
+    }
+
+    ///
+    /// READ SECTION
+    ///
+
+    private void read() throws IOException {
+        if (channel.read(readBuffer) < 0) {
+            throw new IOException("Connection closed by the bridge");
+        }
+        readBuffer.flip();
+        while (readBuffer.remaining() >= LENGTH_BYTES) {
+            var length = readBuffer.getInt(readBuffer.position());
+            var frameSize = (long) LENGTH_BYTES + length;
+            if (length < 0 || length > options.getMaxFrameSize() || frameSize > Integer.MAX_VALUE) {
+                throw new IOException("Malformed frame length " + length + ", the maximum is " + options.getMaxFrameSize());
+            }
+            if (readBuffer.remaining() < frameSize) {
+                if (frameSize > readBuffer.capacity()) {
+                    // a frame that does not fit into the read buffer gets a buffer of its own
+                    var larger = ByteBuffer.allocate((int) frameSize);
+                    larger.put(readBuffer);
+                    readBuffer = larger;
+                    return;
+                }
+                break;
+            }
+            var start = readBuffer.position() + LENGTH_BYTES;
+            handleFrame(readBuffer.slice(start, length));
+            readBuffer.position(start + length);
+        }
+        readBuffer.compact();
+        if (readBuffer.position() == 0 && readBuffer.capacity() != READ_BUFFER_SIZE) {
+            // back to a small buffer once the large frame is consumed
+            readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        }
+    }
+
+    /**
+     * Reads the type and message of a frame without building a tree of it.
+     */
+    private void handleFrame(ByteBuffer frame) throws IOException {
+        String type = null;
+        String message = null;
+        try (var parser = factory.createNonBlockingByteBufferParser()) {
+            var feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+            feeder.feedInput(frame);
+            feeder.endOfInput();
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Malformed frame from the bridge");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                var name = parser.currentName();
+                var token = parser.nextToken();
+                if (token == JsonToken.VALUE_STRING && "type".equals(name)) {
+                    type = parser.getText();
+                } else if (token == JsonToken.VALUE_STRING && "message".equals(name)) {
+                    message = parser.getText();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        if ("err".equals(type)) {
+            logger.warn("Bridge reported an error: {}", message);
+            exceptionHandler.handle(new IllegalStateException("Bridge error: " + message));
+        } else if (!"pong".equals(type)) {
+            logger.debug("Ignoring {} frame on the NIO bridge connection", type);
+        }
+    }
+
+    ///
+    /// ENCODING SECTION
+    ///
+
+    /**
+     * Collects length-prefixed frames in a chain of pooled direct buffers.
+     */
+    private final class FrameOutput extends OutputStream {
+        private final List<ByteBuffer> buffers = new ArrayList<>(4);
+        private int[] frames = new int[4];
+        private ByteBuffer current;
+        private ByteBuffer lengthBuffer;
+        private int lengthPosition;
+        private int length;
+
+        void beginFrame() {
+            if (current == null || current.remaining() < LENGTH_BYTES) {
+                next();
+            }
+            lengthBuffer = current;
+            lengthPosition = current.position();
+            current.position(lengthPosition + LENGTH_BYTES);
+            length = 0;
+        }
+
+        /**
+         * @return the length of the frame without the length prefix
+         */
+        int endFrame() {
+            lengthBuffer.putInt(lengthPosition, length);
+            frames[buffers.size() - 1]++;
+            return length;
+        }
+
+        Chain finish() {
+            for (var buffer : buffers) {
+                buffer.flip();
+            }
+            return new Chain(buffers.toArray(ByteBuffer[]::new), Arrays.copyOf(frames, buffers.size()));
+        }
+
+        void release() {
+            for (var buffer : buffers) {
+                pool.release(buffer);
+            }
+            buffers.clear();
+            current = null;
+        }
+
+        @Override
+        public void write(int b) {
+            if (!current.hasRemaining()) {
+                next();
+            }
+            current.put((byte) b);
+            length++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int count) {
+            length += count;
+            while (count > 0) {
+                if (!current.hasRemaining()) {
+                    next();
+                }
+                var chunk = Math.min(count, current.remaining());
+                current.put(bytes, offset, chunk);
+                offset += chunk;
+                count -= chunk;
+            }
+        }
+
+        private void next() {
+            current = pool.acquire();
+            buffers.add(current);
+            if (buffers.size() > frames.length) {
+                frames = Arrays.copyOf(frames, frames.length * 2);
+            }
+        }
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(NioTcpTransport.class);
+}
@@ -0,0 +1,102 @@
+package de.wuespace.telestion.client;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Describes when the {@link EventBusClient} tries to reconnect after the connection to the bridge was lost.
+ * <p>
+ * The delay before attempt {@code n} (starting at {@code 0}) is
+ * {@code min(maxDelay, initialDelay * multiplier^n)}, randomly spread by up to {@code jitter} in both directions so that many clients
+ * do not hit a restarted backend at the same instant.
+ */
+public class ReconnectPolicy {
+
+    /**
+     * A policy that never reconnects.
+     */
+    public static ReconnectPolicy disabled() {
+        return new ReconnectPolicy().setEnabled(false);
+    }
+
+    private boolean enabled = true;
+    private Duration initialDelay = Duration.ofMillis(100);
+    private Duration maxDelay = Duration.ofSeconds(10);
+    private double multiplier = 2.0;
+    private double jitter = 0.2;
+    private int maxAttempts = -1;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public ReconnectPolicy setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        return this;
+    }
+
+    public Duration getInitialDelay() {
+        return initialDelay;
+    }
+
+    public ReconnectPolicy setInitialDelay(Duration initialDelay) {
+        this.initialDelay = initialDelay;
+        return this;
+    }
+
+    public Duration getMaxDelay() {
+        return maxDelay;
+    }
+
+    public ReconnectPolicy setMaxDelay(Duration maxDelay) {
+        this.maxDelay = maxDelay;
+        return this;
+    }
+
+    public double getMultiplier() {
+        return multiplier;
+    }
+
+    public ReconnectPolicy setMultiplier(double multiplier) {
+        this.multiplier = multiplier;
+        return this;
+    }
+
+    public double getJitter() {
+        return jitter;
+    }
+
+    /**
+     * @param jitter the relative random spread of every delay between {@code 0} (none) and {@code 1}
+     */
+    public ReconnectPolicy setJitter(double jitter) {
+        this.jitter = jitter;
+        return this;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * @param maxAttempts the number of attempts after which the client gives up, {@code -1} for unlimited
+     */
+    public ReconnectPolicy setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * Returns the delay before the given attempt in nanoseconds including the jitter.
+     */
+    long delayNanos(int attempt) {
+        var base = initialDelay.toNanos() * Math.pow(multiplier, attempt);
+        var capped = Math.min(base, (double) maxDelay.toNanos());
+        var spread = jitter == 0 ? 1.0 : 1.0 + ThreadLocalRandom.current().nextDouble(-jitter, jitter);
+        return Math.max(0, (long) (capped * spread));
+    }
+
+    boolean allowsAttempt(int attempt) {
+        return enabled && (maxAttempts < 0 || attempt < maxAttempts);
+    }
+}
@@ -0,0 +1,128 @@
+package de.wuespace.telestion.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Schedules the reconnect attempts of an {@link EventBusClient} or of its {@link NioTcpTransport}
+ * according to a {@link ReconnectPolicy} and measures the time from the loss of the connection
+ * until the consumers are restored.
+ */
+final class Reconnector {
+    private final Runnable connect;
+    private final BooleanSupplier connected;
+
+    private ReconnectPolicy policy = ReconnectPolicy.disabled();
+    private ScheduledFuture<?> pending;
+    private int attempt;
+    private long disconnectedAt = -1;
+    private boolean exhausted;
+
+    private long reconnects;
+    private Duration lastLatency = Duration.ZERO;
+
+    Reconnector(Runnable connect, BooleanSupplier connected) {
+        this.connect = connect;
+        this.connected = connected;
+    }
+
+    synchronized void setPolicy(ReconnectPolicy policy) {
+        this.policy = policy;
+    }
+
+    synchronized ReconnectPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Starts the reconnect attempts unless they already run or the policy allows no further attempts.
+     */
+    synchronized void disconnected() {
+        // failed attempts are reported as well, they must not restart the attempts once the client gave up
+        if (disconnectedAt >= 0 || exhausted || !policy.isEnabled()) {
+            return;
+        }
+        disconnectedAt = System.nanoTime();
+        attempt = 0;
+        schedule();
+    }
+
+    /**
+     * Stops the reconnect attempts.
+     *
+     * @return {@code true} if the client was reconnecting and the consumers must be restored
+     */
+    synchronized boolean connected() {
+        cancel();
+        exhausted = false;
+        return disconnectedAt >= 0;
+    }
+
+    /**
+     * Marks the reconnect as complete after the consumers were restored.
+     *
+     * @return the time from the loss of the connection until now
+     */
+    synchronized Duration restored() {
+        lastLatency = Duration.ofNanos(System.nanoTime() - disconnectedAt);
+        disconnectedAt = -1;
+        reconnects++;
+        return lastLatency;
+    }
+
+    /**
+     * Stops the reconnect attempts, the next loss of the connection starts them from the first attempt.
+     */
+    synchronized void stop() {
+        cancel();
+        disconnectedAt = -1;
+        exhausted = false;
+    }
+
+    synchronized long getReconnects() {
+        return reconnects;
+    }
+
+    synchronized Duration getLastLatency() {
+        return lastLatency;
+    }
+
+    private void schedule() {
+        if (!policy.allowsAttempt(attempt)) {
+            logger.warn("Giving up to reconnect to the event bus bridge after {} attempts", attempt);
+            disconnectedAt = -1;
+            exhausted = true;
+            return;
+        }
+        pending = ClientScheduler.get().schedule(this::attempt, policy.delayNanos(attempt), TimeUnit.NANOSECONDS);
+    }
+
+    private synchronized void attempt() {
+        if (disconnectedAt < 0 || connected.getAsBoolean()) {
+            return;
+        }
+        logger.info("Reconnecting to the event bus bridge (attempt {})", attempt + 1);
+        attempt++;
+        try {
+            connect.run();
+        } catch (RuntimeException e) {
+            logger.warn("Reconnect attempt failed:", e);
+        }
+        // check again later in case this attempt fails silently
+        schedule();
+    }
+
+    private void cancel() {
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(Reconnector.class);
+}
@@ -0,0 +1,117 @@
+package de.wuespace.telestion.client;
+
+import de.wuespace.telestion.client.metrics.LatencyHistogram;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps track of the in-flight requests of an {@link EventBusClient}.
+ * <p>
+ * Every request gets an entry in a correlation table that is removed by whatever happens first:
+ * the reply, a failure or the deadline. The number of in-flight requests is capped,
+ * and the round-trip latency of every successful request is recorded.
+ */
+final class RequestTracker {
+    private final Map<Long, InFlight<?>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final AtomicInteger count = new AtomicInteger();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    private volatile int maxInFlight = 10_000;
+
+    /**
+     * Registers a new request.
+     * <p>
+     * A request that misses its deadline is failed with a {@link TimeoutException} on the
+     * {@link ClientScheduler#worker() worker pool}.
+     *
+     * @param timeoutMillis the deadline of the request relative to now
+     * @return the tracked request or {@code null} if the cap of in-flight requests is reached
+     */
+    <V> InFlight<V> begin(long timeoutMillis) {
+        int current;
+        do {
+            current = count.get();
+            if (current >= maxInFlight) {
+                return null;
+            }
+        } while (!count.compareAndSet(current, current + 1));
+
+        var request = new InFlight<V>(ids.incrementAndGet());
+        inFlight.put(request.id, request);
+        // the timeout runs the dependent stages of the future, so it must not complete it on the scheduler thread
+        request.timeout = ClientScheduler.get().schedule(
+                () -> ClientScheduler.worker().execute(
+                        () -> request.fail(new TimeoutException("No reply within " + timeoutMillis + " ms"))),
+                timeoutMillis, TimeUnit.MILLISECONDS);
+        return request;
+    }
+
+    void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    int getInFlight() {
+        return count.get();
+    }
+
+    LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    final class InFlight<V> {
+        private final long id;
+        private final long start = System.nanoTime();
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        private volatile ScheduledFuture<?> timeout;
+
+        private InFlight(long id) {
+            this.id = id;
+        }
+
+        CompletableFuture<V> future() {
+            return future;
+        }
+
+        void complete(V value) {
+            if (finish()) {
+                latency.record(System.nanoTime() - start);
+                future.complete(value);
+            }
+        }
+
+        void fail(Throwable cause) {
+            if (finish()) {
+                future.completeExceptionally(cause);
+            }
+        }
+
+        /**
+         * Removes the request from the correlation table.
+         *
+         * @return {@code true} if this call finished the request
+         */
+        private boolean finish() {
+            if (inFlight.remove(id) == null) {
+                return false;
+            }
+            count.decrementAndGet();
+            var scheduled = timeout;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+            return true;
+        }
+    }
+}
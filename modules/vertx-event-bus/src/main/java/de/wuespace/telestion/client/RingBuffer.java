@@ -0,0 +1,223 @@
+package de.wuespace.telestion.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BiConsumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * A preallocated single-producer ring buffer of {@code (key, value)} events with one or more consumer stages.
+ * <p>
+ * The producer writes into the slots in place and publishes the event by advancing the cursor,
+ * so publishing does not allocate. Every stage runs on its own thread, drains all available events
+ * in one batch and handles the events whose key hashes to the stage. Events with the same key are therefore
+ * handled in order by the same stage. The producer waits when it would overwrite an event
+ * that a stage has not handled yet.
+ * <p>
+ * The stage that handled an event clears its value, so a quiet ring buffer does not keep the last
+ * {@code capacity} values alive. With several stages, every stage reads the keys to select its events,
+ * so the keys stay in their slots until the producer overwrites them.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+final class RingBuffer<K, V> implements AutoCloseable {
+    /**
+     * The distance between two stage sequences in {@link #sequences}, so they are on different cache lines.
+     */
+    private static final int PADDING = 16;
+
+    private final int mask;
+    private final Object[] keys;
+    private final Object[] values;
+    private final int stageCount;
+    private final WaitStrategy waitStrategy;
+    private final ToIntFunction<K> keyHash;
+    private final BiConsumer<K, V> handler;
+
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private final AtomicLongArray sequences;
+    private final Thread[] stages;
+    private volatile boolean running = true;
+
+    // only accessed by the producer
+    private long next;
+    private long cachedMinSequence = -1;
+
+    private final AtomicLong producerStalls = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong maxBatchSize = new AtomicLong();
+
+    /**
+     * @param capacity     the number of slots, a power of two
+     * @param stageCount   the number of consumer stages
+     * @param waitStrategy the strategy of the producer and the stages when they have to wait
+     * @param keyHash      the hash of a key that selects its stage
+     * @param handler      handles the events, called on the stage threads
+     * @param name         the prefix of the names of the stage threads
+     */
+    RingBuffer(int capacity, int stageCount, WaitStrategy waitStrategy, ToIntFunction<K> keyHash,
+               BiConsumer<K, V> handler, String name) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two");
+        }
+        if (stageCount < 1) {
+            throw new IllegalArgumentException("stageCount must be at least 1");
+        }
+        this.mask = capacity - 1;
+        this.keys = new Object[capacity];
+        this.values = new Object[capacity];
+        this.stageCount = stageCount;
+        this.waitStrategy = waitStrategy;
+        this.keyHash = keyHash;
+        this.handler = handler;
+        this.sequences = new AtomicLongArray(stageCount * PADDING);
+        this.stages = new Thread[stageCount];
+        for (int i = 0; i < stageCount; i++) {
+            sequences.set(i * PADDING, -1);
+            var stage = i;
+            stages[i] = new Thread(() -> consume(stage), name + "-" + i);
+            stages[i].setDaemon(true);
+            stages[i].start();
+        }
+    }
+
+    /**
+     * Publishes an event. Must only be called by one thread at a time.
+     *
+     * @return {@code false} if the ring buffer is closed or was closed while waiting for a free slot
+     */
+    boolean publish(K key, V value) {
+        if (!running) {
+            return false;
+        }
+        var sequence = next;
+        var wrapPoint = sequence - keys.length;
+        if (wrapPoint > cachedMinSequence) {
+            var minSequence = minSequence();
+            if (wrapPoint > minSequence) {
+                producerStalls.incrementAndGet();
+                for (int attempt = 0; wrapPoint > (minSequence = minSequence()); attempt++) {
+                    if (!running) {
+                        return false;
+                    }
+                    waitStrategy.idle(attempt);
+                }
+            }
+            cachedMinSequence = minSequence;
+        }
+
+        var index = (int) sequence & mask;
+        keys[index] = key;
+        values[index] = value;
+        next = sequence + 1;
+        // release the slot contents to the stages
+        cursor.lazySet(sequence);
+        return true;
+    }
+
+    int getCapacity() {
+        return keys.length;
+    }
+
+    int getStageCount() {
+        return stageCount;
+    }
+
+    /**
+     * Returns the number of published events that the slowest stage has not handled yet.
+     */
+    long getBacklog() {
+        return cursor.get() - minSequence();
+    }
+
+    long getProducerStalls() {
+        return producerStalls.get();
+    }
+
+    long getBatches() {
+        return batches.get();
+    }
+
+    long getMaxBatchSize() {
+        return maxBatchSize.get();
+    }
+
+    /**
+     * Stops the stages after they handled all published events.
+     */
+    @Override
+    public void close() {
+        running = false;
+    }
+
+    /**
+     * Waits until all stages stopped.
+     */
+    void join() throws InterruptedException {
+        for (var stage : stages) {
+            stage.join();
+        }
+    }
+
+    private long minSequence() {
+        var min = Long.MAX_VALUE;
+        for (int i = 0; i < stageCount; i++) {
+            min = Math.min(min, sequences.get(i * PADDING));
+        }
+        return min;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void consume(int stage) {
+        var next = sequences.get(stage * PADDING) + 1;
+        var attempt = 0;
+        while (true) {
+            var available = cursor.get();
+            if (available < next) {
+                // the cursor is read again after the close, events published right before it are still handled
+                if (!running && cursor.get() < next) {
+                    return;
+                }
+                waitStrategy.idle(attempt++);
+                continue;
+            }
+            attempt = 0;
+
+            for (var sequence = next; sequence <= available; sequence++) {
+                var index = (int) sequence & mask;
+                var key = (K) keys[index];
+                if (stageCount == 1 || Math.floorMod(spread(keyHash.applyAsInt(key)), stageCount) == stage) {
+                    var value = (V) values[index];
+                    // the slot is written again only after the sequence of this stage passed it
+                    values[index] = null;
+                    if (stageCount == 1) {
+                        keys[index] = null;
+                    }
+                    try {
+                        handler.accept(key, value);
+                    } catch (RuntimeException e) {
+                        logger.error("Ring buffer handler failed:", e);
+                    }
+                }
+            }
+
+            var batchSize = available - next + 1;
+            batches.incrementAndGet();
+            if (batchSize > maxBatchSize.get()) {
+                maxBatchSize.accumulateAndGet(batchSize, Math::max);
+            }
+            sequences.lazySet(stage * PADDING, available);
+            next = available + 1;
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(RingBuffer.class);
+}
@@ -0,0 +1,143 @@
+package de.wuespace.telestion.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executes tasks on a fixed number of worker threads (stripes).
+ * <p>
+ * All tasks with the same key run on the same stripe, so they are executed strictly in submission order.
+ * Tasks with different keys may run in parallel.
+ * Every stripe reports its current and maximum queue depth and the number of completed tasks.
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ * {@code
+ * var client = EventBusClient.connectWithTcpBridge("localhost", 7000)
+ *         .setHandlerExecutor(new StripedExecutor(Runtime.getRuntime().availableProcessors()));
+ * }
+ * </pre>
+ *
+ * @see EventBusClient#setHandlerExecutor(StripedExecutor)
+ */
+public class StripedExecutor implements AutoCloseable {
+    private static final Runnable SHUTDOWN = () -> {
+    };
+
+    private final Stripe[] stripes;
+    private volatile boolean closed;
+
+    public StripedExecutor(int poolSize) {
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("poolSize must be at least 1");
+        }
+        stripes = new Stripe[poolSize];
+        for (int i = 0; i < poolSize; i++) {
+            stripes[i] = new Stripe(i);
+        }
+    }
+
+    /**
+     * Queues the task on the stripe of the key.
+     *
+     * @throws RejectedExecutionException if the executor is closed
+     */
+    public void execute(String key, Runnable task) throws RejectedExecutionException {
+        if (closed) {
+            throw new RejectedExecutionException("StripedExecutor is closed");
+        }
+        stripes[stripeOf(key)].submit(task, this);
+    }
+
+    public int stripeOf(String key) {
+        // spread the hash so that similar addresses do not end up on the same stripe
+        var hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, stripes.length);
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    public int getQueueDepth(int stripe) {
+        return stripes[stripe].queue.size();
+    }
+
+    /**
+     * Returns the highest queue depth of the stripe since the creation of the executor.
+     */
+    public long getMaxQueueDepth(int stripe) {
+        return stripes[stripe].maxDepth.get();
+    }
+
+    public long getCompletedTasks(int stripe) {
+        return stripes[stripe].completed.get();
+    }
+
+    /**
+     * Stops accepting tasks. Already queued tasks are still executed.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (var stripe : stripes) {
+            // a task accepted before the shutdown marker still runs, every later one is rejected
+            synchronized (stripe) {
+                stripe.queue.add(SHUTDOWN);
+            }
+        }
+    }
+
+    private static final class Stripe implements Runnable {
+        private final BlockingQueue<Runnable> queue = new LinkedBlockingQueue<>();
+        private final AtomicLong maxDepth = new AtomicLong();
+        private final AtomicLong completed = new AtomicLong();
+
+        private Stripe(int index) {
+            var thread = new Thread(this, "event-bus-handler-" + index);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private synchronized void submit(Runnable task, StripedExecutor executor) {
+            if (executor.closed) {
+                throw new RejectedExecutionException("StripedExecutor is closed");
+            }
+            queue.add(task);
+            var depth = queue.size();
+            if (depth > maxDepth.get()) {
+                maxDepth.accumulateAndGet(depth, Math::max);
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Runnable task;
+                try {
+                    task = queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (task == SHUTDOWN) {
+                    return;
+                }
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    logger.error("Message handler failed:", e);
+                }
+                completed.incrementAndGet();
+            }
+        }
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(StripedExecutor.class);
+}
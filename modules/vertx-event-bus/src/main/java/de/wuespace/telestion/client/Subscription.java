@@ -0,0 +1,300 @@
+package de.wuespace.telestion.client;
+
+import de.wuespace.telestion.client.json.DecodeException;
+import de.wuespace.telestion.client.json.JacksonCodec;
+import de.wuespace.telestion.client.json.PayloadFormat;
+import de.wuespace.telestion.client.metrics.AddressMetrics;
+import de.wuespace.telestion.client.metrics.TypeMetrics;
+import io.vertx.eventbusclient.Message;
+import io.vertx.eventbusclient.MessageConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * The single bridge consumer of an address that is shared by all local handlers registered for the address
+ * through the {@link EventBusClient}. It can be restored on a new connection.
+ * <p>
+ * Every received message is handed to all listeners in registration order. For typed listeners, the body is
+ * decoded at most once per {@link JsonMessage} type and the decoded instance is shared read-only between them.
+ */
+final class Subscription {
+    private static final Object FAILED = new Object();
+    private static final Object NULL = new Object();
+
+    /**
+     * The decoded bodies of the dispatch running on the thread, reused for every message.
+     */
+    private static final ThreadLocal<Object[]> scratch = new ThreadLocal<>();
+
+    /**
+     * Receives a message of the subscription.
+     */
+    @FunctionalInterface
+    interface Listener {
+        /**
+         * @param message the received message
+         * @param body    the decoded body for typed listeners, otherwise {@code null}
+         */
+        void handle(Message<Object> message, Object body);
+    }
+
+    /**
+     * A typed listener that only needs the decoded body, so it also receives bodies that did not come
+     * from the bridge, see {@link #dispatchBody(Object, Map)}.
+     */
+    @FunctionalInterface
+    interface BodyListener extends Listener {
+        void handle(Object body);
+
+        @Override
+        default void handle(Message<Object> message, Object body) {
+            handle(body);
+        }
+    }
+
+    /**
+     * An immutable snapshot of the listeners.
+     *
+     * @param listeners the listeners in registration order
+     * @param types     the type of each listener or {@code null} for untyped listeners
+     * @param slots     the index of the type of each listener in the decoding cache or {@code -1} if untyped
+     * @param typeCount the number of distinct types
+     */
+    private record Listeners(Listener[] listeners, Class<?>[] types, int[] slots, int typeCount) {
+        static final Listeners EMPTY = new Listeners(new Listener[0], new Class<?>[0], new int[0], 0);
+
+        Listeners with(Listener listener, Class<?> type) {
+            var listeners = Arrays.copyOf(this.listeners, this.listeners.length + 1);
+            var types = Arrays.copyOf(this.types, this.types.length + 1);
+            listeners[listeners.length - 1] = listener;
+            types[types.length - 1] = type;
+            return of(listeners, types);
+        }
+
+        Listeners without(Listener listener) {
+            for (int i = 0; i < listeners.length; i++) {
+                if (listeners[i] == listener) {
+                    var listeners = new Listener[this.listeners.length - 1];
+                    var types = new Class<?>[listeners.length];
+                    System.arraycopy(this.listeners, 0, listeners, 0, i);
+                    System.arraycopy(this.listeners, i + 1, listeners, i, listeners.length - i);
+                    System.arraycopy(this.types, 0, types, 0, i);
+                    System.arraycopy(this.types, i + 1, types, i, types.length - i);
+                    return of(listeners, types);
+                }
+            }
+            return this;
+        }
+
+        private static Listeners of(Listener[] listeners, Class<?>[] types) {
+            var slots = new int[listeners.length];
+            var distinct = new Class<?>[listeners.length];
+            var typeCount = 0;
+            for (int i = 0; i < listeners.length; i++) {
+                slots[i] = -1;
+                if (types[i] == null) {
+                    continue;
+                }
+                for (int j = 0; j < typeCount; j++) {
+                    if (distinct[j] == types[i]) {
+                        slots[i] = j;
+                        break;
+                    }
+                }
+                if (slots[i] < 0) {
+                    distinct[typeCount] = types[i];
+                    slots[i] = typeCount++;
+                }
+            }
+            return new Listeners(listeners, types, slots, typeCount);
+        }
+    }
+
+    private final String address;
+    private final AddressMetrics metrics;
+    private final StripedExecutor executor;
+    private final InboundPipeline pipeline;
+
+    private volatile Listeners listeners = Listeners.EMPTY;
+    private MessageConsumer<Object> consumer;
+
+    /**
+     * @param address  the address of the bridge consumer
+     * @param metrics  the metrics of the address
+     * @param executor the executor that runs the listeners or {@code null} to run them on the I/O thread
+     * @param pipeline the pipeline that runs the listeners instead of the executor or {@code null}
+     */
+    Subscription(String address, AddressMetrics metrics, StripedExecutor executor, InboundPipeline pipeline) {
+        this.address = address;
+        this.metrics = metrics;
+        this.executor = executor;
+        this.pipeline = pipeline;
+    }
+
+    String getAddress() {
+        return address;
+    }
+
+    /**
+     * @param type     the type the body is decoded into or {@code null} for listeners of the raw message
+     * @param listener the listener to add
+     */
+    synchronized void add(Class<?> type, Listener listener) {
+        listeners = listeners.with(listener, type);
+    }
+
+    /**
+     * @return {@code true} if no listener is left and the subscription can be dropped
+     */
+    synchronized boolean remove(Listener listener) {
+        listeners = listeners.without(listener);
+        return listeners.listeners().length == 0;
+    }
+
+    synchronized void subscribe(io.vertx.eventbusclient.EventBusClient bridge) {
+        if (consumer != null) {
+            // drop the consumer of the previous connection so the address is registered exactly once
+            consumer.unregister();
+        }
+        consumer = bridge.consumer(address, this::receive);
+    }
+
+    synchronized void unsubscribe() {
+        if (consumer != null) {
+            consumer.unregister();
+            consumer = null;
+        }
+    }
+
+    private void receive(Message<Object> message) {
+        metrics.recordMessageIn();
+        if (pipeline != null) {
+            if (!pipeline.publish(this, message)) {
+                metrics.recordMessageDropped();
+            }
+        } else if (executor != null) {
+            try {
+                executor.execute(address, () -> dispatch(message));
+            } catch (RejectedExecutionException e) {
+                // the handler executor was closed while the address is still registered
+                metrics.recordMessageDropped();
+            }
+        } else {
+            dispatch(message);
+        }
+    }
+
+    /**
+     * Hands the message to all listeners on the calling thread.
+     */
+    void dispatch(Message<Object> message) {
+        dispatch(message, message.body(), message.headers());
+    }
+
+    /**
+     * Hands a body that did not come from the bridge, e.g. a replayed one, to the {@link BodyListener body listeners}
+     * on the calling thread. All other listeners need the bridge message and are skipped.
+     *
+     * @param body    the body decoded into a plain object like the bridge client does
+     * @param headers the headers that announce the {@link PayloadFormat} of the body
+     */
+    void dispatchBody(Object body, Map<String, String> headers) {
+        dispatch(null, body, headers);
+    }
+
+    /**
+     * @param message the received message or {@code null} to only call the body listeners
+     */
+    private void dispatch(Message<Object> message, Object raw, Map<String, String> headers) {
+        var current = listeners;
+        var start = System.nanoTime();
+        // decoded bodies per distinct type, a local for a single type and a reused array for several
+        Object single = null;
+        var bodies = current.typeCount() > 1 ? takeScratch(current.typeCount()) : null;
+        try {
+            for (int i = 0; i < current.listeners().length; i++) {
+                if (message == null && !(current.listeners()[i] instanceof BodyListener)) {
+                    continue;
+                }
+                var slot = current.slots()[i];
+                Object body = null;
+                if (slot >= 0) {
+                    Object decoded;
+                    if (bodies == null) {
+                        if (single == null) {
+                            single = decode(raw, headers, current.types()[i]);
+                        }
+                        decoded = single;
+                    } else {
+                        if (bodies[slot] == null) {
+                            bodies[slot] = decode(raw, headers, current.types()[i]);
+                        }
+                        decoded = bodies[slot];
+                    }
+                    if (decoded == FAILED) {
+                        continue;
+                    }
+                    body = decoded == NULL ? null : decoded;
+                }
+
+                try {
+                    current.listeners()[i].handle(message, body);
+                } catch (RuntimeException e) {
+                    // one failing handler must not keep the message from the others
+                    logger.error("Handler of {} failed:", address, e);
+                }
+            }
+        } finally {
+            if (bodies != null) {
+                releaseScratch(bodies, current.typeCount());
+            }
+        }
+        metrics.recordHandlerTime(System.nanoTime() - start);
+    }
+
+    /**
+     * @return the scratch array of the thread or a new one if it is too small or in use by an outer dispatch
+     */
+    private static Object[] takeScratch(int size) {
+        var bodies = scratch.get();
+        if (bodies == null || bodies.length < size) {
+            return new Object[size];
+        }
+        scratch.set(null);
+        return bodies;
+    }
+
+    private static void releaseScratch(Object[] bodies, int size) {
+        // the decoded bodies must not stay reachable until the next message
+        Arrays.fill(bodies, 0, size, null);
+        scratch.set(bodies);
+    }
+
+    /**
+     * Decodes the body like {@link JsonMessage#from(Message, Class)}.
+     */
+    private static Object decode(Object raw, Map<String, String> headers, Class<?> type) {
+        @SuppressWarnings("unchecked")
+        var messageType = (Class<? extends JsonMessage>) type;
+        var typeMetrics = TypeMetrics.of(type);
+        var start = System.nanoTime();
+        try {
+            var format = PayloadFormat.fromHeaders(headers);
+            var body = format.isBinary()
+                    ? JacksonCodec.from(PayloadFormat.bodyBytes(raw), messageType, format)
+                    : JsonMessage.from(raw, messageType);
+            typeMetrics.recordDecode(System.nanoTime() - start);
+            return body == null ? NULL : body;
+        } catch (DecodeException e) {
+            typeMetrics.recordDecodeFailure();
+            logger.warn("Cannot convert Vertx Message to JsonMessage {}:", type.getName(), e);
+            return FAILED;
+        }
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(Subscription.class);
+}
@@ -0,0 +1,209 @@
+package de.wuespace.telestion.client;
+
+import de.wuespace.telestion.client.json.DecodeException;
+import de.wuespace.telestion.client.metrics.TypeMetrics;
+import io.vertx.eventbusclient.Handler;
+import io.vertx.eventbusclient.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A listener that hands the messages of an address to its handler at most {@code maxHz} times per second.
+ * <p>
+ * Received messages are only stored (and aggregated by {@link Conflating}) without decoding them.
+ * A timer on the {@link ClientScheduler} takes the latest message of each period and hands it to the stripe
+ * of the address if a {@link StripedExecutor} is given, otherwise to the {@link ClientScheduler#worker() worker pool},
+ * where it is decoded and delivered. Deliveries of one throttle never overlap: while the handler still runs,
+ * the following periods are merged into the next delivery.
+ *
+ * @param <V> the type of the delivered messages
+ */
+abstract class Throttle<V extends JsonMessage> implements Subscription.Listener {
+    protected final String address;
+    protected final Class<V> type;
+    private final StripedExecutor executor;
+    private final AtomicBoolean delivering = new AtomicBoolean();
+    private ScheduledFuture<?> timer;
+
+    private Throttle(String address, Class<V> type, StripedExecutor executor) {
+        this.address = address;
+        this.type = type;
+        this.executor = executor;
+    }
+
+    /**
+     * Delivers only the latest message of each period.
+     */
+    static <V extends JsonMessage> Throttle<V> latest(String address, Class<V> type, MessageHandler<V> handler,
+                                                      StripedExecutor executor) {
+        return new Latest<>(address, type, handler, executor);
+    }
+
+    /**
+     * Delivers the latest message of each period together with the statistics of its numeric fields.
+     */
+    static <V extends JsonMessage> Throttle<V> conflating(String address, Class<V> type, Handler<Conflated<V>> handler,
+                                                          StripedExecutor executor) {
+        return new Conflating<>(address, type, handler, executor);
+    }
+
+    synchronized void start(double maxHz) {
+        if (!(maxHz > 0)) {
+            throw new IllegalArgumentException("maxHz must be positive");
+        }
+        var period = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / maxHz));
+        timer = ClientScheduler.get().scheduleAtFixedRate(this::tick, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    synchronized void stop() {
+        if (timer != null) {
+            timer.cancel(false);
+            timer = null;
+        }
+    }
+
+    /**
+     * Called by the timer once per period.
+     */
+    private void tick() {
+        if (!delivering.compareAndSet(false, true)) {
+            // the handler is still busy, the messages are kept for the next period
+            return;
+        }
+        var delivery = poll();
+        if (delivery == null) {
+            delivering.set(false);
+            return;
+        }
+        try {
+            if (executor == null) {
+                ClientScheduler.worker().execute(() -> run(delivery));
+            } else {
+                executor.execute(address, () -> run(delivery));
+            }
+        } catch (RejectedExecutionException e) {
+            delivering.set(false);
+            logger.warn("Cannot deliver the throttled messages of {}:", address, e);
+        }
+    }
+
+    private void run(Runnable delivery) {
+        try {
+            delivery.run();
+        } catch (DecodeException e) {
+            logger.warn("Cannot convert Vertx Message to JsonMessage {}:", type.getName(), e);
+        } catch (RuntimeException e) {
+            logger.error("Throttled handler of {} failed:", address, e);
+        } finally {
+            delivering.set(false);
+        }
+    }
+
+    protected V decode(Message<Object> message) {
+        var typeMetrics = TypeMetrics.of(type);
+        var start = System.nanoTime();
+        try {
+            var body = JsonMessage.from(message, type);
+            typeMetrics.recordDecode(System.nanoTime() - start);
+            return body;
+        } catch (DecodeException e) {
+            typeMetrics.recordDecodeFailure();
+            throw e;
+        }
+    }
+
+    /**
+     * Takes the state of the finished period.
+     *
+     * @return the delivery of the period or {@code null} if no message was received
+     */
+    protected abstract Runnable poll();
+
+    private static final class Latest<V extends JsonMessage> extends Throttle<V> {
+        private final MessageHandler<V> handler;
+        private final AtomicReference<Message<Object>> latest = new AtomicReference<>();
+
+        private Latest(String address, Class<V> type, MessageHandler<V> handler, StripedExecutor executor) {
+            super(address, type, executor);
+            this.handler = handler;
+        }
+
+        @Override
+        public void handle(Message<Object> message, Object body) {
+            latest.set(message);
+        }
+
+        @Override
+        protected Runnable poll() {
+            var message = latest.getAndSet(null);
+            return message == null ? null : () -> handler.handle(decode(message));
+        }
+    }
+
+    private static final class Conflating<V extends JsonMessage> extends Throttle<V> {
+        private final Handler<Conflated<V>> handler;
+
+        // guarded by this, the accumulators are min, max, sum and count per field
+        private Message<Object> latest;
+        private long count;
+        private final Map<String, double[]> fields = new LinkedHashMap<>();
+
+        private Conflating(String address, Class<V> type, Handler<Conflated<V>> handler, StripedExecutor executor) {
+            super(address, type, executor);
+            this.handler = handler;
+        }
+
+        @Override
+        public synchronized void handle(Message<Object> message, Object body) {
+            latest = message;
+            count++;
+            if (!(message.body() instanceof Map<?, ?> map)) {
+                // binary payloads are not decoded, they only count
+                return;
+            }
+            for (var entry : map.entrySet()) {
+                if (entry.getValue() instanceof Number number && entry.getKey() instanceof String name) {
+                    var value = number.doubleValue();
+                    var field = fields.get(name);
+                    if (field == null) {
+                        fields.put(name, new double[]{value, value, value, 1});
+                    } else {
+                        field[0] = Math.min(field[0], value);
+                        field[1] = Math.max(field[1], value);
+                        field[2] += value;
+                        field[3]++;
+                    }
+                }
+            }
+        }
+
+        @Override
+        protected synchronized Runnable poll() {
+            if (latest == null) {
+                return null;
+            }
+            var message = latest;
+            var messages = count;
+            var stats = new HashMap<String, Conflated.FieldStats>(fields.size() * 2);
+            for (var field : fields.entrySet()) {
+                var value = field.getValue();
+                stats.put(field.getKey(), new Conflated.FieldStats(value[0], value[1], value[2] / value[3], (long) value[3]));
+            }
+            latest = null;
+            count = 0;
+            fields.clear();
+            return () -> handler.handle(new Conflated<>(decode(message), messages, Map.copyOf(stats)));
+        }
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(Throttle.class);
+}
@@ -0,0 +1,56 @@
+package de.wuespace.telestion.client;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How the threads of an {@link InboundPipeline} wait for new messages or for free slots.
+ */
+public enum WaitStrategy {
+    /**
+     * Spins on the CPU. Lowest latency, but every waiting thread occupies a core.
+     */
+    BUSY_SPIN {
+        @Override
+        void idle(int attempt) {
+            Thread.onSpinWait();
+        }
+    },
+    /**
+     * Spins shortly, then yields the CPU to other threads.
+     */
+    YIELD {
+        @Override
+        void idle(int attempt) {
+            if (attempt < SPIN_ATTEMPTS) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    },
+    /**
+     * Spins and yields shortly, then parks the thread. Uses the least CPU at the cost of wake-up latency.
+     */
+    PARK {
+        @Override
+        void idle(int attempt) {
+            if (attempt < SPIN_ATTEMPTS) {
+                Thread.onSpinWait();
+            } else if (attempt < 2 * SPIN_ATTEMPTS) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+    };
+
+    private static final int SPIN_ATTEMPTS = 100;
+    private static final long PARK_NANOS = 50_000;
+
+    /**
+     * Waits once.
+     *
+     * @param attempt the number of previous unsuccessful attempts, {@code 0} for the first
+     */
+    abstract void idle(int attempt);
+}
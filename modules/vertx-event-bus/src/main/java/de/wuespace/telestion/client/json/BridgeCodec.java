@@ -0,0 +1,73 @@
+package de.wuespace.telestion.client.json;
+
+import de.wuespace.telestion.client.JsonMessage;
+import de.wuespace.telestion.client.metrics.ClientMetrics;
+import de.wuespace.telestion.client.metrics.TypeMetrics;
+import io.vertx.eventbusclient.json.JsonCodec;
+
+import java.util.Map;
+
+/**
+ * Frame codec for the Vert.x event bus bridge client backed by {@link JacksonCodec}.
+ * <p>
+ * The bridge client encodes every outgoing frame as a map containing the message body.
+ * With this codec installed, a {@link de.wuespace.telestion.client.JsonMessage} can be used as body directly.
+ * It is then serialized in the same pass as the frame
+ * instead of being converted into an intermediate {@link java.util.Map} first.
+ * The produced JSON is the same as for the converted map.
+ * <p>
+ * If the codec has {@link ClientMetrics}, it records the size of every frame per address,
+ * and the encoding time of directly encoded {@link JsonMessage} bodies per type.
+ */
+public class BridgeCodec implements JsonCodec {
+    private final ClientMetrics metrics;
+
+    public BridgeCodec(ClientMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public BridgeCodec() {
+        this(null);
+    }
+
+    @Override
+    public String encode(Object value) throws EncodeException {
+        if (metrics == null || !(value instanceof Map<?, ?> frame) || !(frame.get("address") instanceof String address)) {
+            return JacksonCodec.toString(value);
+        }
+
+        var start = System.nanoTime();
+        var json = JacksonCodec.toString(value);
+        if (frame.get("body") instanceof JsonMessage body) {
+            TypeMetrics.of(body.getClass()).recordEncode(System.nanoTime() - start);
+        }
+        metrics.address(address).recordBytesOut(utf8Length(json));
+        return json;
+    }
+
+    @Override
+    public <T> T decode(String json, Class<T> type) throws DecodeException {
+        var value = JacksonCodec.from(json, type);
+        if (metrics != null && value instanceof Map<?, ?> frame && frame.get("address") instanceof String address) {
+            metrics.address(address).recordBytesIn(utf8Length(json));
+        }
+        return value;
+    }
+
+    /**
+     * Returns the number of bytes of the UTF-8 encoding of the string without encoding it.
+     */
+    static long utf8Length(String value) {
+        long length = value.length();
+        for (int i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            if (c >= 0x800) {
+                // surrogate pairs are 4 bytes for 2 chars, everything else 3 bytes per char
+                length += Character.isSurrogate(c) ? 1 : 2;
+            } else if (c >= 0x80) {
+                length += 1;
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,39 @@
+package de.wuespace.telestion.client.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+
+/**
+ * A reflection-free codec for one {@link de.wuespace.telestion.client.JsonMessage} record, generated at compile time
+ * by the {@code codec-processor} module.
+ * <p>
+ * The generated codec of a record {@code com.example.Outer.Telemetry} is the public class
+ * {@code com.example.Outer_TelemetryJsonCodec}. {@link JacksonCodec} finds it through {@link GeneratedCodecs#find(Class)}
+ * and uses it for all (de)serialization of the record in every {@link PayloadFormat}, including bodies that are
+ * serialized together with a bridge frame.
+ *
+ * @param <T> the type of the record
+ */
+public interface GeneratedCodec<T> {
+    /**
+     * The suffix of the simple name of generated codecs.
+     */
+    String SUFFIX = "JsonCodec";
+
+    Class<T> getType();
+
+    /**
+     * Writes the value as JSON object, like Jackson's record serializer would.
+     */
+    void write(JsonGenerator generator, T value, SerializerProvider provider) throws IOException;
+
+    /**
+     * Reads the value from the current {@code START_OBJECT} or {@code FIELD_NAME} token,
+     * like Jackson's record deserializer would.
+     */
+    T read(JsonParser parser, DeserializationContext context) throws IOException;
+}
@@ -0,0 +1,89 @@
+package de.wuespace.telestion.client.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.Version;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.Deserializers;
+import com.fasterxml.jackson.databind.ser.Serializers;
+
+import java.io.IOException;
+
+/**
+ * Plugs the {@link GeneratedCodec}s into Jackson, so every mapper of the {@link JacksonCodec} uses them in place of
+ * its reflective record (de)serializers.
+ */
+final class GeneratedCodecModule extends Module {
+
+    @Override
+    public String getModuleName() {
+        return "telestion-generated-codecs";
+    }
+
+    @Override
+    public Version version() {
+        return Version.unknownVersion();
+    }
+
+    @Override
+    public void setupModule(SetupContext context) {
+        context.addSerializers(new Serializers.Base() {
+            @Override
+            public JsonSerializer<?> findSerializer(SerializationConfig config, JavaType type, BeanDescription beanDesc) {
+                var codec = GeneratedCodecs.find(type.getRawClass());
+                return codec == null ? null : new Serializer<>(codec);
+            }
+        });
+        context.addDeserializers(new Deserializers.Base() {
+            @Override
+            public JsonDeserializer<?> findBeanDeserializer(JavaType type, DeserializationConfig config, BeanDescription beanDesc) {
+                var codec = GeneratedCodecs.find(type.getRawClass());
+                return codec == null ? null : new Deserializer<>(codec);
+            }
+        });
+    }
+
+    private static final class Serializer<T> extends JsonSerializer<T> {
+        private final GeneratedCodec<T> codec;
+
+        Serializer(GeneratedCodec<T> codec) {
+            this.codec = codec;
+        }
+
+        @Override
+        public void serialize(T value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            codec.write(generator, value, provider);
+        }
+
+        @Override
+        public Class<T> handledType() {
+            return codec.getType();
+        }
+    }
+
+    private static final class Deserializer<T> extends JsonDeserializer<T> {
+        private final GeneratedCodec<T> codec;
+
+        Deserializer(GeneratedCodec<T> codec) {
+            this.codec = codec;
+        }
+
+        @Override
+        public T deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            return codec.read(parser, context);
+        }
+
+        @Override
+        public Class<?> handledType() {
+            return codec.getType();
+        }
+    }
+}
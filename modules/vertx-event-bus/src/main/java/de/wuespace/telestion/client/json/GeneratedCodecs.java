@@ -0,0 +1,141 @@
+package de.wuespace.telestion.client.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import de.wuespace.telestion.client.JsonMessage;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Finds {@link GeneratedCodec}s and provides the read helpers their generated code calls.
+ * <p>
+ * The helpers read the common token of a value directly and hand everything else to the deserializer Jackson would use,
+ * so coercions and error messages are the same as without generated codecs.
+ */
+public final class GeneratedCodecs {
+    private static final Map<Class<?>, Optional<GeneratedCodec<?>>> codecs = new ConcurrentHashMap<>();
+
+    private GeneratedCodecs() {
+    }
+
+    /**
+     * @return the generated codec of the type or {@code null} if the type has none
+     */
+    public static <T> GeneratedCodec<T> find(Class<T> type) {
+        if (!type.isRecord() || !JsonMessage.class.isAssignableFrom(type)) {
+            return null;
+        }
+        //noinspection unchecked
+        return (GeneratedCodec<T>) codecs.computeIfAbsent(type, GeneratedCodecs::load).orElse(null);
+    }
+
+    /**
+     * @return the fully qualified name of the generated codec of the type
+     */
+    public static String codecName(Class<?> type) {
+        var packageName = type.getPackageName();
+        var simpleName = packageName.isEmpty() ? type.getName() : type.getName().substring(packageName.length() + 1);
+        var codecName = simpleName.replace('$', '_') + GeneratedCodec.SUFFIX;
+        return packageName.isEmpty() ? codecName : packageName + "." + codecName;
+    }
+
+    private static Optional<GeneratedCodec<?>> load(Class<?> type) {
+        try {
+            var codecClass = Class.forName(codecName(type), true, type.getClassLoader());
+            var codec = (GeneratedCodec<?>) codecClass.getDeclaredConstructor().newInstance();
+            return codec.getType() == type ? Optional.of(codec) : Optional.empty();
+        } catch (ClassNotFoundException e) {
+            return Optional.empty();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalStateException("Cannot load generated codec of " + type.getName(), e);
+        }
+    }
+
+    ///
+    /// READ SECTION
+    ///
+
+    public static String readString(JsonParser parser, DeserializationContext context) throws IOException {
+        return switch (parser.currentToken()) {
+            case VALUE_STRING -> parser.getText();
+            case VALUE_NULL -> null;
+            default -> context.readValue(parser, String.class);
+        };
+    }
+
+    public static int readInt(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getIntValue();
+        }
+        var value = context.readValue(parser, Integer.TYPE);
+        return value == null ? 0 : value;
+    }
+
+    public static long readLong(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getLongValue();
+        }
+        var value = context.readValue(parser, Long.TYPE);
+        return value == null ? 0 : value;
+    }
+
+    public static double readDouble(JsonParser parser, DeserializationContext context) throws IOException {
+        var token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getDoubleValue();
+        }
+        var value = context.readValue(parser, Double.TYPE);
+        return value == null ? 0 : value;
+    }
+
+    public static float readFloat(JsonParser parser, DeserializationContext context) throws IOException {
+        var token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getFloatValue();
+        }
+        var value = context.readValue(parser, Float.TYPE);
+        return value == null ? 0 : value;
+    }
+
+    public static boolean readBoolean(JsonParser parser, DeserializationContext context) throws IOException {
+        return switch (parser.currentToken()) {
+            case VALUE_TRUE -> true;
+            case VALUE_FALSE -> false;
+            default -> Boolean.TRUE.equals(context.readValue(parser, Boolean.TYPE));
+        };
+    }
+
+    public static short readShort(JsonParser parser, DeserializationContext context) throws IOException {
+        var value = context.readValue(parser, Short.TYPE);
+        return value == null ? 0 : value;
+    }
+
+    public static byte readByte(JsonParser parser, DeserializationContext context) throws IOException {
+        var value = context.readValue(parser, Byte.TYPE);
+        return value == null ? 0 : value;
+    }
+
+    public static char readChar(JsonParser parser, DeserializationContext context) throws IOException {
+        var value = context.readValue(parser, Character.TYPE);
+        return value == null ? 0 : value;
+    }
+
+    /**
+     * Reads a value of any other type, including boxed primitives, with the deserializer Jackson would use.
+     */
+    public static <T> T readValue(JsonParser parser, DeserializationContext context, Class<T> type) throws IOException {
+        return parser.currentToken() == JsonToken.VALUE_NULL ? null : context.readValue(parser, type);
+    }
+
+    /**
+     * Like {@link #readValue(JsonParser, DeserializationContext, Class)} for generic types.
+     */
+    public static <T> T readValue(JsonParser parser, DeserializationContext context, JavaType type) throws IOException {
+        return parser.currentToken() == JsonToken.VALUE_NULL ? null : context.readValue(parser, type);
+    }
+}
@@ -3,13 +3,27 @@ package de.wuespace.telestion.client.json;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import de.wuespace.telestion.client.JsonMessage;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class JacksonCodec {
     private static final ObjectMapper mapper = new ObjectMapper();
     private static final ObjectMapper prettyMapper = new ObjectMapper();
+    private static final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+    private static final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+
+    private static final Map<Class<?>, TypeCodec<?>> codecs = new ConcurrentHashMap<>();
 
     static {
         prettyMapper.configure(SerializationFeature.INDENT_OUTPUT, true);
+        // records with a codec from the codec-processor module skip the reflective (de)serializers
+        for (var objectMapper : new ObjectMapper[]{mapper, prettyMapper, cborMapper, smileMapper}) {
+            objectMapper.registerModule(new GeneratedCodecModule());
+        }
     }
 
     public static ObjectMapper getMapper() {
@@ -20,28 +34,95 @@ public class JacksonCodec {
         return prettyMapper;
     }
 
-    public static <T> T from(String json, Class<T> type) throws DecodeException {
-        try {
-            return mapper.readValue(json, type);
-        } catch (JsonProcessingException e) {
-            throw new DecodeException(e);
+    public static ObjectMapper getMapper(PayloadFormat format) {
+        return switch (format) {
+            case JSON -> mapper;
+            case CBOR -> cborMapper;
+            case SMILE -> smileMapper;
+        };
+    }
+
+    /**
+     * Returns the cached {@link TypeCodec} for the given type and creates it on first use.
+     * <p>
+     * Call this during startup for every message type you expect (e.g. {@code JacksonCodec.prepare(StringMessage.class)})
+     * to move the (de)serializer resolution out of the message path.
+     *
+     * @param type the type to prepare
+     * @param <T>  the type to prepare
+     * @return the prepared codec for the type
+     */
+    public static <T> TypeCodec<T> prepare(Class<T> type) {
+        var codec = codecs.get(type);
+        if (codec == null) {
+            codec = codecs.computeIfAbsent(type, key -> new TypeCodec<>(key, mapper, prettyMapper));
         }
+        //noinspection unchecked
+        return (TypeCodec<T>) codec;
+    }
+
+    /**
+     * @return {@code true} if a {@link TypeCodec} for the type is cached
+     */
+    static boolean isPrepared(Class<?> type) {
+        return codecs.containsKey(type);
+    }
+
+    public static <T> T from(String json, Class<T> type) throws DecodeException {
+        return prepare(type).decode(json);
     }
 
     public static <T> T from(Object json, Class<T> type) throws DecodeException {
-        try {
-            return mapper.convertValue(json, type);
-        } catch (IllegalArgumentException e) {
-            throw new DecodeException(e);
+        return prepare(type).decode(json);
+    }
+
+    public static <T> T from(byte[] bytes, Class<T> type, PayloadFormat format) throws DecodeException {
+        return prepare(type).decode(bytes, format);
+    }
+
+    public static byte[] toBytes(Object object, PayloadFormat format) throws EncodeException {
+        if (object == null) {
+            try {
+                return getMapper(format).writeValueAsBytes(null);
+            } catch (JsonProcessingException e) {
+                throw new EncodeException(e);
+            }
+        }
+
+        if (!(object instanceof JsonMessage)) {
+            try {
+                return getMapper(format).writeValueAsBytes(object);
+            } catch (JsonProcessingException e) {
+                throw new EncodeException(e);
+            }
         }
+
+        //noinspection unchecked
+        var codec = (TypeCodec<Object>) prepare(object.getClass());
+        return codec.encode(object, format);
     }
 
     public static String toString(Object object, boolean pretty) throws EncodeException {
-        try {
-            return pretty ? prettyMapper.writeValueAsString(object) : mapper.writeValueAsString(object);
-        } catch (JsonProcessingException e) {
-            throw new EncodeException(e);
+        if (object == null) {
+            try {
+                return mapper.writeValueAsString(null);
+            } catch (JsonProcessingException e) {
+                throw new EncodeException(e);
+            }
         }
+
+        if (!(object instanceof JsonMessage)) {
+            // arbitrary bodies would grow the codec cache without bound
+            try {
+                return pretty ? prettyMapper.writeValueAsString(object) : mapper.writeValueAsString(object);
+            } catch (JsonProcessingException e) {
+                throw new EncodeException(e);
+            }
+        }
+
+        //noinspection unchecked
+        var codec = (TypeCodec<Object>) prepare(object.getClass());
+        return codec.encode(object, pretty);
     }
 
     public static String toString(Object object) throws EncodeException {
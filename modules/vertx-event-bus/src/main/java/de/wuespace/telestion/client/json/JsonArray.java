@@ -98,18 +98,85 @@ public class JsonArray {
         return number instanceof Double ? (Double) number : Double.valueOf(number.doubleValue());
     }
 
+    ///
+    /// PRIMITIVE ACCESSORS
+    ///
+
+    /**
+     * Like {@link #getInteger(int)} but without boxing.
+     *
+     * @throws NullPointerException if the value is {@code null}
+     */
+    public int getIntValue(int index) throws ClassCastException, NullPointerException {
+        return ((Number) contents.get(index)).intValue();
+    }
+
+    public long getLongValue(int index) throws ClassCastException, NullPointerException {
+        return ((Number) contents.get(index)).longValue();
+    }
+
+    public float getFloatValue(int index) throws ClassCastException, NullPointerException {
+        return ((Number) contents.get(index)).floatValue();
+    }
+
+    public double getDoubleValue(int index) throws ClassCastException, NullPointerException {
+        return ((Number) contents.get(index)).doubleValue();
+    }
+
+    public boolean getBooleanValue(int index) throws ClassCastException, NullPointerException {
+        return (Boolean) contents.get(index);
+    }
+
+    /**
+     * Copies the numeric elements of this array into {@code target} without allocating.
+     *
+     * @param target the array to fill
+     * @return the number of copied elements, i.e. the minimum of {@link #size()} and {@code target.length}
+     * @throws NullPointerException if one of the copied elements is {@code null}
+     */
+    public int getDoubleValues(double[] target) throws ClassCastException, NullPointerException {
+        var count = Math.min(contents.size(), target.length);
+        for (int i = 0; i < count; i++) {
+            target[i] = getDoubleValue(i);
+        }
+        return count;
+    }
+
+    /**
+     * Like {@link #getDoubleValues(double[])} but for integral values.
+     */
+    public int getLongValues(long[] target) throws ClassCastException, NullPointerException {
+        var count = Math.min(contents.size(), target.length);
+        for (int i = 0; i < count; i++) {
+            target[i] = getLongValue(i);
+        }
+        return count;
+    }
+
     public Boolean getBoolean(int index) throws ClassCastException {
         return (Boolean) contents.get(index);
     }
 
+    /**
+     * Returns the nested object as a view on the underlying map without copying it.
+     * Changes to the returned object are visible in this array and vice versa.
+     * Use {@link JsonObject#copy()} on the result to get a detached copy.
+     */
     public JsonObject getJsonObject(int index) throws ClassCastException {
         var value = contents.get(index);
-        return value instanceof Map<?,?> ? new JsonObject(value) : (JsonObject) value;
+        //noinspection unchecked
+        return value instanceof Map<?, ?> ? new JsonObject((Map<String, Object>) value) : (JsonObject) value;
     }
 
+    /**
+     * Returns the nested array as a view on the underlying list without copying it.
+     * Changes to the returned array are visible in this array and vice versa.
+     * Use {@link #copy()} on the result to get a detached copy.
+     */
     public JsonArray getJsonArray(int index) throws ClassCastException {
         var value = contents.get(index);
-        return value instanceof List<?> ? new JsonArray(value) : (JsonArray) value;
+        //noinspection unchecked
+        return value instanceof List<?> ? new JsonArray((List<Object>) value) : (JsonArray) value;
     }
 
     public int size() {
@@ -129,6 +196,13 @@ public class JsonArray {
         return contents.isEmpty();
     }
 
+    /**
+     * Returns a deep copy of this array that shares no nested maps or lists with it.
+     */
+    public JsonArray copy() {
+        return new JsonArray((Object) contents);
+    }
+
     public String encode(boolean pretty) throws EncodeException {
         return JacksonCodec.toString(contents, pretty);
     }
@@ -109,6 +109,90 @@ public class JsonObject {
         return getOrDefault(key, defaultValue, this::getDouble);
     }
 
+    ///
+    /// PRIMITIVE ACCESSORS
+    ///
+
+    /**
+     * Like {@link #getInteger(String)} but without boxing.
+     *
+     * @throws NullPointerException if the key is missing or its value is {@code null}
+     */
+    public int getIntValue(String key) throws ClassCastException, NullPointerException {
+        return ((Number) contents.get(key)).intValue();
+    }
+
+    /**
+     * Like {@link #getInteger(String, Integer)} but without boxing.
+     * The default value is also returned if the value is {@code null}.
+     */
+    public int getIntValue(String key, int defaultValue) throws ClassCastException {
+        var value = contents.get(key);
+        return value == null ? defaultValue : ((Number) value).intValue();
+    }
+
+    public long getLongValue(String key) throws ClassCastException, NullPointerException {
+        return ((Number) contents.get(key)).longValue();
+    }
+
+    public long getLongValue(String key, long defaultValue) throws ClassCastException {
+        var value = contents.get(key);
+        return value == null ? defaultValue : ((Number) value).longValue();
+    }
+
+    public float getFloatValue(String key) throws ClassCastException, NullPointerException {
+        return ((Number) contents.get(key)).floatValue();
+    }
+
+    public float getFloatValue(String key, float defaultValue) throws ClassCastException {
+        var value = contents.get(key);
+        return value == null ? defaultValue : ((Number) value).floatValue();
+    }
+
+    public double getDoubleValue(String key) throws ClassCastException, NullPointerException {
+        return ((Number) contents.get(key)).doubleValue();
+    }
+
+    public double getDoubleValue(String key, double defaultValue) throws ClassCastException {
+        var value = contents.get(key);
+        return value == null ? defaultValue : ((Number) value).doubleValue();
+    }
+
+    public boolean getBooleanValue(String key) throws ClassCastException, NullPointerException {
+        return (Boolean) contents.get(key);
+    }
+
+    public boolean getBooleanValue(String key, boolean defaultValue) throws ClassCastException {
+        var value = contents.get(key);
+        return value == null ? defaultValue : (Boolean) value;
+    }
+
+    /**
+     * Copies the numeric values of the keys into {@code target} without allocating,
+     * i.e. {@code target[i]} receives the value of {@code keys[i]}.
+     *
+     * @param keys         the keys to extract
+     * @param target       the array to fill, must be at least as long as {@code keys}
+     * @param defaultValue the value for missing keys and {@code null} values
+     * @return the given target array
+     */
+    public double[] getDoubleValues(String[] keys, double[] target, double defaultValue) throws ClassCastException {
+        for (int i = 0; i < keys.length; i++) {
+            target[i] = getDoubleValue(keys[i], defaultValue);
+        }
+        return target;
+    }
+
+    /**
+     * Like {@link #getDoubleValues(String[], double[], double)} but for integral values.
+     */
+    public long[] getLongValues(String[] keys, long[] target, long defaultValue) throws ClassCastException {
+        for (int i = 0; i < keys.length; i++) {
+            target[i] = getLongValue(keys[i], defaultValue);
+        }
+        return target;
+    }
+
     public Boolean getBoolean(String key) throws ClassCastException {
         return (Boolean) contents.get(key);
     }
@@ -117,18 +201,30 @@ public class JsonObject {
         return getOrDefault(key, defaultValue, this::getBoolean);
     }
 
+    /**
+     * Returns the nested object as a view on the underlying map without copying it.
+     * Changes to the returned object are visible in this object and vice versa.
+     * Use {@link #copy()} on the result to get a detached copy.
+     */
     public JsonObject getJsonObject(String key) throws ClassCastException {
         var value = contents.get(key);
-        return value instanceof Map<?, ?> ? new JsonObject(value) : (JsonObject) value;
+        //noinspection unchecked
+        return value instanceof Map<?, ?> ? new JsonObject((Map<String, Object>) value) : (JsonObject) value;
     }
 
     public JsonObject getJsonObject(String key, JsonObject defaultValue) throws ClassCastException {
         return getOrDefault(key, defaultValue, this::getJsonObject);
     }
 
+    /**
+     * Returns the nested array as a view on the underlying list without copying it.
+     * Changes to the returned array are visible in this object and vice versa.
+     * Use {@link JsonArray#copy()} on the result to get a detached copy.
+     */
     public JsonArray getJsonArray(String key) throws ClassCastException {
         var value = contents.get(key);
-        return value instanceof List<?> ? new JsonArray(value) : (JsonArray) value;
+        //noinspection unchecked
+        return value instanceof List<?> ? new JsonArray((List<Object>) value) : (JsonArray) value;
     }
 
     public JsonArray getJsonArray(String key, JsonArray defaultValue) throws ClassCastException {
@@ -156,6 +252,13 @@ public class JsonObject {
         return contents.isEmpty();
     }
 
+    /**
+     * Returns a deep copy of this object that shares no nested maps or lists with it.
+     */
+    public JsonObject copy() {
+        return new JsonObject((Object) contents);
+    }
+
     public String encode(boolean pretty) throws EncodeException {
         return JacksonCodec.toString(contents, pretty);
     }
@@ -0,0 +1,444 @@
+package de.wuespace.telestion.client.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.vertx.eventbusclient.Message;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A compiled filter expression over the fields of a message body, e.g.
+ * {@code /status/mode == "SAFE" && /temp > 80}.
+ * <p>
+ * Fields are addressed by JSON pointers ({@code /a/b/0}, with {@code ~0} and {@code ~1} as escapes for {@code ~}
+ * and {@code /}). They can be compared with {@code ==}, {@code !=}, {@code <}, {@code <=}, {@code >}, {@code >=}
+ * to strings, numbers, {@code true}, {@code false}, {@code null} or other pointers, and combined with {@code &&},
+ * {@code ||}, {@code !} and parentheses. A pointer on its own is true if the field exists and is neither
+ * {@code false} nor {@code null}. Missing fields compare like {@code null}, and ordering comparisons are only true
+ * for two numbers or two strings.
+ * <p>
+ * {@link #test(Message)} evaluates the filter in a single streaming pass over the body. Only the referenced fields
+ * are read, unrelated subtrees are skipped and the pass stops as soon as all referenced fields are found.
+ * Binary {@link PayloadFormat payload formats} are parsed straight from their bytes.
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ * {@code
+ * var alarms = MessageFilter.compile("/status/mode == \"SAFE\" && /temp > 80");
+ * client.register("telemetry", alarms, this::raiseAlarm, Telemetry.class);
+ * }
+ * </pre>
+ */
+public final class MessageFilter {
+    private static final Object NULL = new Object();
+    private static final Object CONTAINER = new Object();
+
+    /**
+     * A node of the compiled expression.
+     */
+    private interface Node {
+        boolean test(Object[] values);
+    }
+
+    /**
+     * A node of the trie of all referenced pointers.
+     */
+    private static final class Path {
+        final Map<String, Path> children = new HashMap<>();
+        int slot = -1;
+    }
+
+    private final String expression;
+    private final Node root;
+    private final Path paths = new Path();
+    private final int slots;
+
+    private MessageFilter(String expression) {
+        this.expression = expression;
+        var compiler = new Compiler(expression);
+        this.root = compiler.compile();
+        this.slots = compiler.pointers.size();
+        for (int slot = 0; slot < slots; slot++) {
+            var path = paths;
+            for (var segment : compiler.pointers.get(slot)) {
+                path = path.children.computeIfAbsent(segment, key -> new Path());
+            }
+            path.slot = slot;
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the expression is malformed
+     */
+    public static MessageFilter compile(String expression) throws IllegalArgumentException {
+        return new MessageFilter(Objects.requireNonNull(expression));
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * Evaluates the filter on the body of the message, in the {@link PayloadFormat} announced in its headers.
+     *
+     * @throws DecodeException if the body is malformed
+     */
+    public boolean test(Message<?> message) throws DecodeException {
+        var format = PayloadFormat.fromHeaders(message.headers());
+        if (format.isBinary()) {
+            return test(PayloadFormat.bodyBytes(message.body()), format);
+        }
+        return test(message.body());
+    }
+
+    /**
+     * Evaluates the filter on plain Java values as decoded from JSON.
+     * A string is a value like any other scalar and not parsed as JSON, so all fields are missing in it.
+     * Encoded bodies are evaluated with {@link #test(byte[], PayloadFormat)}.
+     *
+     * @throws DecodeException if the body is malformed
+     */
+    public boolean test(Object body) throws DecodeException {
+        try (var parser = new ObjectTraversingParser(body, JacksonCodec.getMapper())) {
+            return test(parser);
+        } catch (IOException e) {
+            throw new DecodeException(e);
+        }
+    }
+
+    /**
+     * Evaluates the filter on an encoded body.
+     *
+     * @throws DecodeException if the body is malformed
+     */
+    public boolean test(byte[] body, PayloadFormat format) throws DecodeException {
+        try (var parser = JacksonCodec.getMapper(format).getFactory().createParser(body)) {
+            return test(parser);
+        } catch (IOException e) {
+            throw new DecodeException(e);
+        }
+    }
+
+    private boolean test(JsonParser parser) throws IOException {
+        var values = new Object[slots];
+        if (slots > 0 && parser.nextToken() != null) {
+            read(parser, paths, values, new int[]{slots});
+        }
+        return root.test(values);
+    }
+
+    ///
+    /// STREAMING SECTION
+    ///
+
+    /**
+     * Reads the value at the current token, which belongs to the given path.
+     *
+     * @param remaining the number of referenced fields that are not found yet
+     * @return {@code true} if all referenced fields are found and the pass can stop
+     */
+    private static boolean read(JsonParser parser, Path path, Object[] values, int[] remaining) throws IOException {
+        var token = parser.currentToken();
+        if (path.slot >= 0) {
+            values[path.slot] = scalar(parser, token);
+            if (--remaining[0] == 0) {
+                return true;
+            }
+        }
+
+        if (token == JsonToken.START_OBJECT) {
+            if (path.children.isEmpty()) {
+                parser.skipChildren();
+                return false;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                var child = path.children.get(parser.currentName());
+                parser.nextToken();
+                if (child == null) {
+                    parser.skipChildren();
+                } else if (read(parser, child, values, remaining)) {
+                    return true;
+                }
+            }
+        } else if (token == JsonToken.START_ARRAY) {
+            if (path.children.isEmpty()) {
+                parser.skipChildren();
+                return false;
+            }
+            for (int index = 0; parser.nextToken() != JsonToken.END_ARRAY; index++) {
+                var child = path.children.get(Integer.toString(index));
+                if (child == null) {
+                    parser.skipChildren();
+                } else if (read(parser, child, values, remaining)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Object scalar(JsonParser parser, JsonToken token) throws IOException {
+        return switch (token) {
+            case VALUE_STRING -> parser.getText();
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> parser.getDoubleValue();
+            case VALUE_TRUE -> Boolean.TRUE;
+            case VALUE_FALSE -> Boolean.FALSE;
+            case VALUE_NULL -> NULL;
+            default -> CONTAINER;
+        };
+    }
+
+    ///
+    /// EVALUATION SECTION
+    ///
+
+    private enum Operator {
+        EQ("=="), NE("!="), LT("<"), LE("<="), GT(">"), GE(">=");
+
+        private final String symbol;
+
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        boolean apply(Object left, Object right) {
+            // missing fields compare like null
+            left = left == null ? NULL : left;
+            right = right == null ? NULL : right;
+            return switch (this) {
+                case EQ -> same(left, right);
+                case NE -> !same(left, right);
+                default -> {
+                    int comparison;
+                    if (left instanceof Double l && right instanceof Double r) {
+                        if (l.isNaN() || r.isNaN()) {
+                            yield false;
+                        }
+                        comparison = Double.compare(l, r);
+                    } else if (left instanceof String l && right instanceof String r) {
+                        comparison = l.compareTo(r);
+                    } else {
+                        yield false;
+                    }
+                    yield switch (this) {
+                        case LT -> comparison < 0;
+                        case LE -> comparison <= 0;
+                        case GT -> comparison > 0;
+                        default -> comparison >= 0;
+                    };
+                }
+            };
+        }
+
+        private static boolean same(Object left, Object right) {
+            if (left instanceof Double l && right instanceof Double r) {
+                return l.doubleValue() == r.doubleValue();
+            }
+            return left.equals(right);
+        }
+    }
+
+    /**
+     * An operand of a comparison, either a pointer slot or a constant.
+     */
+    private record Operand(int slot, Object constant) {
+        Object get(Object[] values) {
+            return slot >= 0 ? values[slot] : constant;
+        }
+    }
+
+    ///
+    /// COMPILATION SECTION
+    ///
+
+    private static final class Compiler {
+        private final String source;
+        private final List<List<String>> pointers = new ArrayList<>();
+        private int position;
+
+        Compiler(String source) {
+            this.source = source;
+        }
+
+        Node compile() {
+            var node = or();
+            skipWhitespace();
+            if (position < source.length()) {
+                throw error("Unexpected input");
+            }
+            return node;
+        }
+
+        private Node or() {
+            var left = and();
+            while (accept("||")) {
+                var l = left;
+                var r = and();
+                left = values -> l.test(values) || r.test(values);
+            }
+            return left;
+        }
+
+        private Node and() {
+            var left = unary();
+            while (accept("&&")) {
+                var l = left;
+                var r = unary();
+                left = values -> l.test(values) && r.test(values);
+            }
+            return left;
+        }
+
+        private Node unary() {
+            if (accept("!")) {
+                var operand = unary();
+                return values -> !operand.test(values);
+            }
+            if (accept("(")) {
+                var inner = or();
+                expect(")");
+                return inner;
+            }
+            return comparison();
+        }
+
+        private Node comparison() {
+            var left = operand();
+            for (var operator : new Operator[]{Operator.EQ, Operator.NE, Operator.LE, Operator.GE, Operator.LT, Operator.GT}) {
+                if (accept(operator.symbol)) {
+                    var right = operand();
+                    return values -> operator.apply(left.get(values), right.get(values));
+                }
+            }
+            if (left.slot() < 0) {
+                throw error("Expected a comparison");
+            }
+            return values -> {
+                var value = left.get(values);
+                return value != null && value != NULL && value != Boolean.FALSE;
+            };
+        }
+
+        private Operand operand() {
+            skipWhitespace();
+            if (position >= source.length()) {
+                throw error("Expected an operand");
+            }
+            var c = source.charAt(position);
+            if (c == '/') {
+                return new Operand(pointer(), null);
+            }
+            if (c == '"') {
+                return new Operand(-1, string());
+            }
+            if (c == '-' || c == '.' || Character.isDigit(c)) {
+                return new Operand(-1, number());
+            }
+            if (acceptWord("true")) {
+                return new Operand(-1, Boolean.TRUE);
+            }
+            if (acceptWord("false")) {
+                return new Operand(-1, Boolean.FALSE);
+            }
+            if (acceptWord("null")) {
+                return new Operand(-1, NULL);
+            }
+            throw error("Expected a pointer, string, number, true, false or null");
+        }
+
+        private int pointer() {
+            var segments = new ArrayList<String>();
+            while (position < source.length() && source.charAt(position) == '/') {
+                var start = ++position;
+                while (position < source.length() && isSegmentChar(source.charAt(position))) {
+                    position++;
+                }
+                segments.add(source.substring(start, position).replace("~1", "/").replace("~0", "~"));
+            }
+            var slot = pointers.indexOf(segments);
+            if (slot < 0) {
+                slot = pointers.size();
+                pointers.add(segments);
+            }
+            return slot;
+        }
+
+        private static boolean isSegmentChar(char c) {
+            return Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '.' || c == '~' || c == '$';
+        }
+
+        private String string() {
+            var builder = new StringBuilder();
+            position++;
+            while (position < source.length()) {
+                var c = source.charAt(position++);
+                if (c == '"') {
+                    return builder.toString();
+                }
+                if (c == '\\' && position < source.length()) {
+                    c = source.charAt(position++);
+                }
+                builder.append(c);
+            }
+            throw error("Unterminated string");
+        }
+
+        private Double number() {
+            var start = position;
+            while (position < source.length() && "+-.eE0123456789".indexOf(source.charAt(position)) >= 0) {
+                position++;
+            }
+            try {
+                return Double.valueOf(source.substring(start, position));
+            } catch (NumberFormatException e) {
+                position = start;
+                throw error("Malformed number");
+            }
+        }
+
+        private boolean accept(String token) {
+            skipWhitespace();
+            if (source.startsWith(token, position)) {
+                position += token.length();
+                return true;
+            }
+            return false;
+        }
+
+        private boolean acceptWord(String word) {
+            var end = position + word.length();
+            if (source.startsWith(word, position)
+                    && (end == source.length() || !Character.isLetterOrDigit(source.charAt(end)))) {
+                position = end;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(String token) {
+            if (!accept(token)) {
+                throw error("Expected '" + token + "'");
+            }
+        }
+
+        private void skipWhitespace() {
+            while (position < source.length() && Character.isWhitespace(source.charAt(position))) {
+                position++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + position + " of filter: " + source);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
@@ -0,0 +1,406 @@
+package de.wuespace.telestion.client.json;
+
+import com.fasterxml.jackson.core.*;
+import com.fasterxml.jackson.core.base.ParserMinimalBase;
+import com.fasterxml.jackson.databind.cfg.PackageVersion;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link JsonParser} that walks a plain Java object graph ({@link Map}, {@link List}, {@link String},
+ * {@link Number}, {@link Boolean} and {@code null}) as it would be produced by decoding JSON into untyped values.
+ * <p>
+ * Jackson's {@code ObjectMapper#convertValue} first serializes the source graph into a token buffer and then
+ * replays the buffer into the deserializer. This parser feeds the tokens to the deserializer directly, so every
+ * conversion only walks the source graph once.
+ * <p>
+ * Values of any other type are reported as {@link JsonToken#VALUE_EMBEDDED_OBJECT}.
+ */
+final class ObjectTraversingParser extends ParserMinimalBase {
+
+    private ObjectCodec codec;
+
+    private Context context;
+
+    /**
+     * The value that belongs to the current token or the pending value after a {@link JsonToken#FIELD_NAME}.
+     */
+    private Object currentValue;
+
+    private boolean closed;
+
+    ObjectTraversingParser(Object root, ObjectCodec codec) {
+        this.codec = codec;
+        this.context = new Context(null, Context.ROOT, null, null);
+        this.context.pending = root;
+        this.context.hasPending = true;
+    }
+
+    ///
+    /// TRAVERSAL SECTION
+    ///
+
+    @Override
+    public JsonToken nextToken() throws IOException {
+        if (closed || context == null) {
+            return _currToken = null;
+        }
+
+        if (context.hasPending) {
+            // emit value of root or after field name
+            context.hasPending = false;
+            var value = context.pending;
+            context.pending = null;
+            return _currToken = valueToken(value);
+        }
+
+        if (context.inObject()) {
+            var entries = context.entries;
+            if (entries.hasNext()) {
+                var entry = entries.next();
+                context.name = String.valueOf(entry.getKey());
+                context.pending = entry.getValue();
+                context.hasPending = true;
+                currentValue = null;
+                return _currToken = JsonToken.FIELD_NAME;
+            }
+            context = context.parent;
+            currentValue = null;
+            return _currToken = JsonToken.END_OBJECT;
+        }
+
+        if (context.inArray()) {
+            var elements = context.elements;
+            if (elements.hasNext()) {
+                context.advance();
+                return _currToken = valueToken(elements.next());
+            }
+            context = context.parent;
+            currentValue = null;
+            return _currToken = JsonToken.END_ARRAY;
+        }
+
+        // root context exhausted
+        context = null;
+        return _currToken = null;
+    }
+
+    private JsonToken valueToken(Object value) {
+        currentValue = value;
+        if (value == null) {
+            return JsonToken.VALUE_NULL;
+        }
+        if (value instanceof String) {
+            return JsonToken.VALUE_STRING;
+        }
+        if (value instanceof Map<?, ?> map) {
+            context = new Context(context, Context.OBJECT, map.entrySet().iterator(), null);
+            return JsonToken.START_OBJECT;
+        }
+        if (value instanceof List<?> list) {
+            context = new Context(context, Context.ARRAY, null, list.iterator());
+            return JsonToken.START_ARRAY;
+        }
+        if (value instanceof JsonObject object) {
+            return valueToken(object.getContents());
+        }
+        if (value instanceof JsonArray array) {
+            return valueToken(array.getContents());
+        }
+        if (value instanceof Boolean bool) {
+            return bool ? JsonToken.VALUE_TRUE : JsonToken.VALUE_FALSE;
+        }
+        if (value instanceof Integer || value instanceof Long || value instanceof Short
+                || value instanceof Byte || value instanceof BigInteger) {
+            return JsonToken.VALUE_NUMBER_INT;
+        }
+        if (value instanceof Number) {
+            return JsonToken.VALUE_NUMBER_FLOAT;
+        }
+        return JsonToken.VALUE_EMBEDDED_OBJECT;
+    }
+
+    @Override
+    public JsonParser skipChildren() throws IOException {
+        if (_currToken == JsonToken.START_OBJECT || _currToken == JsonToken.START_ARRAY) {
+            // drop the nested context entirely instead of iterating it
+            context = context.parent;
+            currentValue = null;
+            _currToken = _currToken == JsonToken.START_OBJECT ? JsonToken.END_OBJECT : JsonToken.END_ARRAY;
+        }
+        return this;
+    }
+
+    @Override
+    protected void _handleEOF() {
+        // nothing to do, the object graph is always complete
+    }
+
+    ///
+    /// CONTEXT SECTION
+    ///
+
+    @Override
+    public String getCurrentName() {
+        if (_currToken == JsonToken.START_OBJECT || _currToken == JsonToken.START_ARRAY) {
+            return context.parent == null ? null : context.parent.name;
+        }
+        return context == null ? null : context.name;
+    }
+
+    @Override
+    public void overrideCurrentName(String name) {
+        if (context != null) {
+            context.name = name;
+        }
+    }
+
+    @Override
+    public JsonStreamContext getParsingContext() {
+        return context;
+    }
+
+    @Override
+    public JsonLocation getTokenLocation() {
+        return JsonLocation.NA;
+    }
+
+    @Override
+    public JsonLocation getCurrentLocation() {
+        return JsonLocation.NA;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        context = null;
+        currentValue = null;
+        _currToken = null;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public ObjectCodec getCodec() {
+        return codec;
+    }
+
+    @Override
+    public void setCodec(ObjectCodec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public Version version() {
+        return PackageVersion.VERSION;
+    }
+
+    ///
+    /// TEXT SECTION
+    ///
+
+    @Override
+    public String getText() {
+        if (_currToken == null) {
+            return null;
+        }
+        return switch (_currToken) {
+            case FIELD_NAME -> context.name;
+            case VALUE_STRING, VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT, VALUE_EMBEDDED_OBJECT -> currentValue == null
+                    ? null
+                    : currentValue.toString();
+            default -> _currToken.asString();
+        };
+    }
+
+    @Override
+    public char[] getTextCharacters() {
+        var text = getText();
+        return text == null ? null : text.toCharArray();
+    }
+
+    @Override
+    public int getTextLength() {
+        var text = getText();
+        return text == null ? 0 : text.length();
+    }
+
+    @Override
+    public int getTextOffset() {
+        return 0;
+    }
+
+    @Override
+    public boolean hasTextCharacters() {
+        return false;
+    }
+
+    ///
+    /// VALUE SECTION
+    ///
+
+    @Override
+    public Number getNumberValue() throws IOException {
+        return currentNumber();
+    }
+
+    @Override
+    public NumberType getNumberType() throws IOException {
+        var number = currentNumber();
+        if (number instanceof Integer || number instanceof Short || number instanceof Byte) {
+            return NumberType.INT;
+        }
+        if (number instanceof Long) {
+            return NumberType.LONG;
+        }
+        if (number instanceof BigInteger) {
+            return NumberType.BIG_INTEGER;
+        }
+        if (number instanceof Float) {
+            return NumberType.FLOAT;
+        }
+        if (number instanceof BigDecimal) {
+            return NumberType.BIG_DECIMAL;
+        }
+        return NumberType.DOUBLE;
+    }
+
+    @Override
+    public int getIntValue() throws IOException {
+        var number = currentNumber();
+        if (number instanceof Integer value) {
+            return value;
+        }
+        // like TreeTraversingParser, fractions are truncated and only values out of range fail
+        var value = number.longValue();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            reportOverflowInt(number.toString());
+        }
+        return (int) value;
+    }
+
+    @Override
+    public long getLongValue() throws IOException {
+        var number = currentNumber();
+        if (number instanceof Long value) {
+            return value;
+        }
+        if (number instanceof BigInteger value && value.bitLength() > 63) {
+            reportOverflowLong(number.toString());
+        }
+        return number.longValue();
+    }
+
+    @Override
+    public BigInteger getBigIntegerValue() throws IOException {
+        var number = currentNumber();
+        if (number instanceof BigInteger value) {
+            return value;
+        }
+        if (number instanceof BigDecimal value) {
+            return value.toBigInteger();
+        }
+        return BigInteger.valueOf(number.longValue());
+    }
+
+    @Override
+    public float getFloatValue() throws IOException {
+        return currentNumber().floatValue();
+    }
+
+    @Override
+    public double getDoubleValue() throws IOException {
+        return currentNumber().doubleValue();
+    }
+
+    @Override
+    public BigDecimal getDecimalValue() throws IOException {
+        var number = currentNumber();
+        if (number instanceof BigDecimal value) {
+            return value;
+        }
+        if (number instanceof BigInteger value) {
+            return new BigDecimal(value);
+        }
+        if (number instanceof Double || number instanceof Float) {
+            return BigDecimal.valueOf(number.doubleValue());
+        }
+        return BigDecimal.valueOf(number.longValue());
+    }
+
+    @Override
+    public Object getEmbeddedObject() {
+        return _currToken == JsonToken.VALUE_EMBEDDED_OBJECT ? currentValue : null;
+    }
+
+    @Override
+    public byte[] getBinaryValue(Base64Variant variant) throws IOException {
+        if (currentValue instanceof byte[] bytes) {
+            return bytes;
+        }
+        if (_currToken != JsonToken.VALUE_STRING) {
+            _reportError("Current token (" + _currToken + ") not VALUE_STRING or VALUE_EMBEDDED_OBJECT, "
+                    + "can not access as binary");
+        }
+        try {
+            return variant.decode((String) currentValue);
+        } catch (IllegalArgumentException e) {
+            _reportError(e.getMessage());
+            return null;
+        }
+    }
+
+    private Number currentNumber() throws IOException {
+        if (!(currentValue instanceof Number)) {
+            _reportError("Current token (" + _currToken + ") not numeric, can not use numeric value accessors");
+        }
+        return (Number) currentValue;
+    }
+
+    /**
+     * Parsing context that holds the iterator over the currently traversed container.
+     */
+    private static final class Context extends JsonStreamContext {
+        private static final int ROOT = TYPE_ROOT;
+        private static final int OBJECT = TYPE_OBJECT;
+        private static final int ARRAY = TYPE_ARRAY;
+
+        private final Context parent;
+        private final Iterator<? extends Map.Entry<?, ?>> entries;
+        private final Iterator<?> elements;
+
+        private String name;
+        private Object pending;
+        private boolean hasPending;
+
+        private Context(Context parent, int type, Iterator<? extends Map.Entry<?, ?>> entries,
+                        Iterator<?> elements) {
+            super(type, -1);
+            this.parent = parent;
+            this.entries = entries;
+            this.elements = elements;
+        }
+
+        private void advance() {
+            _index++;
+        }
+
+        @Override
+        public JsonStreamContext getParent() {
+            return parent;
+        }
+
+        @Override
+        public String getCurrentName() {
+            return name;
+        }
+    }
+}
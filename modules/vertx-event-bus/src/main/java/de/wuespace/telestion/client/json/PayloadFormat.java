@@ -0,0 +1,76 @@
+package de.wuespace.telestion.client.json;
+
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * The encoding of a message body.
+ * <p>
+ * Binary formats are announced with the {@value #HEADER} header of the message.
+ * Because the bridge frames are JSON, a binary body travels as a Base64 string inside the frame.
+ * Messages without the header or with an unknown content type are treated as {@link #JSON}.
+ */
+public enum PayloadFormat {
+    JSON("application/json"),
+    CBOR("application/cbor"),
+    SMILE("application/x-jackson-smile");
+
+    public static final String HEADER = "content-type";
+
+    /**
+     * Returns the format for the content type or {@link #JSON} if the content type is unknown or {@code null}.
+     */
+    public static PayloadFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            for (var format : values()) {
+                if (format.contentType.equalsIgnoreCase(contentType)) {
+                    return format;
+                }
+            }
+        }
+        return JSON;
+    }
+
+    /**
+     * Returns the format announced in the message headers or {@link #JSON} if there is none.
+     */
+    public static PayloadFormat fromHeaders(Map<String, String> headers) {
+        return headers == null ? JSON : fromContentType(headers.get(HEADER));
+    }
+
+    /**
+     * Extracts the raw bytes of a binary message body.
+     *
+     * @param body the body as received from the bridge, either a Base64 string or a byte array
+     * @return the raw bytes
+     * @throws DecodeException if the body does not contain binary data
+     */
+    public static byte[] bodyBytes(Object body) throws DecodeException {
+        if (body instanceof byte[] bytes) {
+            return bytes;
+        }
+        if (body instanceof String text) {
+            try {
+                return Base64.getDecoder().decode(text);
+            } catch (IllegalArgumentException e) {
+                throw new DecodeException("Binary message body is not valid Base64", e);
+            }
+        }
+        throw new DecodeException("Binary message body must be a Base64 string but was "
+                + (body == null ? "null" : body.getClass().getName()));
+    }
+
+    private final String contentType;
+
+    PayloadFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public boolean isBinary() {
+        return this != JSON;
+    }
+}
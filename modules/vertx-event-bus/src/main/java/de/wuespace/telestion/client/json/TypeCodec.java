@@ -0,0 +1,151 @@
+package de.wuespace.telestion.client.json;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A codec for exactly one type with pre-resolved Jackson {@link ObjectReader} and {@link ObjectWriter} instances.
+ * <p>
+ * Instances are created and cached by {@link JacksonCodec#prepare(Class)}.
+ * The (de)serializers of the type are resolved eagerly on construction,
+ * so the first message does not pay for the introspection of the type.
+ *
+ * @param <T> the type this codec encodes and decodes
+ */
+public final class TypeCodec<T> {
+    private final Class<T> type;
+    private final ObjectMapper mapper;
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+    private final ObjectWriter prettyWriter;
+
+    /**
+     * Readers and writers per {@link PayloadFormat}, created on first use of the format.
+     */
+    private final ObjectReader[] formatReaders = new ObjectReader[PayloadFormat.values().length];
+    private final ObjectWriter[] formatWriters = new ObjectWriter[PayloadFormat.values().length];
+
+    TypeCodec(Class<T> type, ObjectMapper mapper, ObjectMapper prettyMapper) {
+        this.type = type;
+        this.mapper = mapper;
+        this.reader = mapper.readerFor(type);
+        this.writer = mapper.writerFor(type);
+        this.prettyWriter = prettyMapper.writerFor(type);
+        this.formatReaders[PayloadFormat.JSON.ordinal()] = reader;
+        this.formatWriters[PayloadFormat.JSON.ordinal()] = writer;
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    public ObjectReader getReader() {
+        return reader;
+    }
+
+    public ObjectWriter getWriter() {
+        return writer;
+    }
+
+    public ObjectWriter getPrettyWriter() {
+        return prettyWriter;
+    }
+
+    public ObjectReader getReader(PayloadFormat format) {
+        var formatReader = formatReaders[format.ordinal()];
+        if (formatReader == null) {
+            // readers are immutable, a concurrent duplicate creation is harmless
+            formatReader = JacksonCodec.getMapper(format).readerFor(type);
+            formatReaders[format.ordinal()] = formatReader;
+        }
+        return formatReader;
+    }
+
+    public ObjectWriter getWriter(PayloadFormat format) {
+        var formatWriter = formatWriters[format.ordinal()];
+        if (formatWriter == null) {
+            formatWriter = JacksonCodec.getMapper(format).writerFor(type);
+            formatWriters[format.ordinal()] = formatWriter;
+        }
+        return formatWriter;
+    }
+
+    public T decode(byte[] bytes, PayloadFormat format) throws DecodeException {
+        try {
+            return getReader(format).readValue(bytes);
+        } catch (IOException e) {
+            throw new DecodeException(e);
+        }
+    }
+
+    public byte[] encode(T value, PayloadFormat format) throws EncodeException {
+        try {
+            return getWriter(format).writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new EncodeException(e);
+        }
+    }
+
+    public T decode(String json) throws DecodeException {
+        try {
+            return reader.readValue(json);
+        } catch (JsonProcessingException e) {
+            throw new DecodeException(e);
+        }
+    }
+
+    /**
+     * Decodes a plain object into the type of this codec.
+     * <p>
+     * Decoded JSON ({@link Map}, {@link List} and scalar values) and {@link JsonNode} trees are read directly
+     * without an intermediate buffer. All other objects are converted via {@link ObjectMapper#convertValue}.
+     *
+     * @param json the plain object to decode
+     * @return the decoded value or {@code null} if {@code json} is {@code null}
+     * @throws DecodeException if the object cannot be represented by the type of this codec
+     */
+    public T decode(Object json) throws DecodeException {
+        if (json == null) {
+            return null;
+        }
+
+        try {
+            if (json instanceof JsonNode node) {
+                return reader.readValue(node);
+            }
+            if (isTraversable(json)) {
+                try (var parser = new ObjectTraversingParser(json, mapper)) {
+                    return reader.readValue(parser);
+                }
+            }
+            return mapper.convertValue(json, type);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new DecodeException(e);
+        }
+    }
+
+    public String encode(T value, boolean pretty) throws EncodeException {
+        try {
+            return pretty ? prettyWriter.writeValueAsString(value) : writer.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new EncodeException(e);
+        }
+    }
+
+    public String encode(T value) throws EncodeException {
+        return encode(value, false);
+    }
+
+    private static boolean isTraversable(Object json) {
+        return json instanceof Map<?, ?> || json instanceof List<?> || json instanceof String
+                || json instanceof Number || json instanceof Boolean
+                || json instanceof JsonObject || json instanceof JsonArray;
+    }
+}
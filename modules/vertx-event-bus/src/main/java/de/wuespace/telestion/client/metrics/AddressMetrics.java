@@ -0,0 +1,86 @@
+package de.wuespace.telestion.client.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and handler execution times of one event bus address.
+ * All recording methods are lock-free and do not allocate.
+ */
+public final class AddressMetrics {
+    private final String address;
+    private final LongAdder messagesIn = new LongAdder();
+    private final LongAdder messagesOut = new LongAdder();
+    private final LongAdder messagesDropped = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private final LatencyHistogram handlerTime = new LatencyHistogram();
+
+    AddressMetrics(String address) {
+        this.address = address;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public void recordMessageIn() {
+        messagesIn.increment();
+    }
+
+    /**
+     * Records a received message that was dropped before it reached the handlers.
+     */
+    public void recordMessageDropped() {
+        messagesDropped.increment();
+    }
+
+    public void recordMessageOut() {
+        messagesOut.increment();
+    }
+
+    public void recordMessagesOut(long count) {
+        messagesOut.add(count);
+    }
+
+    /**
+     * @param bytes the size of the received frame
+     */
+    public void recordBytesIn(long bytes) {
+        bytesIn.add(bytes);
+    }
+
+    /**
+     * @param bytes the size of the sent frame
+     */
+    public void recordBytesOut(long bytes) {
+        bytesOut.add(bytes);
+    }
+
+    public void recordHandlerTime(long nanos) {
+        handlerTime.record(nanos);
+    }
+
+    public long getMessagesIn() {
+        return messagesIn.sum();
+    }
+
+    public long getMessagesDropped() {
+        return messagesDropped.sum();
+    }
+
+    public long getMessagesOut() {
+        return messagesOut.sum();
+    }
+
+    public long getBytesIn() {
+        return bytesIn.sum();
+    }
+
+    public long getBytesOut() {
+        return bytesOut.sum();
+    }
+
+    public LatencyHistogram getHandlerTime() {
+        return handlerTime;
+    }
+}
@@ -0,0 +1,151 @@
+package de.wuespace.telestion.client.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The metrics of one event bus client.
+ * <p>
+ * Recording is lock-free and does not allocate once an address was seen for the first time, so it is safe
+ * to call on the I/O thread for every message. The values can be pulled with {@link #snapshot()}
+ * or via JMX after {@link #registerMBean(String)}.
+ * The encode and decode statistics of the message types are global, see {@link TypeMetrics}.
+ */
+public class ClientMetrics implements ClientMetricsMXBean {
+    /**
+     * The domain of the object names registered by {@link #registerMBean(String)}.
+     */
+    public static final String JMX_DOMAIN = "de.wuespace.telestion.client";
+
+    private final Map<String, AddressMetrics> addresses = new ConcurrentHashMap<>();
+    private final AtomicLongArray transitions = new AtomicLongArray(ConnectionState.values().length);
+    private final AtomicLong droppedFrames = new AtomicLong();
+    private volatile ConnectionState state = ConnectionState.NEW;
+    private volatile long stateSince = System.currentTimeMillis();
+    private ObjectName objectName;
+
+    /**
+     * Returns the metrics of the address and creates them on first use.
+     */
+    public AddressMetrics address(String address) {
+        var metrics = addresses.get(address);
+        return metrics != null ? metrics : addresses.computeIfAbsent(address, AddressMetrics::new);
+    }
+
+    public Collection<AddressMetrics> getAddressMetrics() {
+        return addresses.values();
+    }
+
+    /**
+     * Records a transition of the connection into the given state. Repeated reports of the current state are ignored.
+     */
+    public void recordState(ConnectionState state) {
+        if (this.state == state) {
+            return;
+        }
+        this.state = state;
+        this.stateSince = System.currentTimeMillis();
+        transitions.incrementAndGet(state.ordinal());
+    }
+
+    public ConnectionState getState() {
+        return state;
+    }
+
+    /**
+     * Returns how often the connection changed into the given state.
+     */
+    public long getTransitions(ConnectionState state) {
+        return transitions.get(state.ordinal());
+    }
+
+    /**
+     * Records frames that were accepted for writing but dropped because the connection was lost before they were sent.
+     */
+    public void recordDroppedFrames(long count) {
+        droppedFrames.addAndGet(count);
+    }
+
+    @Override
+    public long getDroppedFrames() {
+        return droppedFrames.get();
+    }
+
+    /**
+     * Returns a consistent-enough copy of all metrics of this client and of all known message types.
+     * The histograms are not reset.
+     */
+    public MetricsSnapshot snapshot() {
+        return new MetricsSnapshot(this);
+    }
+
+    ///
+    /// JMX SECTION
+    ///
+
+    /**
+     * Registers these metrics at the platform MBean server under
+     * {@code de.wuespace.telestion.client:type=EventBusClient,name=<name>}.
+     * A failed registration is logged and otherwise ignored.
+     */
+    public synchronized ClientMetrics registerMBean(String name) {
+        unregisterMBean();
+        try {
+            var objectName = new ObjectName(JMX_DOMAIN + ":type=EventBusClient,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            this.objectName = objectName;
+        } catch (JMException e) {
+            logger.warn("Cannot register the client metrics {} via JMX:", name, e);
+        }
+        return this;
+    }
+
+    public synchronized ClientMetrics unregisterMBean() {
+        if (objectName == null) {
+            return this;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            logger.warn("Cannot unregister the client metrics {} from JMX:", objectName, e);
+        }
+        objectName = null;
+        return this;
+    }
+
+    @Override
+    public String getConnectionState() {
+        return state.name();
+    }
+
+    @Override
+    public long getConnectionStateSince() {
+        return stateSince;
+    }
+
+    @Override
+    public Map<String, Long> getStateTransitions() {
+        return snapshot().getStateTransitions();
+    }
+
+    @Override
+    public Map<String, MetricsSnapshot.AddressSnapshot> getAddresses() {
+        return snapshot().getAddresses();
+    }
+
+    @Override
+    public Map<String, MetricsSnapshot.TypeSnapshot> getMessageTypes() {
+        return snapshot().getMessageTypes();
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(ClientMetrics.class);
+}
@@ -0,0 +1,26 @@
+package de.wuespace.telestion.client.metrics;
+
+import java.util.Map;
+
+/**
+ * The JMX view of the {@link ClientMetrics}. All latencies are in nanoseconds.
+ */
+public interface ClientMetricsMXBean {
+    String getConnectionState();
+
+    /**
+     * @return the time of the last state transition in milliseconds since the epoch
+     */
+    long getConnectionStateSince();
+
+    Map<String, Long> getStateTransitions();
+
+    /**
+     * @return the number of frames that were accepted for writing but lost with the connection
+     */
+    long getDroppedFrames();
+
+    Map<String, MetricsSnapshot.AddressSnapshot> getAddresses();
+
+    Map<String, MetricsSnapshot.TypeSnapshot> getMessageTypes();
+}
@@ -0,0 +1,24 @@
+package de.wuespace.telestion.client.metrics;
+
+/**
+ * The states of the connection between an event bus client and the bridge.
+ */
+public enum ConnectionState {
+    /**
+     * The client was created but never connected.
+     */
+    NEW,
+    CONNECTED,
+    /**
+     * The connection was lost unexpectedly.
+     */
+    DISCONNECTED,
+    /**
+     * The client tries to reconnect after the connection was lost.
+     */
+    RECONNECTING,
+    /**
+     * The client was closed by the application.
+     */
+    CLOSED
+}
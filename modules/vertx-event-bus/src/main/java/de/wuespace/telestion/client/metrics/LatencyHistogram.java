@@ -0,0 +1,109 @@
+package de.wuespace.telestion.client.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free log-linear histogram for latencies in nanoseconds.
+ * <p>
+ * Values are grouped in power-of-two ranges which are split into {@value #SUB_BUCKETS} linear sub-buckets,
+ * so every recorded value is accurate to about 3%.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(64 * SUB_BUCKETS);
+
+    public void record(long nanos) {
+        counts.incrementAndGet(index(Math.max(nanos, 0)));
+    }
+
+    /**
+     * Returns a copy of all recorded values without resetting the histogram.
+     */
+    public Snapshot snapshot() {
+        var copy = new long[counts.length()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = counts.get(i);
+        }
+        return new Snapshot(copy);
+    }
+
+    /**
+     * Returns the recorded values since the last call and resets the histogram.
+     */
+    public Snapshot snapshotAndReset() {
+        var copy = new long[counts.length()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = counts.getAndSet(i, 0);
+        }
+        return new Snapshot(copy);
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        var shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        var subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long lowerBound(int index) {
+        var bucket = index / SUB_BUCKETS;
+        var subBucket = index % SUB_BUCKETS;
+        if (bucket == 0) {
+            return subBucket;
+        }
+        return ((long) (SUB_BUCKETS + subBucket)) << (bucket - 1);
+    }
+
+    /**
+     * An immutable copy of the histogram counts.
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long total;
+
+        private Snapshot(long[] counts) {
+            this.counts = counts;
+            var sum = 0L;
+            for (var count : counts) {
+                sum += count;
+            }
+            this.total = sum;
+        }
+
+        public long getCount() {
+            return total;
+        }
+
+        /**
+         * @param percentile the percentile between {@code 0} and {@code 100}
+         * @return the value in nanoseconds at the given percentile or {@code 0} if nothing was recorded
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (total == 0) {
+                return 0;
+            }
+            var target = Math.max(1, (long) Math.ceil(total * Math.min(percentile, 100.0) / 100.0));
+            var cumulative = 0L;
+            for (int i = 0; i < counts.length; i++) {
+                cumulative += counts[i];
+                if (cumulative >= target) {
+                    return lowerBound(i);
+                }
+            }
+            return lowerBound(counts.length - 1);
+        }
+
+        public long getMax() {
+            for (int i = counts.length - 1; i >= 0; i--) {
+                if (counts[i] > 0) {
+                    return lowerBound(i);
+                }
+            }
+            return 0;
+        }
+    }
+}
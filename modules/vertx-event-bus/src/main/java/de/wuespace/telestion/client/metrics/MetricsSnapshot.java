@@ -0,0 +1,190 @@
+package de.wuespace.telestion.client.metrics;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An immutable copy of the {@link ClientMetrics} of one client and the {@link TypeMetrics} of all message types.
+ * All latencies are in nanoseconds.
+ */
+public final class MetricsSnapshot {
+    private final ConnectionState connectionState;
+    private final long connectionStateSince;
+    private final Map<String, Long> stateTransitions;
+    private final long droppedFrames;
+    private final Map<String, AddressSnapshot> addresses;
+    private final Map<String, TypeSnapshot> messageTypes;
+
+    MetricsSnapshot(ClientMetrics metrics) {
+        this.connectionState = metrics.getState();
+        this.connectionStateSince = metrics.getConnectionStateSince();
+
+        var stateTransitions = new LinkedHashMap<String, Long>();
+        for (var state : ConnectionState.values()) {
+            stateTransitions.put(state.name(), metrics.getTransitions(state));
+        }
+        this.stateTransitions = Collections.unmodifiableMap(stateTransitions);
+        this.droppedFrames = metrics.getDroppedFrames();
+
+        var addresses = new TreeMap<String, AddressSnapshot>();
+        for (var address : metrics.getAddressMetrics()) {
+            addresses.put(address.getAddress(), new AddressSnapshot(address));
+        }
+        this.addresses = Collections.unmodifiableMap(addresses);
+
+        var messageTypes = new TreeMap<String, TypeSnapshot>();
+        for (var type : TypeMetrics.all()) {
+            messageTypes.put(type.getType().getName(), new TypeSnapshot(type));
+        }
+        this.messageTypes = Collections.unmodifiableMap(messageTypes);
+    }
+
+    public ConnectionState getConnectionState() {
+        return connectionState;
+    }
+
+    public long getConnectionStateSince() {
+        return connectionStateSince;
+    }
+
+    /**
+     * @return how often the connection changed into each {@link ConnectionState}, keyed by the state name
+     */
+    public Map<String, Long> getStateTransitions() {
+        return stateTransitions;
+    }
+
+    /**
+     * @return the number of frames that were accepted for writing but lost with the connection
+     */
+    public long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    public Map<String, AddressSnapshot> getAddresses() {
+        return addresses;
+    }
+
+    /**
+     * @return the statistics of all message types, keyed by the class name
+     */
+    public Map<String, TypeSnapshot> getMessageTypes() {
+        return messageTypes;
+    }
+
+    /**
+     * The counters and the handler execution times of one address.
+     */
+    public static final class AddressSnapshot {
+        private final long messagesIn;
+        private final long messagesDropped;
+        private final long messagesOut;
+        private final long bytesIn;
+        private final long bytesOut;
+        private final LatencySnapshot handlerTime;
+
+        private AddressSnapshot(AddressMetrics metrics) {
+            this.messagesIn = metrics.getMessagesIn();
+            this.messagesDropped = metrics.getMessagesDropped();
+            this.messagesOut = metrics.getMessagesOut();
+            this.bytesIn = metrics.getBytesIn();
+            this.bytesOut = metrics.getBytesOut();
+            this.handlerTime = new LatencySnapshot(metrics.getHandlerTime().snapshot());
+        }
+
+        public long getMessagesIn() {
+            return messagesIn;
+        }
+
+        /**
+         * @return the number of received messages that were dropped before they reached the handlers
+         */
+        public long getMessagesDropped() {
+            return messagesDropped;
+        }
+
+        public long getMessagesOut() {
+            return messagesOut;
+        }
+
+        public long getBytesIn() {
+            return bytesIn;
+        }
+
+        public long getBytesOut() {
+            return bytesOut;
+        }
+
+        public LatencySnapshot getHandlerTime() {
+            return handlerTime;
+        }
+    }
+
+    /**
+     * The encode and decode statistics of one message type.
+     */
+    public static final class TypeSnapshot {
+        private final LatencySnapshot decodeTime;
+        private final LatencySnapshot encodeTime;
+        private final long decodeFailures;
+
+        private TypeSnapshot(TypeMetrics metrics) {
+            this.decodeTime = new LatencySnapshot(metrics.getDecodeTime().snapshot());
+            this.encodeTime = new LatencySnapshot(metrics.getEncodeTime().snapshot());
+            this.decodeFailures = metrics.getDecodeFailures();
+        }
+
+        public LatencySnapshot getDecodeTime() {
+            return decodeTime;
+        }
+
+        public LatencySnapshot getEncodeTime() {
+            return encodeTime;
+        }
+
+        public long getDecodeFailures() {
+            return decodeFailures;
+        }
+    }
+
+    /**
+     * The count and the most common percentiles of a {@link LatencyHistogram}.
+     */
+    public static final class LatencySnapshot {
+        private final long count;
+        private final long p50;
+        private final long p99;
+        private final long p999;
+        private final long max;
+
+        private LatencySnapshot(LatencyHistogram.Snapshot snapshot) {
+            this.count = snapshot.getCount();
+            this.p50 = snapshot.getValueAtPercentile(50);
+            this.p99 = snapshot.getValueAtPercentile(99);
+            this.p999 = snapshot.getValueAtPercentile(99.9);
+            this.max = snapshot.getMax();
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getP50() {
+            return p50;
+        }
+
+        public long getP99() {
+            return p99;
+        }
+
+        public long getP999() {
+            return p999;
+        }
+
+        public long getMax() {
+            return max;
+        }
+    }
+}
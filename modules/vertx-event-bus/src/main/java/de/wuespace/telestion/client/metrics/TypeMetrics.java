@@ -0,0 +1,62 @@
+package de.wuespace.telestion.client.metrics;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Encode and decode statistics of one message type.
+ * <p>
+ * Message types are shared by all clients in the JVM, so there is one global instance per type.
+ * All recording methods are lock-free and do not allocate.
+ */
+public final class TypeMetrics {
+    private static final Map<Class<?>, TypeMetrics> types = new ConcurrentHashMap<>();
+
+    public static TypeMetrics of(Class<?> type) {
+        var metrics = types.get(type);
+        return metrics != null ? metrics : types.computeIfAbsent(type, TypeMetrics::new);
+    }
+
+    public static Collection<TypeMetrics> all() {
+        return types.values();
+    }
+
+    private final Class<?> type;
+    private final LatencyHistogram decodeTime = new LatencyHistogram();
+    private final LatencyHistogram encodeTime = new LatencyHistogram();
+    private final LongAdder decodeFailures = new LongAdder();
+
+    private TypeMetrics(Class<?> type) {
+        this.type = type;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public void recordDecode(long nanos) {
+        decodeTime.record(nanos);
+    }
+
+    public void recordDecodeFailure() {
+        decodeFailures.increment();
+    }
+
+    public void recordEncode(long nanos) {
+        encodeTime.record(nanos);
+    }
+
+    public LatencyHistogram getDecodeTime() {
+        return decodeTime;
+    }
+
+    public LatencyHistogram getEncodeTime() {
+        return encodeTime;
+    }
+
+    public long getDecodeFailures() {
+        return decodeFailures.sum();
+    }
+}
@@ -0,0 +1,71 @@
+package de.wuespace.telestion.client;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+public class AddressTrieTest {
+
+    @Test
+    public void patternMatchesSegments() {
+        var single = AddressPattern.compile("telemetry.*.temperature");
+        Assertions.assertTrue(single.matches("telemetry.eps.temperature"));
+        Assertions.assertFalse(single.matches("telemetry.temperature"));
+        Assertions.assertFalse(single.matches("telemetry.eps.obc.temperature"));
+
+        var multi = AddressPattern.compile("sat1.**");
+        Assertions.assertTrue(multi.matches("sat1"));
+        Assertions.assertTrue(multi.matches("sat1.obc.mode"));
+        Assertions.assertFalse(multi.matches("sat2.obc"));
+
+        Assertions.assertTrue(AddressPattern.compile("**.temperature").matches("a.b.temperature"));
+        Assertions.assertTrue(AddressPattern.isPattern("a.*"));
+        Assertions.assertFalse(AddressPattern.isPattern("a.b*"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> AddressPattern.compile("a..b"));
+    }
+
+    @Test
+    public void trieFindsAllMatchingPatterns() {
+        var trie = new AddressTrie<String>();
+        for (var pattern : new String[]{"telemetry.*.temperature", "telemetry.**", "telemetry.eps.temperature", "sat1.**", "**"}) {
+            trie.add(AddressPattern.compile(pattern), pattern);
+        }
+
+        Assertions.assertEquals(Set.of("telemetry.*.temperature", "telemetry.**", "telemetry.eps.temperature", "**"),
+                trie.match("telemetry.eps.temperature"));
+        Assertions.assertEquals(Set.of("telemetry.**", "**"), trie.match("telemetry.obc.mode"));
+        Assertions.assertEquals(Set.of("**"), trie.match("ground"));
+    }
+
+    @Test
+    public void trieAgreesWithPatternMatching() {
+        var patterns = new String[]{"a.*", "a.**", "*.b", "**.b.**", "a.*.c", "**"};
+        var addresses = new String[]{"a", "a.b", "a.b.c", "x.b", "b", "a.x.c.d"};
+        var trie = new AddressTrie<String>();
+        for (var pattern : patterns) {
+            trie.add(AddressPattern.compile(pattern), pattern);
+        }
+        for (var address : addresses) {
+            for (var pattern : patterns) {
+                Assertions.assertEquals(AddressPattern.compile(pattern).matches(address),
+                        trie.match(address).contains(pattern), pattern + " ~ " + address);
+            }
+        }
+    }
+
+    @Test
+    public void removedPatternsNoLongerMatch() {
+        var trie = new AddressTrie<String>();
+        var pattern = AddressPattern.compile("a.*");
+        trie.add(pattern, "first");
+        trie.add(pattern, "second");
+
+        Assertions.assertTrue(trie.remove(pattern, "first"));
+        Assertions.assertFalse(trie.remove(pattern, "first"));
+        Assertions.assertEquals(Set.of("second"), trie.match("a.b"));
+        Assertions.assertTrue(trie.remove(pattern, "second"));
+        Assertions.assertEquals(0, trie.size());
+        Assertions.assertTrue(trie.match("a.b").isEmpty());
+    }
+}
@@ -0,0 +1,97 @@
+package de.wuespace.telestion.client;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.vertx.eventbusclient.DeliveryOptions;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class BatchPublisherTest {
+
+    public record Sample(@JsonProperty int value) implements JsonMessage {
+    }
+
+    private record Batch(List<JsonMessage> messages, long writtenAt, String thread) {
+    }
+
+    private final BlockingQueue<Batch> batches = new LinkedBlockingQueue<>();
+
+    private BatchPublisher publisher(int maxBatchSize, Duration maxDelay) {
+        return new BatchPublisher("batch", (address, batch, options) ->
+                batches.add(new Batch(batch, System.nanoTime(), Thread.currentThread().getName())), maxBatchSize, maxDelay);
+    }
+
+    @Test
+    public void flushesFullBatchesInOrder() throws InterruptedException {
+        var publisher = publisher(3, Duration.ofSeconds(10));
+        for (int i = 0; i < 7; i++) {
+            publisher.publish(new Sample(i));
+        }
+        Assertions.assertEquals(List.of(new Sample(0), new Sample(1), new Sample(2)), take().messages());
+        Assertions.assertEquals(List.of(new Sample(3), new Sample(4), new Sample(5)), take().messages());
+        Assertions.assertNull(batches.poll(100, TimeUnit.MILLISECONDS));
+
+        publisher.close();
+        Assertions.assertEquals(List.of(new Sample(6)), take().messages());
+        Assertions.assertThrows(IllegalStateException.class, () -> publisher.publish(new Sample(7)));
+    }
+
+    @Test
+    public void flushesAfterMaxDelayOffTheScheduler() throws InterruptedException {
+        var publisher = publisher(100, Duration.ofMillis(50));
+        var start = System.nanoTime();
+        publisher.publish(new Sample(1));
+        publisher.publish(new Sample(2));
+
+        var batch = take();
+        Assertions.assertEquals(List.of(new Sample(1), new Sample(2)), batch.messages());
+        Assertions.assertTrue(batch.writtenAt() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        Assertions.assertEquals("event-bus-client-worker", batch.thread());
+    }
+
+    @Test
+    public void sizeFlushCancelsTheDelayOfItsBatch() throws InterruptedException {
+        var publisher = publisher(2, Duration.ofMillis(200));
+        publisher.publish(new Sample(1));
+        Thread.sleep(100);
+        publisher.publish(new Sample(2));
+        take();
+
+        // the timer of the first batch must not flush the second one early
+        var start = System.nanoTime();
+        publisher.publish(new Sample(3));
+        var batch = take();
+        Assertions.assertEquals(List.of(new Sample(3)), batch.messages());
+        Assertions.assertTrue(batch.writtenAt() - start >= TimeUnit.MILLISECONDS.toNanos(200),
+                "flushed after " + TimeUnit.NANOSECONDS.toMillis(batch.writtenAt() - start) + " ms");
+    }
+
+    @Test
+    public void closeFlushesPendingMessagesWithTheirOptions() throws InterruptedException {
+        var options = new ArrayList<DeliveryOptions>();
+        var deliveryOptions = new DeliveryOptions().addHeader("h", "v");
+        var publisher = new BatchPublisher("batch", (address, batch, batchOptions) -> {
+            options.add(batchOptions);
+            batches.add(new Batch(batch, System.nanoTime(), Thread.currentThread().getName()));
+        }, 10, Duration.ofSeconds(10)).setDeliveryOptions(deliveryOptions);
+
+        publisher.publish(new Sample(1));
+        publisher.close();
+        publisher.close();
+        Assertions.assertEquals(List.of(new Sample(1)), take().messages());
+        Assertions.assertEquals(List.of(deliveryOptions), options);
+        Assertions.assertTrue(batches.isEmpty());
+    }
+
+    private Batch take() throws InterruptedException {
+        var batch = batches.poll(5, TimeUnit.SECONDS);
+        Assertions.assertNotNull(batch, "no batch flushed");
+        return batch;
+    }
+}
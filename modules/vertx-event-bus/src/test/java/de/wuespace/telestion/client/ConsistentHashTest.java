@@ -0,0 +1,57 @@
+package de.wuespace.telestion.client;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+
+public class ConsistentHashTest {
+
+    @Test
+    public void spreadsKeysEvenly() {
+        var ring = new ConsistentHash<>(List.of("a", "b", "c", "d"), 160);
+        var counts = new HashMap<String, Integer>();
+        for (int i = 0; i < 40000; i++) {
+            counts.merge(ring.get("telemetry/" + i), 1, Integer::sum);
+        }
+        Assertions.assertEquals(4, counts.size());
+        for (var count : counts.values()) {
+            Assertions.assertTrue(count > 7000 && count < 13000, "unbalanced: " + counts);
+        }
+    }
+
+    @Test
+    public void addingNodeOnlyMovesItsKeys() {
+        var before = new ConsistentHash<>(List.of("a", "b", "c"), 160);
+        var after = new ConsistentHash<>(List.of("a", "b", "c", "d"), 160);
+        var moved = 0;
+        for (int i = 0; i < 10000; i++) {
+            var key = "address-" + i;
+            if (!before.get(key).equals(after.get(key))) {
+                Assertions.assertEquals("d", after.get(key));
+                moved++;
+            }
+        }
+        Assertions.assertTrue(moved > 1500 && moved < 3500, "moved " + moved);
+    }
+
+    @Test
+    public void failsOverToNextAcceptedNode() {
+        var ring = new ConsistentHash<>(List.of("a", "b", "c"), 160);
+        for (int i = 0; i < 1000; i++) {
+            var key = "address-" + i;
+            var owner = ring.get(key);
+            Assertions.assertEquals(owner, ring.find(key, node -> true));
+
+            var fallback = ring.find(key, node -> !node.equals(owner));
+            Assertions.assertNotNull(fallback);
+            Assertions.assertFalse(fallback.equals(owner));
+            // the fallback of a key is stable
+            Assertions.assertEquals(fallback, ring.find(key, node -> !node.equals(owner)));
+        }
+        Assertions.assertNull(ring.find("address", node -> false));
+        Assertions.assertTrue(Set.of("a", "b", "c").contains(ring.find("address", node -> !node.equals("x"))));
+    }
+}
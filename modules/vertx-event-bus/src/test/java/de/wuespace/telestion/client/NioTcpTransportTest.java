@@ -0,0 +1,264 @@
+package de.wuespace.telestion.client;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import de.wuespace.telestion.client.json.JacksonCodec;
+import de.wuespace.telestion.client.metrics.ClientMetrics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+public class NioTcpTransportTest {
+
+    public record Sample(@JsonProperty String name, @JsonProperty int value) implements JsonMessage {
+    }
+
+    @Test
+    public void writesLengthPrefixedFramesAcrossBuffers() throws Exception {
+        try (var server = new ServerSocket(0)) {
+            var options = new NioBridgeOptions().setBufferSize(64);
+            var metrics = new ClientMetrics();
+            var transport = new NioTcpTransport("localhost", server.getLocalPort(), options, metrics, cause -> {
+            });
+            Assertions.assertFalse(transport.write("publish", "a", null, "rejected"));
+
+            transport.connect();
+            try (var socket = server.accept()) {
+                waitUntilConnected(transport);
+                var messages = new ArrayList<Sample>();
+                for (int i = 0; i < 100; i++) {
+                    messages.add(new Sample("x".repeat(i), i));
+                }
+                Assertions.assertTrue(transport.writeBatch("publish", "batch", Map.of("h", "v"), messages, message -> message));
+                Assertions.assertTrue(transport.write("send", "single", null, Map.of("key", "value")));
+
+                var input = new DataInputStream(socket.getInputStream());
+                for (int i = 0; i < 100; i++) {
+                    var frame = readFrame(input);
+                    Assertions.assertEquals("publish", frame.get("type"));
+                    Assertions.assertEquals("batch", frame.get("address"));
+                    Assertions.assertEquals(Map.of("h", "v"), frame.get("headers"));
+                    Assertions.assertEquals(Map.of("name", "x".repeat(i), "value", i), frame.get("body"));
+                }
+                var frame = readFrame(input);
+                Assertions.assertEquals(Map.of("type", "send", "address", "single", "body", Map.of("key", "value")), frame);
+                Assertions.assertTrue(metrics.address("batch").getBytesOut() > 100 * 20);
+            } finally {
+                transport.close();
+            }
+        }
+    }
+
+    @Test
+    public void reportsErrorFramesOfTheBridge() throws Exception {
+        try (var server = new ServerSocket(0)) {
+            var error = new CompletableFuture<Throwable>();
+            var transport = new NioTcpTransport("localhost", server.getLocalPort(), new NioBridgeOptions().setBufferSize(16),
+                    new ClientMetrics(), error::complete);
+            transport.connect();
+            try (var socket = server.accept()) {
+                var output = new DataOutputStream(socket.getOutputStream());
+                writeFrame(output, "{\"type\":\"pong\"}");
+                // larger than the read buffer
+                writeFrame(output, "{\"type\":\"err\",\"body\":{\"ignored\":[1,2,3]},\"message\":\"access denied\"}");
+                output.flush();
+
+                var cause = error.get(5, TimeUnit.SECONDS);
+                Assertions.assertTrue(cause.getMessage().contains("access denied"), cause.getMessage());
+            } finally {
+                transport.close();
+            }
+        }
+    }
+
+    @Test
+    public void reconnectsAfterTheServerClosedTheConnection() throws Exception {
+        var server = new ServerSocket(0);
+        var port = server.getLocalPort();
+        var transport = new NioTcpTransport("localhost", port, new NioBridgeOptions(), new ClientMetrics(), cause -> {
+        });
+        transport.setReconnectPolicy(new ReconnectPolicy().setInitialDelay(Duration.ofMillis(20)).setMaxDelay(Duration.ofMillis(100)));
+        try {
+            transport.connect();
+            try (var socket = server.accept()) {
+                waitUntilConnected(transport);
+                Assertions.assertTrue(transport.write("publish", "a", null, 1));
+                Assertions.assertEquals(1, readFrame(new DataInputStream(socket.getInputStream())).get("body"));
+            }
+            server.close();
+            await(() -> !transport.isConnected());
+
+            // nobody calls connect() again, the transport reconnects on its own once the server is back
+            Thread.sleep(100);
+            server = new ServerSocket(port);
+            server.setSoTimeout(5000);
+            try (var socket = server.accept()) {
+                waitUntilConnected(transport);
+                Assertions.assertEquals(1, transport.getReconnectCount());
+                Assertions.assertTrue(transport.write("publish", "a", null, 2));
+                Assertions.assertEquals(2, readFrame(new DataInputStream(socket.getInputStream())).get("body"));
+            }
+        } finally {
+            transport.close();
+            server.close();
+        }
+    }
+
+    @Test
+    public void closesTheConnectionOnOversizedFramesAndReconnects() throws Exception {
+        try (var server = new ServerSocket(0)) {
+            server.setSoTimeout(5000);
+            var error = new CompletableFuture<Throwable>();
+            var transport = new NioTcpTransport("localhost", server.getLocalPort(),
+                    new NioBridgeOptions().setMaxFrameSize(1024), new ClientMetrics(), error::complete);
+            transport.setReconnectPolicy(new ReconnectPolicy().setInitialDelay(Duration.ofMillis(20)));
+            transport.connect();
+            try (var socket = server.accept()) {
+                waitUntilConnected(transport);
+                var output = new DataOutputStream(socket.getOutputStream());
+                // the length prefix overflows when the prefix itself is added in int arithmetic
+                output.writeInt(Integer.MAX_VALUE - 1);
+                output.flush();
+
+                var cause = error.get(5, TimeUnit.SECONDS);
+                Assertions.assertTrue(cause instanceof IOException, cause.toString());
+                try (var reconnected = server.accept()) {
+                    waitUntilConnected(transport);
+                    Assertions.assertTrue(transport.write("publish", "a", null, 1));
+                    Assertions.assertEquals(1, readFrame(new DataInputStream(reconnected.getInputStream())).get("body"));
+                }
+            } finally {
+                transport.close();
+            }
+        }
+    }
+
+    @Test
+    public void connectRightAfterCloseStartsASingleSelectorThread() throws Exception {
+        try (var server = new ServerSocket(0)) {
+            server.setSoTimeout(5000);
+            var port = server.getLocalPort();
+            var transport = new NioTcpTransport("localhost", port, new NioBridgeOptions(), new ClientMetrics(), cause -> {
+            });
+            try {
+                transport.connect();
+                try (var first = server.accept()) {
+                    waitUntilConnected(transport);
+                    transport.close();
+                    transport.connect();
+                    try (var second = server.accept()) {
+                        waitUntilConnected(transport);
+                        Assertions.assertTrue(transport.write("publish", "a", null, 1));
+                        Assertions.assertEquals(1, readFrame(new DataInputStream(second.getInputStream())).get("body"));
+                        Assertions.assertEquals(-1, first.getInputStream().read());
+                    }
+                }
+                var name = "event-bus-nio-localhost:" + port;
+                Assertions.assertEquals(1, Thread.getAllStackTraces().keySet().stream()
+                        .filter(thread -> thread.getName().equals(name) && thread.isAlive()).count());
+            } finally {
+                transport.close();
+            }
+        }
+    }
+
+    @Test
+    public void failedEncodingWritesNothing() throws Exception {
+        try (var server = new ServerSocket(0)) {
+            var transport = new NioTcpTransport("localhost", server.getLocalPort(), new NioBridgeOptions().setBufferSize(64),
+                    new ClientMetrics(), cause -> {
+            });
+            transport.connect();
+            try (var socket = server.accept()) {
+                waitUntilConnected(transport);
+                Assertions.assertThrows(IllegalStateException.class, () -> transport.writeBatch("publish", "batch", null,
+                        List.of(1, 2, 3), value -> {
+                            if (value == 3) {
+                                throw new IllegalStateException("broken encoder");
+                            }
+                            return "x".repeat(100);
+                        }));
+                Assertions.assertTrue(transport.write("publish", "single", null, 1));
+
+                // the frames of the failed batch are not written
+                var frame = readFrame(new DataInputStream(socket.getInputStream()));
+                Assertions.assertEquals("single", frame.get("address"));
+            } finally {
+                transport.close();
+            }
+        }
+    }
+
+    @Test
+    public void countsTheFramesDroppedWithTheConnection() throws Exception {
+        try (var server = new ServerSocket()) {
+            server.setReceiveBufferSize(4096);
+            server.bind(new InetSocketAddress("localhost", 0));
+            var metrics = new ClientMetrics();
+            var transport = new NioTcpTransport("localhost", server.getLocalPort(),
+                    new NioBridgeOptions().setSendBufferSize(4096).setBufferSize(2048), metrics, cause -> {
+            });
+            transport.connect();
+            try (var socket = server.accept()) {
+                waitUntilConnected(transport);
+                // the server does not read, so the frames pile up in the transport
+                var body = "x".repeat(1000);
+                var written = 0;
+                for (; written < 20_000 && transport.isConnected(); written++) {
+                    Assertions.assertTrue(transport.write("publish", "a", null, body));
+                }
+                Thread.sleep(100);
+                // reset the connection instead of closing it gracefully
+                socket.setSoLinger(true, 0);
+                socket.close();
+                await(() -> metrics.getDroppedFrames() > 0);
+                Assertions.assertFalse(transport.isConnected());
+
+                var dropped = metrics.getDroppedFrames();
+                Assertions.assertTrue(dropped > 0 && dropped <= written, dropped + " of " + written + " frames dropped");
+                Assertions.assertEquals(dropped, metrics.snapshot().getDroppedFrames());
+                Assertions.assertFalse(transport.write("publish", "a", null, body));
+            } finally {
+                transport.close();
+            }
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 500 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(condition.getAsBoolean(), "condition not met within 5 s");
+    }
+
+    private static void waitUntilConnected(NioTcpTransport transport) throws InterruptedException {
+        for (int i = 0; i < 500 && !transport.isConnected(); i++) {
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(transport.isConnected());
+    }
+
+    private static Map<?, ?> readFrame(DataInputStream input) throws Exception {
+        var bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return JacksonCodec.getMapper().readValue(bytes, Map.class);
+    }
+
+    private static void writeFrame(DataOutputStream output, String json) throws Exception {
+        var bytes = json.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+}
@@ -0,0 +1,52 @@
+package de.wuespace.telestion.client;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+public class ReconnectPolicyTest {
+
+    @Test
+    public void delaysGrowExponentiallyUpToMaxDelay() {
+        var policy = new ReconnectPolicy()
+                .setInitialDelay(Duration.ofMillis(100))
+                .setMaxDelay(Duration.ofSeconds(1))
+                .setMultiplier(2)
+                .setJitter(0);
+        var expected = new long[]{100, 200, 400, 800, 1000, 1000};
+        for (int attempt = 0; attempt < expected.length; attempt++) {
+            Assertions.assertEquals(Duration.ofMillis(expected[attempt]).toNanos(), policy.delayNanos(attempt));
+        }
+    }
+
+    @Test
+    public void jitterStaysWithinItsBounds() {
+        var policy = new ReconnectPolicy()
+                .setInitialDelay(Duration.ofMillis(100))
+                .setMaxDelay(Duration.ofMillis(400))
+                .setJitter(0.25);
+        for (int attempt = 0; attempt < 6; attempt++) {
+            var base = Math.min(100.0 * Math.pow(2, attempt), 400) * 1_000_000;
+            var min = Long.MAX_VALUE;
+            var max = Long.MIN_VALUE;
+            for (int i = 0; i < 1000; i++) {
+                var delay = policy.delayNanos(attempt);
+                Assertions.assertTrue(delay >= base * 0.75 && delay <= base * 1.25, "delay " + delay + " for attempt " + attempt);
+                min = Math.min(min, delay);
+                max = Math.max(max, delay);
+            }
+            // the delays are actually spread
+            Assertions.assertTrue(max - min > base * 0.25, "spread " + (max - min) + " for attempt " + attempt);
+        }
+    }
+
+    @Test
+    public void limitsTheAttempts() {
+        var policy = new ReconnectPolicy().setMaxAttempts(3);
+        Assertions.assertTrue(policy.allowsAttempt(2));
+        Assertions.assertFalse(policy.allowsAttempt(3));
+        Assertions.assertTrue(new ReconnectPolicy().allowsAttempt(1_000_000));
+        Assertions.assertFalse(ReconnectPolicy.disabled().allowsAttempt(0));
+    }
+}
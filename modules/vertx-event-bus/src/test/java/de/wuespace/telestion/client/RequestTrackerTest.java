@@ -0,0 +1,59 @@
+package de.wuespace.telestion.client;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class RequestTrackerTest {
+
+    @Test
+    public void completesAndRecordsLatency() throws Exception {
+        var tracker = new RequestTracker();
+        RequestTracker.InFlight<String> request = tracker.begin(10_000);
+        Assertions.assertEquals(1, tracker.getInFlight());
+
+        request.complete("reply");
+        request.fail(new IllegalStateException("late failure is ignored"));
+
+        Assertions.assertEquals("reply", request.future().get(1, TimeUnit.SECONDS));
+        Assertions.assertEquals(0, tracker.getInFlight());
+        Assertions.assertEquals(1L, tracker.getLatency().snapshotAndReset().getCount());
+    }
+
+    @Test
+    public void failsAfterDeadline() throws InterruptedException {
+        var tracker = new RequestTracker();
+        RequestTracker.InFlight<String> request = tracker.begin(10);
+        try {
+            request.future().get(5, TimeUnit.SECONDS);
+            Assertions.fail("request must time out");
+        } catch (ExecutionException e) {
+            Assertions.assertTrue(e.getCause() instanceof TimeoutException);
+        } catch (TimeoutException e) {
+            Assertions.fail("deadline was not applied");
+        }
+        Assertions.assertEquals(0, tracker.getInFlight());
+    }
+
+    @Test
+    public void failsOnTheWorkerPool() throws Exception {
+        var tracker = new RequestTracker();
+        RequestTracker.InFlight<String> request = tracker.begin(100);
+        var thread = request.future()
+                .handle((value, cause) -> Thread.currentThread().getName())
+                .get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals("event-bus-client-worker", thread);
+    }
+
+    @Test
+    public void capsInFlightRequests() {
+        var tracker = new RequestTracker();
+        tracker.setMaxInFlight(2);
+        Assertions.assertNotNull(tracker.begin(10_000));
+        Assertions.assertNotNull(tracker.begin(10_000));
+        Assertions.assertNull(tracker.begin(10_000));
+    }
+}
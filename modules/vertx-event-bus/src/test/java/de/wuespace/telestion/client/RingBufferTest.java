@@ -0,0 +1,106 @@
+package de.wuespace.telestion.client;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class RingBufferTest {
+
+    @Test
+    public void handlesAllEventsInOrderAcrossWrapArounds() throws Exception {
+        for (var waitStrategy : WaitStrategy.values()) {
+            var received = Collections.synchronizedList(new ArrayList<Integer>());
+            var ringBuffer = new RingBuffer<String, Integer>(8, 1, waitStrategy, String::hashCode,
+                    (key, value) -> received.add(value), "test");
+            for (int i = 0; i < 10_000; i++) {
+                Assertions.assertTrue(ringBuffer.publish("key", i));
+            }
+            ringBuffer.close();
+            ringBuffer.join();
+
+            Assertions.assertEquals(10_000, received.size());
+            for (int i = 0; i < received.size(); i++) {
+                Assertions.assertEquals(i, (int) received.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void stagesKeepTheOrderPerKey() throws Exception {
+        Map<String, List<Integer>> received = new ConcurrentHashMap<>();
+        Map<String, String> threads = new ConcurrentHashMap<>();
+        var ringBuffer = new RingBuffer<String, Integer>(64, 4, WaitStrategy.YIELD, String::hashCode, (key, value) -> {
+            // a key is always handled by the same stage
+            Assertions.assertEquals(threads.computeIfAbsent(key, k -> Thread.currentThread().getName()),
+                    Thread.currentThread().getName());
+            received.computeIfAbsent(key, k -> Collections.synchronizedList(new ArrayList<>())).add(value);
+        }, "test");
+
+        for (int i = 0; i < 20_000; i++) {
+            ringBuffer.publish("address-" + (i % 10), i);
+        }
+        ringBuffer.close();
+        ringBuffer.join();
+
+        Assertions.assertEquals(10, received.size());
+        for (var values : received.values()) {
+            Assertions.assertEquals(2000, values.size());
+            for (int i = 1; i < values.size(); i++) {
+                Assertions.assertTrue(values.get(i - 1) < values.get(i));
+            }
+        }
+        Assertions.assertTrue(ringBuffer.getBatches() > 0);
+        Assertions.assertEquals(0L, ringBuffer.getBacklog());
+    }
+
+    @Test
+    public void rejectsEventsAfterClose() throws Exception {
+        var received = Collections.synchronizedList(new ArrayList<Integer>());
+        var ringBuffer = new RingBuffer<String, Integer>(8, 1, WaitStrategy.PARK, String::hashCode,
+                (key, value) -> received.add(value), "test");
+        Assertions.assertTrue(ringBuffer.publish("key", 1));
+        ringBuffer.close();
+        Assertions.assertFalse(ringBuffer.publish("key", 2));
+        ringBuffer.join();
+        Assertions.assertEquals(List.of(1), received);
+    }
+
+    @Test
+    public void releasesHandledValues() throws Exception {
+        for (var stageCount : new int[]{1, 3}) {
+            var ringBuffer = new RingBuffer<String, Object>(8, stageCount, WaitStrategy.YIELD, String::hashCode,
+                    (key, value) -> {
+                    }, "test");
+            var references = new ArrayList<WeakReference<Object>>();
+            for (int i = 0; i < 4; i++) {
+                var value = new Object();
+                references.add(new WeakReference<>(value));
+                ringBuffer.publish("key-" + i, value);
+            }
+            while (ringBuffer.getBacklog() > 0) {
+                Thread.sleep(1);
+            }
+
+            for (int i = 0; i < 50 && references.stream().anyMatch(reference -> reference.get() != null); i++) {
+                System.gc();
+                Thread.sleep(10);
+            }
+            Assertions.assertTrue(references.stream().allMatch(reference -> reference.get() == null));
+            ringBuffer.close();
+            ringBuffer.join();
+        }
+    }
+
+    @Test
+    public void rejectsInvalidCapacity() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new RingBuffer<String, String>(10, 1, WaitStrategy.PARK, String::hashCode, (key, value) -> {
+                }, "test"));
+    }
+}
@@ -0,0 +1,77 @@
+package de.wuespace.telestion.client;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class StripedExecutorTest {
+
+    @Test
+    public void keepsOrderPerKey() throws InterruptedException {
+        try (var executor = new StripedExecutor(4)) {
+            var keys = List.of("telemetry.eps", "telemetry.obc", "telemetry.adcs");
+            var received = new ArrayList<List<Integer>>();
+            keys.forEach(key -> received.add(new ArrayList<>()));
+            var done = new CountDownLatch(keys.size() * 1000);
+
+            for (int i = 0; i < 1000; i++) {
+                for (int k = 0; k < keys.size(); k++) {
+                    var list = received.get(k);
+                    var value = i;
+                    executor.execute(keys.get(k), () -> {
+                        list.add(value);
+                        done.countDown();
+                    });
+                }
+            }
+
+            Assertions.assertTrue(done.await(10, TimeUnit.SECONDS));
+            for (var list : received) {
+                for (int i = 0; i < list.size(); i++) {
+                    Assertions.assertEquals(i, (int) list.get(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void sameKeyUsesSameStripe() {
+        try (var executor = new StripedExecutor(8)) {
+            Assertions.assertEquals(executor.stripeOf("string-in"), executor.stripeOf("string-in"));
+        }
+    }
+
+    @Test
+    public void runsEveryTaskAcceptedWhileClosing() throws InterruptedException {
+        for (int round = 0; round < 50; round++) {
+            var executor = new StripedExecutor(2);
+            var accepted = new AtomicInteger();
+            var ran = new AtomicInteger();
+            var submitter = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    try {
+                        executor.execute("key-" + (i % 4), ran::incrementAndGet);
+                        accepted.incrementAndGet();
+                    } catch (RejectedExecutionException e) {
+                        return;
+                    }
+                }
+            });
+            submitter.start();
+            Thread.sleep(1);
+            executor.close();
+            submitter.join();
+
+            for (int i = 0; i < 500 && ran.get() < accepted.get(); i++) {
+                Thread.sleep(10);
+            }
+            Assertions.assertEquals(accepted.get(), ran.get(), "accepted tasks that never ran in round " + round);
+        }
+    }
+}
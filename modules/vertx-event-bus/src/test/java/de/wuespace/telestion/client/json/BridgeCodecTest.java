@@ -0,0 +1,66 @@
+package de.wuespace.telestion.client.json;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import de.wuespace.telestion.client.JsonMessage;
+import de.wuespace.telestion.client.metrics.ClientMetrics;
+import de.wuespace.telestion.client.metrics.TypeMetrics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+public class BridgeCodecTest {
+
+    public record Telemetry(
+            @JsonProperty String source,
+            @JsonProperty long time,
+            @JsonProperty float voltage,
+            @JsonProperty double temperature,
+            @JsonProperty List<Integer> flags
+    ) implements JsonMessage {
+    }
+
+    @Test
+    public void directBodyEncodesLikeConvertedBody() {
+        var codec = new BridgeCodec();
+        var message = new Telemetry("eps", 1676000000000L, 3.3f, -12.25, List.of(1, 0, 1));
+
+        var direct = new LinkedHashMap<String, Object>();
+        direct.put("type", "publish");
+        direct.put("address", "telemetry");
+        direct.put("body", message);
+
+        var converted = new LinkedHashMap<>(direct);
+        converted.put("body", message.toJsonObject().getContents());
+
+        Assertions.assertEquals(codec.encode(converted), codec.encode(direct));
+    }
+
+    @Test
+    public void recordsFrameSizesPerAddress() {
+        var metrics = new ClientMetrics();
+        var codec = new BridgeCodec(metrics);
+        var message = new Telemetry("eps", 1L, 1f, 1.0, List.of());
+
+        var frame = new LinkedHashMap<String, Object>();
+        frame.put("type", "publish");
+        frame.put("address", "telemetry");
+        frame.put("body", message);
+        var json = codec.encode(frame);
+        codec.decode("{\"type\":\"message\",\"address\":\"in\",\"body\":\"\u00e4\"}", Map.class);
+
+        Assertions.assertEquals(json.length(), metrics.address("telemetry").getBytesOut());
+        Assertions.assertEquals(45L, metrics.address("in").getBytesIn());
+        Assertions.assertTrue(TypeMetrics.of(Telemetry.class).getEncodeTime().snapshot().getCount() > 0);
+    }
+
+    @Test
+    public void utf8LengthMatchesEncoding() {
+        for (var value : List.of("", "abc", "\u00e4\u00f6", "\u20ac", "\ud83d\ude80x")) {
+            Assertions.assertEquals(value.getBytes(StandardCharsets.UTF_8).length, BridgeCodec.utf8Length(value));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package de.wuespace.telestion.client.json;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import de.wuespace.telestion.client.JsonMessage;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class JacksonCodecTest {
+
+    public record Sample(
+            @JsonProperty String name,
+            @JsonProperty int count,
+            @JsonProperty double value,
+            @JsonProperty List<Long> ids,
+            @JsonProperty Map<String, Object> extra
+    ) implements JsonMessage {
+    }
+
+    @Test
+    public void prepareReturnsCachedCodec() {
+        var first = JacksonCodec.prepare(Sample.class);
+        var second = JacksonCodec.prepare(Sample.class);
+        Assertions.assertSame(first, second);
+    }
+
+    @Test
+    public void encodingArbitraryBodiesDoesNotCacheCodecs() {
+        Assertions.assertEquals("{\"k\":1}", JacksonCodec.toString(Map.of("k", 1)));
+        Assertions.assertEquals("[1]", new String(JacksonCodec.toBytes(List.of(1), PayloadFormat.JSON)));
+        Assertions.assertFalse(JacksonCodec.isPrepared(Map.of("k", 1).getClass()));
+        Assertions.assertFalse(JacksonCodec.isPrepared(List.of(1).getClass()));
+
+        JacksonCodec.toString(new Sample("a", 1, 2.0, List.of(), Map.of()));
+        Assertions.assertTrue(JacksonCodec.isPrepared(Sample.class));
+    }
+
+    @Test
+    public void decodesPlainMapLikeConvertValue() {
+        var extra = new LinkedHashMap<String, Object>();
+        extra.put("nested", List.of(1, 2, Map.of("deep", true)));
+        var body = new LinkedHashMap<String, Object>();
+        body.put("name", "sensor");
+        body.put("count", 3);
+        body.put("value", 1.5);
+        body.put("ids", List.of(1, 2L, 3));
+        body.put("extra", extra);
+
+        var expected = JacksonCodec.getMapper().convertValue(body, Sample.class);
+        var actual = JacksonCodec.from(body, Sample.class);
+        Assertions.assertEquals(expected, actual);
+    }
+
+    @Test
+    public void decodesFractionalIntsLikeConvertValue() {
+        var body = Map.<String, Object>of("count", 1.5);
+        Assertions.assertEquals(1, JacksonCodec.from(body, Sample.class).count());
+        Assertions.assertEquals(JacksonCodec.getMapper().convertValue(body, Sample.class),
+                JacksonCodec.from(body, Sample.class));
+        Assertions.assertThrows(DecodeException.class,
+                () -> JacksonCodec.from(Map.of("count", 1e12), Sample.class));
+    }
+
+    @Test
+    public void decodeRoundTripsEncodedMessage() {
+        var message = new Sample("a", 1, 2.0, List.of(4L), Map.of("k", "v"));
+        var json = JacksonCodec.toString(message);
+        Assertions.assertEquals(message, JacksonCodec.from(json, Sample.class));
+        Assertions.assertEquals(message, JacksonCodec.from(new JsonObject(json).getContents(), Sample.class));
+    }
+
+    @Test
+    public void decodeFailureIsWrapped() {
+        Assertions.assertThrows(DecodeException.class,
+                () -> JacksonCodec.from(Map.of("count", "not a number"), Sample.class));
+    }
+
+    @Test
+    public void binaryFormatsRoundTrip() {
+        var message = new Sample("a", 1, 2.0, List.of(4L), Map.of("k", "v"));
+        for (var format : PayloadFormat.values()) {
+            var body = Base64.getEncoder().encodeToString(message.toBytes(format));
+            Assertions.assertEquals(message, JacksonCodec.from(PayloadFormat.bodyBytes(body), Sample.class, format));
+        }
+    }
+
+    @Test
+    public void unknownContentTypeFallsBackToJson() {
+        Assertions.assertEquals(PayloadFormat.CBOR, PayloadFormat.fromContentType("application/cbor"));
+        Assertions.assertEquals(PayloadFormat.JSON, PayloadFormat.fromContentType("text/plain"));
+        Assertions.assertEquals(PayloadFormat.JSON, PayloadFormat.fromHeaders(Map.of()));
+        Assertions.assertEquals(PayloadFormat.JSON, PayloadFormat.fromHeaders(null));
+    }
+}
@@ -0,0 +1,54 @@
+package de.wuespace.telestion.client.json;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class JsonObjectTest {
+
+    private static JsonObject sample() {
+        return new JsonObject("{\"status\": {\"mode\": \"SAFE\", \"temps\": [1, 2, {\"id\": 3}]}}");
+    }
+
+    @Test
+    public void nestedAccessReturnsViews() {
+        var object = sample();
+        var status = object.getJsonObject("status");
+        Assertions.assertSame(object.getContents().get("status"), status.getContents());
+
+        status.put("mode", "NOMINAL");
+        Assertions.assertEquals("NOMINAL", object.getJsonObject("status").getString("mode"));
+
+        var temps = status.getJsonArray("temps");
+        temps.getJsonObject(2).put("id", 4);
+        Assertions.assertEquals(4, (int) object.getJsonObject("status").getJsonArray("temps").getJsonObject(2).getInteger("id"));
+    }
+
+    @Test
+    public void copyIsDetached() {
+        var object = sample();
+        var copy = object.copy();
+        Assertions.assertEquals(object.getContents(), copy.getContents());
+
+        copy.getJsonObject("status").put("mode", "NOMINAL");
+        copy.getJsonObject("status").getJsonArray("temps").add(5);
+        Assertions.assertEquals("SAFE", object.getJsonObject("status").getString("mode"));
+        Assertions.assertEquals(3, object.getJsonObject("status").getJsonArray("temps").size());
+    }
+
+    @Test
+    public void primitiveAccessors() {
+        var object = new JsonObject("{\"a\": 1, \"b\": 2.5, \"c\": null, \"d\": [4, 5.5, 6]}");
+        Assertions.assertEquals(1, object.getIntValue("a"));
+        Assertions.assertEquals(2.5, object.getDoubleValue("b"), 0);
+        Assertions.assertEquals(7L, object.getLongValue("c", 7));
+        Assertions.assertEquals(8L, object.getLongValue("missing", 8));
+
+        var values = object.getDoubleValues(new String[]{"a", "b", "c"}, new double[3], Double.NaN);
+        Assertions.assertArrayEquals(new double[]{1, 2.5, Double.NaN}, values, 0);
+
+        var array = object.getJsonArray("d");
+        var target = new long[4];
+        Assertions.assertEquals(3L, array.getLongValues(target));
+        Assertions.assertArrayEquals(new long[]{4, 5, 6, 0}, target);
+    }
+}
@@ -0,0 +1,67 @@
+package de.wuespace.telestion.client.json;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+public class MessageFilterTest {
+
+    private static final Map<String, Object> BODY = Map.of(
+            "status", Map.of("mode", "SAFE", "flags", List.of(true, false)),
+            "temp", 85,
+            "voltage", 3.3,
+            "missing", Map.of()
+    );
+
+    @Test
+    public void evaluatesComparisonsOnPlainValues() {
+        Assertions.assertTrue(MessageFilter.compile("/status/mode == \"SAFE\" && /temp > 80").test(BODY));
+        Assertions.assertFalse(MessageFilter.compile("/status/mode == \"SAFE\" && /temp > 90").test(BODY));
+        Assertions.assertTrue(MessageFilter.compile("/status/mode != \"NOMINAL\" || /temp < 0").test(BODY));
+        Assertions.assertTrue(MessageFilter.compile("/voltage >= 3.3 && /voltage <= 3.3 && /temp == 85").test(BODY));
+        Assertions.assertTrue(MessageFilter.compile("!(/temp < 80) && /status/flags/0 && !/status/flags/1").test(BODY));
+        Assertions.assertTrue(MessageFilter.compile("/temp > /voltage").test(BODY));
+    }
+
+    @Test
+    public void missingFieldsCompareLikeNull() {
+        Assertions.assertTrue(MessageFilter.compile("/nothing == null").test(BODY));
+        Assertions.assertFalse(MessageFilter.compile("/nothing").test(BODY));
+        Assertions.assertFalse(MessageFilter.compile("/nothing > 0").test(BODY));
+        Assertions.assertFalse(MessageFilter.compile("/status/mode > 0").test(BODY));
+        Assertions.assertTrue(MessageFilter.compile("/missing").test(BODY));
+    }
+
+    @Test
+    public void evaluatesJsonAndBinaryBodies() {
+        var filter = MessageFilter.compile("/status/mode == \"SAFE\" && /temp > 80");
+        for (var format : PayloadFormat.values()) {
+            Assertions.assertTrue(filter.test(JacksonCodec.toBytes(BODY, format), format));
+        }
+    }
+
+    @Test
+    public void scalarBodiesHaveNoFields() {
+        var filter = MessageFilter.compile("/temp > 80");
+        Assertions.assertFalse(filter.test("hello"));
+        Assertions.assertFalse(filter.test("{\"temp\": 90}"));
+        Assertions.assertFalse(filter.test(42));
+        Assertions.assertFalse(filter.test((Object) null));
+        Assertions.assertTrue(MessageFilter.compile("/temp == null").test("hello"));
+    }
+
+    @Test
+    public void rejectsMalformedExpressions() {
+        for (var expression : List.of("", "/temp >", "/temp == \"open", "(/temp > 1", "/temp > 1 junk", "80")) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> MessageFilter.compile(expression));
+        }
+    }
+
+    @Test
+    public void rejectsMalformedBodies() {
+        Assertions.assertThrows(DecodeException.class, () -> MessageFilter.compile("/temp > 1").test("{\"temp\": ".getBytes(StandardCharsets.UTF_8), PayloadFormat.JSON));
+    }
+}
@@ -0,0 +1,61 @@
+package de.wuespace.telestion.client.metrics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+
+public class ClientMetricsTest {
+
+    @Test
+    public void countsPerAddress() {
+        var metrics = new ClientMetrics();
+        metrics.address("a").recordMessageIn();
+        metrics.address("a").recordMessageIn();
+        metrics.address("a").recordBytesIn(40);
+        metrics.address("b").recordMessageOut();
+        metrics.address("a").recordHandlerTime(1000);
+
+        var snapshot = metrics.snapshot();
+        Assertions.assertSame(metrics.address("a"), metrics.address("a"));
+        Assertions.assertEquals(2L, snapshot.getAddresses().get("a").getMessagesIn());
+        Assertions.assertEquals(40L, snapshot.getAddresses().get("a").getBytesIn());
+        Assertions.assertEquals(1L, snapshot.getAddresses().get("a").getHandlerTime().getCount());
+        Assertions.assertEquals(1L, snapshot.getAddresses().get("b").getMessagesOut());
+    }
+
+    @Test
+    public void countsStateTransitionsOnce() {
+        var metrics = new ClientMetrics();
+        Assertions.assertEquals(ConnectionState.NEW, metrics.getState());
+        metrics.recordState(ConnectionState.CONNECTED);
+        metrics.recordState(ConnectionState.CONNECTED);
+        metrics.recordState(ConnectionState.DISCONNECTED);
+        metrics.recordState(ConnectionState.RECONNECTING);
+        metrics.recordState(ConnectionState.CONNECTED);
+
+        Assertions.assertEquals(ConnectionState.CONNECTED, metrics.getState());
+        Assertions.assertEquals(2L, metrics.getTransitions(ConnectionState.CONNECTED));
+        Assertions.assertEquals(1L, (long) metrics.snapshot().getStateTransitions().get("DISCONNECTED"));
+    }
+
+    @Test
+    public void exposesMetricsViaJmx() throws Exception {
+        var metrics = new ClientMetrics().registerMBean("test");
+        metrics.address("telemetry").recordMessageIn();
+        metrics.recordState(ConnectionState.CONNECTED);
+
+        var server = ManagementFactory.getPlatformMBeanServer();
+        var name = new ObjectName(ClientMetrics.JMX_DOMAIN + ":type=EventBusClient,name=\"test\"");
+        try {
+            Assertions.assertEquals("CONNECTED", server.getAttribute(name, "ConnectionState"));
+            var addresses = (TabularData) server.getAttribute(name, "Addresses");
+            Assertions.assertEquals(1, addresses.size());
+        } finally {
+            metrics.unregisterMBean();
+        }
+        Assertions.assertFalse(server.isRegistered(name));
+    }
+}
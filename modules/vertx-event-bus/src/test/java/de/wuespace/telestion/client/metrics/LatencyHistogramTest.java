@@ -0,0 +1,20 @@
+package de.wuespace.telestion.client.metrics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void percentilesAreAccurate() {
+        var histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        var snapshot = histogram.snapshotAndReset();
+        Assertions.assertEquals(1000L, snapshot.getCount());
+        Assertions.assertEquals(500_000.0, snapshot.getValueAtPercentile(50), 500_000 * 0.04);
+        Assertions.assertEquals(990_000.0, snapshot.getValueAtPercentile(99), 990_000 * 0.04);
+        Assertions.assertEquals(0L, histogram.snapshotAndReset().getCount());
+    }
+}
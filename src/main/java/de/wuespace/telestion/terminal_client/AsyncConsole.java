@@ -0,0 +1,122 @@
+package de.wuespace.telestion.terminal_client;
+
+import de.wuespace.telestion.client.json.EncodeException;
+import de.wuespace.telestion.client.json.JacksonCodec;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Prints received messages on its own thread through a bounded buffer.
+ * <p>
+ * {@link #message(String, Object)} never blocks: when the buffer is full, the message is dropped and counted
+ * per address. The dropped messages are summarized once per second, so a flooding address can neither block
+ * the bridge connection nor the input.
+ * Command output is printed directly with {@link #println(String)}.
+ */
+class AsyncConsole implements AutoCloseable {
+    private record Line(String address, Object body) {
+    }
+
+    private static final long SUMMARY_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private final PrintStream out;
+    private final BlockingQueue<Line> queue;
+    private final Map<String, LongAdder> dropped = new ConcurrentHashMap<>();
+    private final LongAdder droppedTotal = new LongAdder();
+    private final LongAdder printed = new LongAdder();
+    private final Thread printer;
+    private volatile boolean closed;
+
+    AsyncConsole(PrintStream out, int capacity) {
+        this.out = out;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.printer = new Thread(this::run, "console-printer");
+        this.printer.setDaemon(true);
+        this.printer.start();
+    }
+
+    /**
+     * Enqueues a received message for printing. The body is formatted on the printer thread.
+     */
+    void message(String address, Object body) {
+        if (!queue.offer(new Line(address, body))) {
+            dropped.computeIfAbsent(address, key -> new LongAdder()).increment();
+            droppedTotal.increment();
+        }
+    }
+
+    void println(String line) {
+        out.println(line);
+    }
+
+    long getPrinted() {
+        return printed.sum();
+    }
+
+    long getDropped() {
+        return droppedTotal.sum();
+    }
+
+    int getPending() {
+        return queue.size();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        printer.interrupt();
+    }
+
+    private void run() {
+        var nextSummary = System.nanoTime() + SUMMARY_INTERVAL;
+        while (!closed) {
+            try {
+                var line = queue.poll(SUMMARY_INTERVAL, TimeUnit.NANOSECONDS);
+                if (line != null) {
+                    out.println("[" + line.address() + "] " + format(line.body()));
+                    printed.increment();
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            var now = System.nanoTime();
+            if (now >= nextSummary) {
+                printSummary();
+                nextSummary = now + SUMMARY_INTERVAL;
+            }
+        }
+    }
+
+    private void printSummary() {
+        if (dropped.isEmpty()) {
+            return;
+        }
+        var counts = new TreeMap<String, Long>();
+        for (var address : dropped.keySet()) {
+            var count = dropped.remove(address);
+            if (count != null) {
+                counts.put(address, count.sum());
+            }
+        }
+        out.println("[console] output overloaded, dropped messages: " + counts);
+    }
+
+    private static String format(Object body) {
+        if (body instanceof String text) {
+            return text;
+        }
+        try {
+            return JacksonCodec.toString(body);
+        } catch (EncodeException e) {
+            return String.valueOf(body);
+        }
+    }
+}
@@ -1,24 +1,31 @@
 package de.wuespace.telestion.terminal_client;
 
+import de.wuespace.telestion.client.EventBusClient;
+
 import java.util.Scanner;
 
 public class Main {
     public static void main(String[] args) {
-        System.out.println("Hello World");
+        var host = args.length > 0 ? args[0] : "localhost";
+        var port = args.length > 1 ? Integer.parseInt(args[1]) : 7000;
 
-        String input;
-        boolean loop = true;
-        Scanner scanner = new Scanner(System.in);
+        var console = new AsyncConsole(System.out, 1024);
+        var client = EventBusClient.connectWithTcpBridge(host, port)
+                .connectedHandler(() -> console.println("Connected to " + host + ":" + port))
+                .closeHandler(() -> console.println("Connection to " + host + ":" + port + " closed"));
+        var repl = new Repl(client, console);
+        client.connect();
 
-        while (loop) {
-            System.out.print("> ");
-            input = scanner.nextLine();
-            switch (input) {
-                case "/exit", "/quit" -> loop = false;
-                default -> System.out.println(input);
-            }
+        console.println("Telestion Terminal Client, type /help for a list of commands");
+        // input is read on the main thread, messages are printed by the console thread meanwhile
+        var scanner = new Scanner(System.in);
+        var loop = true;
+        while (loop && scanner.hasNextLine()) {
+            loop = repl.execute(scanner.nextLine());
         }
 
+        client.close();
+        console.close();
         System.out.println("Quit");
     }
 }
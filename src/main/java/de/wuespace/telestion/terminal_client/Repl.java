@@ -0,0 +1,153 @@
+package de.wuespace.telestion.terminal_client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import de.wuespace.telestion.client.AddressPattern;
+import de.wuespace.telestion.client.EventBusClient;
+import de.wuespace.telestion.client.Registration;
+import de.wuespace.telestion.client.json.JacksonCodec;
+import io.vertx.eventbusclient.DeliveryOptions;
+import io.vertx.eventbusclient.Message;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Executes the console commands with an {@link EventBusClient}.
+ * Received messages and replies are printed through the {@link AsyncConsole}.
+ */
+class Repl {
+    /**
+     * A parsed {@code /request} command.
+     */
+    record Request(String address, Object body, long timeout) {
+    }
+
+    static final long DEFAULT_REQUEST_TIMEOUT = 5000;
+
+    private static final String HELP = """
+            /subscribe <address>                 print all messages on the address (patterns like a.* or a.** work too)
+            /unsubscribe <address>               stop printing the messages on the address
+            /publish <address> <json>            publish the JSON body to the address
+            /request [-t <ms>] <address> <json>  send the JSON body and print the reply (default timeout 5000 ms)
+            /stats                               show the connection, per-address and console statistics
+            /exit, /quit                         quit the console""";
+
+    private final EventBusClient client;
+    private final AsyncConsole console;
+    private final Map<String, Registration> registrations = new TreeMap<>();
+
+    Repl(EventBusClient client, AsyncConsole console) {
+        this.client = client;
+        this.console = console;
+    }
+
+    /**
+     * @return {@code false} if the console should quit
+     */
+    boolean execute(String line) {
+        line = line.trim();
+        var parts = line.split("\\s+", 3);
+        try {
+            switch (parts[0]) {
+                case "" -> {
+                }
+                case "/exit", "/quit" -> {
+                    return false;
+                }
+                case "/help" -> console.println(HELP);
+                case "/subscribe" -> subscribe(argument(parts, 1, "address"));
+                case "/unsubscribe" -> unsubscribe(argument(parts, 1, "address"));
+                case "/publish" -> client.publish(argument(parts, 1, "address"), parse(argument(parts, 2, "json")));
+                case "/request" -> request(parseRequest(line.substring(parts[0].length())));
+                case "/stats" -> stats();
+                default -> console.println("Unknown command " + parts[0] + ", type /help for a list of commands");
+            }
+        } catch (IllegalArgumentException e) {
+            console.println(e.getMessage());
+        }
+        return true;
+    }
+
+    private void subscribe(String address) {
+        if (registrations.containsKey(address)) {
+            console.println("Already subscribed to " + address);
+            return;
+        }
+        var registration = AddressPattern.isPattern(address)
+                ? client.registerPattern(address, this::print)
+                : client.register(address, this::print);
+        registrations.put(address, registration);
+        console.println("Subscribed to " + address);
+    }
+
+    private void unsubscribe(String address) {
+        var registration = registrations.remove(address);
+        if (registration == null) {
+            console.println("Not subscribed to " + address);
+            return;
+        }
+        registration.unregister();
+        console.println("Unsubscribed from " + address);
+    }
+
+    private void request(Request request) {
+        var address = request.address();
+        var options = new DeliveryOptions().setSendTimeout(request.timeout());
+        client.<Object>request(address, request.body(), options, result -> {
+            if (result.succeeded()) {
+                console.message("reply " + address, result.result().body());
+            } else {
+                console.message("reply " + address, "failed: " + result.cause().getMessage());
+            }
+        });
+    }
+
+    private void stats() {
+        var snapshot = client.getMetrics().snapshot();
+        console.println("Connection: " + snapshot.getConnectionState() + ", transitions: " + snapshot.getStateTransitions());
+        for (var entry : snapshot.getAddresses().entrySet()) {
+            var address = entry.getValue();
+            console.println(String.format("  %-30s in %10d (%12d B)  out %10d (%12d B)  handler p99 %8d ns",
+                    entry.getKey(), address.getMessagesIn(), address.getBytesIn(),
+                    address.getMessagesOut(), address.getBytesOut(), address.getHandlerTime().getP99()));
+        }
+        console.println("Console: " + console.getPrinted() + " printed, " + console.getDropped() + " dropped, "
+                + console.getPending() + " pending");
+    }
+
+    private void print(Message<Object> message) {
+        console.message(message.address(), message.body());
+    }
+
+    /**
+     * Parses the arguments of {@code /request [-t <ms>] <address> <json>}.
+     * The timeout is an option in front of the address, so a JSON body like {@code 42} is never mistaken for it.
+     */
+    static Request parseRequest(String arguments) {
+        var parts = arguments.trim().split("\\s+", 4);
+        if (parts[0].equals("-t")) {
+            var timeout = argument(parts, 1, "ms");
+            if (!timeout.matches("\\d+")) {
+                throw new IllegalArgumentException("Invalid timeout " + timeout + ", expected milliseconds");
+            }
+            return new Request(argument(parts, 2, "address"), parse(argument(parts, 3, "json")), Long.parseLong(timeout));
+        }
+        parts = arguments.trim().split("\\s+", 2);
+        return new Request(argument(parts, 0, "address"), parse(argument(parts, 1, "json")), DEFAULT_REQUEST_TIMEOUT);
+    }
+
+    private static String argument(String[] parts, int index, String name) {
+        if (parts.length <= index || parts[index].isEmpty()) {
+            throw new IllegalArgumentException("Missing argument <" + name + ">, type /help for the usage");
+        }
+        return parts[index];
+    }
+
+    private static Object parse(String json) {
+        try {
+            return JacksonCodec.getMapper().readValue(json, Object.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON body: " + e.getOriginalMessage());
+        }
+    }
+}
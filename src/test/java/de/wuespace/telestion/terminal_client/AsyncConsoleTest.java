@@ -0,0 +1,96 @@
+package de.wuespace.telestion.terminal_client;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+public class AsyncConsoleTest {
+
+    /**
+     * Blocks the printer thread until it is released.
+     */
+    private static class BlockingOutput extends OutputStream {
+        private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        @Override
+        public synchronized void write(int b) {
+            await();
+            written.write(b);
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            await();
+            written.write(b, off, len);
+        }
+
+        private void await() {
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        synchronized String text() {
+            return written.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void countsDroppedMessagesWhenTheBufferIsFull() throws InterruptedException {
+        var output = new BlockingOutput();
+        try (var console = new AsyncConsole(new PrintStream(output, true, StandardCharsets.UTF_8), 2)) {
+            console.message("a", "first");
+            // the printer took the first message and blocks on printing it
+            await(() -> console.getPending() == 0);
+
+            console.message("a", "second");
+            console.message("b", "third");
+            console.message("a", "dropped");
+            console.message("b", "dropped");
+            console.message("a", "dropped");
+            Assertions.assertEquals(3, console.getDropped());
+            Assertions.assertEquals(2, console.getPending());
+            Assertions.assertEquals(0, console.getPrinted());
+
+            output.released.countDown();
+            await(() -> console.getPrinted() == 3);
+            await(() -> output.text().contains("[console]"));
+            Assertions.assertEquals("""
+                    [a] first
+                    [a] second
+                    [b] third
+                    [console] output overloaded, dropped messages: {a=2, b=1}
+                    """, output.text().replace(System.lineSeparator(), "\n"));
+            Assertions.assertEquals(3, console.getDropped());
+        }
+    }
+
+    @Test
+    public void formatsBodiesAsJson() throws InterruptedException {
+        var output = new ByteArrayOutputStream();
+        try (var console = new AsyncConsole(new PrintStream(output, true, StandardCharsets.UTF_8), 16)) {
+            console.message("a", Map.of("value", 1));
+            console.message("b", "text");
+            await(() -> console.getPrinted() == 2);
+            Assertions.assertEquals("[a] {\"value\":1}\n[b] text\n", output.toString(StandardCharsets.UTF_8).replace(System.lineSeparator(), "\n"));
+            Assertions.assertEquals(0, console.getDropped());
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 500 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(condition.getAsBoolean(), "condition not met within 5 s");
+    }
+}
@@ -0,0 +1,75 @@
+package de.wuespace.telestion.terminal_client;
+
+import de.wuespace.telestion.client.EventBusClient;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+public class ReplTest {
+
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    @Test
+    public void parsesRequestsWithTheDefaultTimeout() {
+        Assertions.assertEquals(new Repl.Request("sensors", Map.of("a", List.of(1, 2)), Repl.DEFAULT_REQUEST_TIMEOUT),
+                Repl.parseRequest(" sensors  {\"a\": [1, 2]}"));
+        // a body that is a number is not mistaken for the timeout
+        Assertions.assertEquals(new Repl.Request("sensors", 42, Repl.DEFAULT_REQUEST_TIMEOUT),
+                Repl.parseRequest("sensors 42"));
+    }
+
+    @Test
+    public void parsesTheTimeoutOption() {
+        Assertions.assertEquals(new Repl.Request("sensors", Map.of("a", 1), 200),
+                Repl.parseRequest("-t 200 sensors {\"a\": 1}"));
+        Assertions.assertEquals(new Repl.Request("sensors", 7, 200),
+                Repl.parseRequest("-t 200 sensors 7"));
+    }
+
+    @Test
+    public void rejectsIncompleteRequests() {
+        assertRejected("", "Missing argument <address>");
+        assertRejected("sensors", "Missing argument <json>");
+        assertRejected("-t", "Missing argument <ms>");
+        assertRejected("-t 200 sensors", "Missing argument <json>");
+        assertRejected("-t soon sensors 1", "Invalid timeout soon");
+        assertRejected("sensors {", "Invalid JSON body");
+    }
+
+    @Test
+    public void executesCommandsWithoutConnection() {
+        var repl = repl();
+        Assertions.assertTrue(repl.execute("/help"));
+        Assertions.assertTrue(repl.execute("  "));
+        Assertions.assertTrue(repl.execute("/launch"));
+        Assertions.assertTrue(repl.execute("/publish sensors"));
+        Assertions.assertTrue(repl.execute("/request -t 100 sensors {"));
+        Assertions.assertTrue(repl.execute("/unsubscribe sensors"));
+        Assertions.assertFalse(repl.execute("/quit"));
+        Assertions.assertFalse(repl.execute(" /exit "));
+
+        var lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        Assertions.assertTrue(lines.get(3).startsWith("/request [-t <ms>] <address> <json>"), lines.get(3));
+        var replies = lines.subList(6, lines.size());
+        Assertions.assertEquals(4, replies.size(), replies.toString());
+        Assertions.assertEquals("Unknown command /launch, type /help for a list of commands", replies.get(0));
+        Assertions.assertEquals("Missing argument <json>, type /help for the usage", replies.get(1));
+        Assertions.assertTrue(replies.get(2).startsWith("Invalid JSON body: "), replies.get(2));
+        Assertions.assertEquals("Not subscribed to sensors", replies.get(3));
+    }
+
+    private Repl repl() {
+        var console = new AsyncConsole(new PrintStream(output, true, StandardCharsets.UTF_8), 16);
+        return new Repl(EventBusClient.connectWithTcpBridge("localhost", 7000), console);
+    }
+
+    private static void assertRejected(String arguments, String message) {
+        var e = Assertions.assertThrows(IllegalArgumentException.class, () -> Repl.parseRequest(arguments));
+        Assertions.assertTrue(e.getMessage().startsWith(message), e.getMessage());
+    }
+}